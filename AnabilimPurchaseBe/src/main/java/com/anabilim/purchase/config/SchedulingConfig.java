@@ -0,0 +1,12 @@
+package com.anabilim.purchase.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Zamanlanmış görevler (onay SLA zamanlayıcısı vb.) için konfigürasyon
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
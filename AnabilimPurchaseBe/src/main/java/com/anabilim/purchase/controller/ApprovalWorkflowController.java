@@ -144,10 +144,7 @@ public class ApprovalWorkflowController {
         try {
             log.info("Finding matching approval workflows for amount: {}, category: {}", amount, category);
             
-            List<ApprovalWorkflowDto> workflows = workflowService.findMatchingWorkflows(amount, category)
-                    .stream()
-                    .map(workflowService::convertToDto)
-                    .collect(Collectors.toList());
+            List<ApprovalWorkflowDto> workflows = workflowService.findMatchingWorkflows(amount, category);
             
             return ResponseEntity.ok(ApiResponse.success("Uygun onay akışları başarıyla getirildi", workflows));
             
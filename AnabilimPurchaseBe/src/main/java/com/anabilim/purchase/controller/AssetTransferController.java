@@ -15,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -163,15 +164,27 @@ public class AssetTransferController {
     }
 
     @GetMapping("/statistics/count-by-status")
-    public ResponseEntity<List<Object[]>> getTransferCountsByStatus() {
-        List<Object[]> statistics = assetTransferService.getTransferCountsByStatus();
+    public ResponseEntity<List<Object[]>> getTransferCountsByStatus(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<Object[]> statistics = assetTransferService.getTransferCountsByStatus(from, to);
         return ResponseEntity.ok(statistics);
     }
 
     @GetMapping("/statistics/top-schools")
     public ResponseEntity<List<Object[]>> getTopSchoolsByTransferCount(
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate) {
-        List<Object[]> statistics = assetTransferService.getTopSchoolsByTransferCount(startDate);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        List<Object[]> statistics = assetTransferService.getTopSchoolsByTransferCount(
+                startDate.toLocalDate(), endDate != null ? endDate.toLocalDate() : null);
+        return ResponseEntity.ok(statistics);
+    }
+
+    @GetMapping("/statistics/top-products")
+    public ResponseEntity<List<Object[]>> getMostTransferredProducts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<Object[]> statistics = assetTransferService.getMostTransferredProducts(from, to);
         return ResponseEntity.ok(statistics);
     }
 
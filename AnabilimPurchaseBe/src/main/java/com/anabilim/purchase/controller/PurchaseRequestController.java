@@ -1,13 +1,21 @@
 package com.anabilim.purchase.controller;
 
 import com.anabilim.purchase.dto.request.ApprovePurchaseRequestDto;
+import com.anabilim.purchase.dto.request.BulkApprovePurchaseRequestDto;
 import com.anabilim.purchase.dto.request.CreatePurchaseRequestDto;
 import com.anabilim.purchase.dto.request.UpdatePurchaseRequestItemsDto;
+import com.anabilim.purchase.dto.response.BulkApprovalResultDto;
+import com.anabilim.purchase.dto.response.CursorPageDto;
 import com.anabilim.purchase.dto.response.PurchaseRequestDto;
+import com.anabilim.purchase.dto.response.PurchaseRequestSummaryDto;
 import com.anabilim.purchase.entity.enums.RequestStatus;
 import com.anabilim.purchase.service.PurchaseRequestService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -40,6 +48,13 @@ public class PurchaseRequestController {
         return ResponseEntity.ok(purchaseRequestService.getAllPurchaseRequests());
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageDto<PurchaseRequestSummaryDto>> getPurchaseRequestSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(purchaseRequestService.getPurchaseRequestSummaries(cursor, size));
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePurchaseRequest(@PathVariable Long id) {
         purchaseRequestService.deletePurchaseRequest(id);
@@ -52,12 +67,29 @@ public class PurchaseRequestController {
         return ResponseEntity.ok(purchaseRequestService.getPurchaseRequestsByStatus(status));
     }
     
+    @GetMapping("/status/{status}/page")
+    public ResponseEntity<CursorPageDto<PurchaseRequestSummaryDto>> getPurchaseRequestSummariesByStatus(
+            @PathVariable RequestStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(purchaseRequestService.getPurchaseRequestSummariesByStatus(status, cursor, size));
+    }
+    
     @GetMapping("/my-requests")
     public ResponseEntity<List<PurchaseRequestDto>> getMyPurchaseRequests(
             @AuthenticationPrincipal UserDetails userDetails) {
         return ResponseEntity.ok(purchaseRequestService.getPurchaseRequestsByRequester(userDetails.getUsername()));
     }
     
+    @GetMapping("/my-requests/page")
+    public ResponseEntity<CursorPageDto<PurchaseRequestSummaryDto>> getMyPurchaseRequestSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(purchaseRequestService.getPurchaseRequestSummariesByRequester(
+                userDetails.getUsername(), cursor, size));
+    }
+    
     @GetMapping("/my-requests/status/{status}")
     public ResponseEntity<List<PurchaseRequestDto>> getMyPurchaseRequestsByStatus(
             @PathVariable RequestStatus status,
@@ -84,12 +116,33 @@ public class PurchaseRequestController {
                 id, userDetails.getUsername(), rejectDto));
     }
     
+    @PostMapping("/approvals/bulk")
+    public ResponseEntity<BulkApprovalResultDto> bulkApprovePurchaseRequests(
+            @Valid @RequestBody BulkApprovePurchaseRequestDto bulkDto,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(purchaseRequestService.bulkApprovePurchaseRequests(
+                userDetails.getUsername(), bulkDto));
+    }
+    
     @GetMapping("/pending-approvals")
     public ResponseEntity<List<PurchaseRequestDto>> getPendingApprovalsForUser(
             @AuthenticationPrincipal UserDetails userDetails) {
         return ResponseEntity.ok(purchaseRequestService.getPendingApprovalsForUser(userDetails.getUsername()));
     }
     
+    @GetMapping("/pending-approvals/page")
+    public ResponseEntity<Page<PurchaseRequestDto>> getPendingApprovalsPageForUser(
+            @PageableDefault(sort = "purchaseRequest.createdAt", direction = Sort.Direction.ASC) Pageable pageable,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(purchaseRequestService.getPendingApprovalsForUser(userDetails.getUsername(), pageable));
+    }
+    
+    @GetMapping("/pending-approvals/count")
+    public ResponseEntity<Long> countPendingApprovalsForUser(
+            @AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(purchaseRequestService.countPendingApprovalsForUser(userDetails.getUsername()));
+    }
+    
     @PutMapping("/{id}/items")
     public ResponseEntity<PurchaseRequestDto> updatePurchaseRequestItems(
             @PathVariable Long id,
@@ -3,9 +3,12 @@ package com.anabilim.purchase.controller;
 import com.anabilim.purchase.dto.request.CreateStockMovementByWarehouseDto;
 import com.anabilim.purchase.dto.request.CreateStockMovementDto;
 import com.anabilim.purchase.dto.request.UpdateWarehouseStockDto;
+import com.anabilim.purchase.dto.response.BulkStockMovementResultDto;
 import com.anabilim.purchase.dto.response.ProductStockDetailDto;
 import com.anabilim.purchase.dto.response.ProductStockSummaryDto;
+import com.anabilim.purchase.dto.response.StockAsOfDto;
 import com.anabilim.purchase.dto.response.StockMovementDto;
+import com.anabilim.purchase.dto.response.StockMovementSummaryDto;
 import com.anabilim.purchase.dto.response.WarehouseDto;
 import com.anabilim.purchase.dto.response.WarehouseStockDto;
 import com.anabilim.purchase.entity.Product;
@@ -14,20 +17,31 @@ import com.anabilim.purchase.entity.Warehouse;
 import com.anabilim.purchase.entity.WarehouseStock;
 import com.anabilim.purchase.entity.enums.ProductType;
 import com.anabilim.purchase.repository.ProductRepository;
+import com.anabilim.purchase.repository.ProductSpecifications;
 import com.anabilim.purchase.repository.StockMovementRepository;
 import com.anabilim.purchase.repository.WarehouseRepository;
 import com.anabilim.purchase.repository.WarehouseStockRepository;
+import com.anabilim.purchase.service.StockLedgerService;
+import com.anabilim.purchase.service.StockMovementImportService;
+import com.anabilim.purchase.service.StockSnapshotService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -40,6 +54,12 @@ public class WarehouseStockController {
     private final WarehouseRepository warehouseRepository;
     private final ProductRepository productRepository;
     private final StockMovementRepository stockMovementRepository;
+    private final StockLedgerService stockLedgerService;
+    private final StockMovementImportService stockMovementImportService;
+    private final StockSnapshotService stockSnapshotService;
+
+    @Value("${stock.movements.history-months:12}")
+    private int historyMonths;
 
     @GetMapping("/products")
     public ResponseEntity<Page<ProductStockSummaryDto>> getProductsWithStockSummary(
@@ -49,44 +69,30 @@ public class WarehouseStockController {
             @RequestParam(required = false) Boolean lowStock,
             Pageable pageable) {
         
-        Page<Product> products;
-        
-        // Ürün tipi filtresi varsa önce onu uygula
+        // Tüm filtreler birleştirilerek SQL'e aktarılır; sayfa ve toplam sayısı filtrelenmiş sonuç üzerinden hesaplanır
+        List<Specification<Product>> filters = new ArrayList<>();
         if (productType != null && !productType.trim().isEmpty()) {
             try {
-                ProductType type = ProductType.valueOf(productType.toUpperCase());
-                if (search != null && !search.trim().isEmpty()) {
-                    // Ürün tipi + arama kombinasyonu için custom query gerekebilir
-                    products = productRepository.findAll(pageable);
-                    // Bu durumda manuel filtreleme yapılabilir
-                } else if (categoryId != null) {
-                    // Ürün tipi + kategori kombinasyonu için custom query gerekebilir
-                    products = productRepository.findAll(pageable);
-                    // Bu durumda manuel filtreleme yapılabilir
-                } else {
-                    products = productRepository.findByProductTypeAndIsActiveTrue(type, pageable);
-                }
+                ProductType type = ProductType.valueOf(productType.trim().toUpperCase());
+                filters.add(ProductSpecifications.hasProductType(type));
+                filters.add(ProductSpecifications.isActive());
             } catch (IllegalArgumentException e) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Geçersiz ürün tipi: " + productType);
             }
-        } else if (search != null && !search.trim().isEmpty()) {
-            products = productRepository.findByNameContainingIgnoreCaseOrCodeContainingIgnoreCase(
-                    search.trim(), search.trim(), pageable);
-        } else if (categoryId != null) {
-            products = productRepository.findByCategoryId(categoryId, pageable);
-        } else {
-            products = productRepository.findAll(pageable);
         }
-        
-        Page<ProductStockSummaryDto> result = products.map(this::convertToStockSummary);
-        
-        // Düşük stok filtresi varsa uygula
-        if (lowStock != null && lowStock) {
-            List<ProductStockSummaryDto> filteredList = result.getContent().stream()
-                    .filter(ProductStockSummaryDto::isHasLowStock)
-                    .collect(Collectors.toList());
-            // Not: Bu basit filtreleme. Gerçek uygulamada database level'da yapılmalı
+        if (search != null && !search.trim().isEmpty()) {
+            filters.add(ProductSpecifications.nameOrCodeContains(search.trim()));
+        }
+        if (categoryId != null) {
+            filters.add(ProductSpecifications.inCategory(categoryId));
         }
+        if (Boolean.TRUE.equals(lowStock)) {
+            filters.add(ProductSpecifications.hasLowStockInAnyWarehouse());
+        }
+        
+        // Stok özetleri (toplam, depo sayısı, düşük stok, son hareket) tek sorguda hesaplanır
+        Page<ProductStockSummaryDto> result = productRepository.findStockSummaries(
+                Specification.allOf(filters), pageable);
         
         return ResponseEntity.ok(result);
     }
@@ -131,19 +137,15 @@ public class WarehouseStockController {
                 .map(this::convertToWarehouseStockDetail)
                 .collect(Collectors.toList());
 
-        // Son 20 hareket kaydını al
-        List<StockMovement> recentMovements = stockMovementRepository.findRecentMovementsByProduct(
-                product, PageRequest.of(0, 20));
-        
-        List<StockMovementDto> recentMovementDtos = recentMovements.stream()
-                .map(this::convertToMovementDto)
-                .collect(Collectors.toList());
+        // Son 20 hareket kaydı tek sorguda özet olarak alınır (yalnızca geçmiş penceresindeki bölümler taranır)
+        List<StockMovementSummaryDto> recentMovements = stockMovementRepository.findRecentSummariesByProductId(
+                product.getId(), LocalDateTime.now().minusMonths(historyMonths), PageRequest.of(0, 20));
 
         ProductStockDetailDto response = new ProductStockDetailDto(
                 convertToProductBasicDto(product),
                 totalStock,
                 warehouseStockDetails,
-                recentMovementDtos
+                recentMovements
         );
 
         return ResponseEntity.ok(response);
@@ -177,19 +179,7 @@ public class WarehouseStockController {
             @PathVariable Long stockId,
             @Valid @RequestBody CreateStockMovementDto request) {
         
-        WarehouseStock stock = warehouseStockRepository.findById(stockId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Stok kaydı bulunamadı"));
-
-        StockMovement movement = new StockMovement();
-        movement.setQuantity(request.getQuantity());
-        movement.setMovementType(request.getMovementType());
-        movement.setReferenceType(request.getReferenceType());
-        movement.setReferenceId(request.getReferenceId());
-        movement.setNotes(request.getNotes());
-
-        stock.addMovement(movement);
-        stock = warehouseStockRepository.save(stock);
-
+        StockMovement movement = stockLedgerService.recordMovement(stockId, request);
         return ResponseEntity.ok(convertToMovementDto(movement));
     }
 
@@ -197,93 +187,61 @@ public class WarehouseStockController {
     public ResponseEntity<StockMovementDto> createMovementByWarehouse(
             @Valid @RequestBody CreateStockMovementByWarehouseDto request) {
         
-        Warehouse warehouse = warehouseRepository.findById(request.getWarehouseId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Depo bulunamadı"));
-        
-        Product product = productRepository.findById(request.getProductId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Ürün bulunamadı"));
+        StockMovement movement = stockLedgerService.recordMovement(request);
+        return ResponseEntity.ok(convertToMovementDto(movement));
+    }
 
-        // Stok kaydını bul veya oluştur
-        WarehouseStock stock = warehouseStockRepository.findByWarehouseAndProduct(warehouse, product)
-                .orElseGet(() -> {
-                    WarehouseStock newStock = new WarehouseStock();
-                    newStock.setWarehouse(warehouse);
-                    newStock.setProduct(product);
-                    newStock.setCurrentStock(0);
-                    return warehouseStockRepository.save(newStock);
-                });
-
-        StockMovement movement = new StockMovement();
-        movement.setQuantity(request.getQuantity());
-        movement.setMovementType(request.getMovementType());
-        movement.setReferenceType(request.getReferenceType());
-        movement.setReferenceId(request.getReferenceId());
-        movement.setNotes(request.getNotes());
-
-        stock.addMovement(movement);
-        stock = warehouseStockRepository.save(stock);
+    @PostMapping(value = "/movements/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkStockMovementResultDto> importMovementsCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(stockMovementImportService.importMovements(body, StockMovementImportService.Format.CSV));
+    }
 
-        return ResponseEntity.ok(convertToMovementDto(movement));
+    @PostMapping(value = "/movements/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkStockMovementResultDto> importMovementsJson(InputStream body) throws IOException {
+        return ResponseEntity.ok(stockMovementImportService.importMovements(body, StockMovementImportService.Format.JSON));
     }
 
     @GetMapping("/{stockId}/movements")
-    public ResponseEntity<Page<StockMovementDto>> getMovements(
+    public ResponseEntity<Page<StockMovementSummaryDto>> getMovements(
             @PathVariable Long stockId,
             @RequestParam(required = false) String referenceType,
             @RequestParam(required = false) Long referenceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
             Pageable pageable) {
         
-        WarehouseStock stock = warehouseStockRepository.findById(stockId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Stok kaydı bulunamadı"));
+        if (!warehouseStockRepository.existsById(stockId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Stok kaydı bulunamadı");
+        }
+        
+        // Tarih aralığı verilmezse geçmiş penceresi kullanılır; sorgu yalnızca bu aralıktaki aylık bölümleri tarar
+        LocalDateTime rangeTo = to != null ? to : LocalDateTime.now().plusSeconds(1);
+        LocalDateTime rangeFrom = from != null ? from : rangeTo.minusMonths(historyMonths);
 
-        Page<StockMovement> movements;
+        Page<StockMovementSummaryDto> movements;
         if (referenceType != null && referenceId != null) {
-            movements = stockMovementRepository.findByWarehouseStockAndReferenceTypeAndReferenceId(
-                    stock, referenceType, referenceId, pageable);
+            movements = stockMovementRepository.findSummariesByStockIdAndReference(
+                    stockId, referenceType, referenceId, rangeFrom, rangeTo, pageable);
         } else {
-            movements = stockMovementRepository.findByWarehouseStock(stock, pageable);
+            movements = stockMovementRepository.findSummariesByStockId(stockId, rangeFrom, rangeTo, pageable);
         }
 
-        return ResponseEntity.ok(movements.map(this::convertToMovementDto));
+        return ResponseEntity.ok(movements);
     }
 
-    private ProductStockSummaryDto convertToStockSummary(Product product) {
-        // Ürünün tüm depolardaki stok bilgilerini al
-        List<WarehouseStock> warehouseStocks = warehouseStockRepository.findByProduct(product);
-        
-        // Toplam stok hesapla
-        Integer totalStock = warehouseStocks.stream()
-                .mapToInt(ws -> ws.getCurrentStock() != null ? ws.getCurrentStock() : 0)
-                .sum();
-        
-        // Kaç depoda stok var
-        Integer warehouseCount = warehouseStocks.size();
-        
-        // Herhangi bir depoda düşük stok var mı
-        boolean hasLowStock = warehouseStocks.stream()
-                .anyMatch(ws -> ws.getMinStock() != null && 
-                              ws.getCurrentStock() != null && 
-                              ws.getCurrentStock() <= ws.getMinStock());
+    @GetMapping("/{stockId}/as-of")
+    public ResponseEntity<StockAsOfDto> getStockAsOf(
+            @PathVariable Long stockId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
         
-        // En son hareket tarihi
-        LocalDateTime lastMovementDate = stockMovementRepository
-                .findLastMovementDateByProduct(product)
-                .orElse(null);
+        return ResponseEntity.ok(stockSnapshotService.getStockAsOf(stockId, at));
+    }
+
+    @PostMapping("/snapshots")
+    public ResponseEntity<Integer> createSnapshots(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
         
-        return new ProductStockSummaryDto(
-                product.getId(),
-                product.getName(),
-                product.getCode(),
-                product.getDescription(),
-                product.getUnitOfMeasure().getDisplayName(),
-                product.getCategory() != null ? product.getCategory().getName() : null,
-                product.getProductType() != null ? product.getProductType().getDisplayName() : null,
-                totalStock,
-                warehouseCount,
-                hasLowStock,
-                lastMovementDate,
-                product.isActive()
-        );
+        return ResponseEntity.ok(stockSnapshotService.createSnapshots(at));
     }
 
     private ProductStockDetailDto.ProductBasicDto convertToProductBasicDto(Product product) {
@@ -298,11 +256,6 @@ public class WarehouseStockController {
     }
 
     private ProductStockDetailDto.WarehouseStockDetailDto convertToWarehouseStockDetail(WarehouseStock stock) {
-        // Son hareket tarihini al
-        LocalDateTime lastMovementDate = stockMovementRepository
-                .findLastMovementDateByWarehouseStock(stock)
-                .orElse(null);
-
         // Düşük stok kontrolü
         boolean isLowStock = stock.getMinStock() != null && 
                             stock.getCurrentStock() != null && 
@@ -317,10 +270,12 @@ public class WarehouseStockController {
                         stock.getWarehouse().getAddress()
                 ),
                 stock.getCurrentStock(),
+                stock.getReservedQuantity(),
+                stock.getAvailableQuantity(),
                 stock.getMinStock(),
                 stock.getMaxStock(),
                 isLowStock,
-                lastMovementDate
+                stock.getLastMovementAt()
         );
     }
 
@@ -330,6 +285,8 @@ public class WarehouseStockController {
                 convertToWarehouseDto(stock.getWarehouse()),
                 convertToProductBasicDto2(stock.getProduct()),
                 stock.getCurrentStock(),
+                stock.getReservedQuantity(),
+                stock.getAvailableQuantity(),
                 stock.getMinStock(),
                 stock.getMaxStock(),
                 stock.getCreatedAt(),
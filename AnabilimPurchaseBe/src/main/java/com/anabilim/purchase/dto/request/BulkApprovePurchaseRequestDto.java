@@ -0,0 +1,27 @@
+package com.anabilim.purchase.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkApprovePurchaseRequestDto {
+    
+    @NotEmpty(message = "En az bir talep seçilmelidir")
+    @Size(max = 500, message = "Tek seferde en fazla 500 talep işlenebilir")
+    private List<Long> requestIds;
+    
+    private boolean approved;
+    
+    @Size(max = 1000, message = "Yorum en fazla 1000 karakter olabilir")
+    private String comment;
+    
+    @Size(max = 1000, message = "Red nedeni en fazla 1000 karakter olabilir")
+    private String rejectionReason;
+}
@@ -23,6 +23,8 @@ public class UpdatePurchaseRequestItemsDto {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class PurchaseRequestItemDto {
+        // Mevcut kalem güncelleniyorsa kalem ID'si; boşsa ürün üzerinden eşleştirilir
+        private Long id;
         private Long productId;
         private Set<Long> potentialSupplierIds;
         private Long selectedSupplierId;
@@ -19,6 +19,7 @@ public class AssetTransferDto {
     private String statusDisplayName;
     private LocalDateTime transferDate;
     private LocalDateTime actualTransferDate;
+    private LocalDateTime stockPostedAt;
     private String notes;
     private UserBasicDto requestedBy;
     private UserBasicDto approvedBy;
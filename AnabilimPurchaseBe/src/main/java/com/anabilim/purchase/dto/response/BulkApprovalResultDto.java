@@ -0,0 +1,28 @@
+package com.anabilim.purchase.dto.response;
+
+import com.anabilim.purchase.entity.enums.RequestStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkApprovalResultDto {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<ItemResult> results;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private Long requestId;
+        private boolean success;
+        private RequestStatus status;
+        private String message;
+    }
+}
@@ -0,0 +1,25 @@
+package com.anabilim.purchase.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStockMovementResultDto {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<LineError> errors; // Yalnızca hatalı satırlar
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+        private int line;
+        private String message;
+    }
+}
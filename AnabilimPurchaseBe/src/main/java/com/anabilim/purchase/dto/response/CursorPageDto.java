@@ -0,0 +1,21 @@
+package com.anabilim.purchase.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * İmleç (keyset) tabanlı sayfalama yanıtı.
+ * nextCursor bir sonraki sayfanın isteğinde "cursor" parametresi olarak gönderilir.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
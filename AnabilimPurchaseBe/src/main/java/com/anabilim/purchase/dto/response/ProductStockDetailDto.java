@@ -14,7 +14,7 @@ public class ProductStockDetailDto {
     private ProductBasicDto product;
     private Integer totalStock;
     private List<WarehouseStockDetailDto> warehouseStocks;
-    private List<StockMovementDto> recentMovements;
+    private List<StockMovementSummaryDto> recentMovements;
     
     @Data
     @NoArgsConstructor
@@ -35,6 +35,8 @@ public class ProductStockDetailDto {
         private Long stockId;
         private WarehouseBasicDto warehouse;
         private Integer currentStock;
+        private Integer reservedQuantity;
+        private Integer availableQuantity;
         private Integer minStock;
         private Integer maxStock;
         private boolean isLowStock;
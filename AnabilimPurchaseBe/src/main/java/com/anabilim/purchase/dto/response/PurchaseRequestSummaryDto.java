@@ -0,0 +1,26 @@
+package com.anabilim.purchase.dto.response;
+
+import com.anabilim.purchase.entity.enums.RequestStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Liste ekranları için hafif satın alma talebi özeti (ilişkiler yüklenmez)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchaseRequestSummaryDto {
+    private Long id;
+    private String title;
+    private RequestStatus status;
+    private Long requesterId;
+    private String requesterFirstName;
+    private String requesterLastName;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,19 @@
+package com.anabilim.purchase.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAsOfDto {
+    private Long warehouseStockId;
+    private LocalDateTime asOf;
+    private Integer quantity;
+    private LocalDateTime basedOn; // Hesaplamanın başladığı snapshot anı (snapshot yoksa anlık stok)
+    private boolean fromSnapshot;
+    private long replayedMovements;
+}
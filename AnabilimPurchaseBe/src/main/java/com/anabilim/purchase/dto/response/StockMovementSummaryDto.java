@@ -0,0 +1,31 @@
+package com.anabilim.purchase.dto.response;
+
+import com.anabilim.purchase.entity.enums.MovementType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Hareket geçmişi listeleri için hafif stok hareketi özeti (depo ve ürün yalnızca kimlik ve kodla taşınır)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementSummaryDto {
+    private Long id;
+    private Long warehouseStockId;
+    private Long warehouseId;
+    private String warehouseCode;
+    private String warehouseName;
+    private Long productId;
+    private String productCode;
+    private Integer quantity;
+    private MovementType movementType;
+    private String referenceType;
+    private Long referenceId;
+    private String notes;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -14,6 +14,8 @@ public class WarehouseStockDto {
     private WarehouseDto warehouse;
     private ProductBasicDto product;
     private Integer currentStock;
+    private Integer reservedQuantity; // Bekleyen transferler için ayrılmış
+    private Integer availableQuantity; // Mevcut - ayrılmış
     private Integer minStock;
     private Integer maxStock;
     private LocalDateTime createdAt;
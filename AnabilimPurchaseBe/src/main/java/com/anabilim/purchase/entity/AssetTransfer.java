@@ -50,6 +50,9 @@ public class AssetTransfer {
     @Column(name = "actual_transfer_date")
     private LocalDateTime actualTransferDate; // Gerçek transfer tarihi
     
+    @Column(name = "stock_posted_at")
+    private LocalDateTime stockPostedAt; // Kalemlerin kaynak depodan stok çıkışı olarak işlendiği an
+    
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
     
@@ -21,8 +21,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class AssetTransferItem {
     
+    // IDENTITY insert'leri toplu gönderilemez; sequence 50'şer id ayırır ve kalemler tek batch'te yazılır
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "asset_transfer_item_id_seq")
+    @SequenceGenerator(name = "asset_transfer_item_id_seq", sequenceName = "asset_transfer_item_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
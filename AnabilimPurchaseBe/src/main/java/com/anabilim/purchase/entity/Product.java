@@ -19,7 +19,10 @@ import java.util.Set;
  * Ürün yönetimi için Product entity'si
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_type_active", columnList = "product_type, is_active"),
+    @Index(name = "idx_products_category", columnList = "category_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -68,13 +68,6 @@ public class PurchaseOrder {
     
     @PrePersist
     public void prePersist() {
-        if (this.orderCode == null) {
-            this.orderCode = generateOrderCode();
-        }
         this.totalPrice = this.unitPrice.multiply(BigDecimal.valueOf(this.quantity));
     }
-    
-    private String generateOrderCode() {
-        return "PO-" + System.currentTimeMillis();
-    }
 } 
\ No newline at end of file
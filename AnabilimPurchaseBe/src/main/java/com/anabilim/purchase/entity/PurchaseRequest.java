@@ -15,7 +15,22 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "purchase_requests")
+@Table(name = "purchase_requests", indexes = {
+    @Index(name = "idx_purchase_requests_created_id", columnList = "created_at, id"),
+    @Index(name = "idx_purchase_requests_status_created_id", columnList = "status, created_at, id"),
+    @Index(name = "idx_purchase_requests_requester_created_id", columnList = "requester_id, created_at, id")
+})
+@NamedEntityGraph(
+    name = "PurchaseRequest.list",
+    attributeNodes = {
+        @NamedAttributeNode(value = "requester", subgraph = "user"),
+        @NamedAttributeNode(value = "approvals", subgraph = "approval")
+    },
+    subgraphs = {
+        @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("manager")),
+        @NamedSubgraph(name = "approval", attributeNodes = @NamedAttributeNode(value = "approver", subgraph = "user"))
+    }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
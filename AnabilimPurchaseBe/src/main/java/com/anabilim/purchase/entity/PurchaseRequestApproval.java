@@ -11,7 +11,11 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "purchase_request_approvals")
+@Table(name = "purchase_request_approvals", indexes = {
+    @Index(name = "idx_pr_approvals_inbox", columnList = "approver_id, status, purchase_request_id, step_order"),
+    @Index(name = "idx_pr_approvals_request_status_step", columnList = "purchase_request_id, status, step_order"),
+    @Index(name = "idx_pr_approvals_status_request_step", columnList = "status, purchase_request_id, step_order")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -55,4 +59,8 @@ public class PurchaseRequestApproval {
     
     @Column(name = "action_taken_at")
     private LocalDateTime actionTakenAt;
+    
+    // SLA süresi dolup üst yönetime iletildiği an; iletilmiş adım yeniden zamanlanmaz
+    @Column(name = "escalated_at")
+    private LocalDateTime escalatedAt;
 } 
\ No newline at end of file
@@ -10,7 +10,6 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -74,12 +73,14 @@ public class PurchaseRequestItem {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         PurchaseRequestItem that = (PurchaseRequestItem) o;
-        return Objects.equals(id, that.id);
+        // Henüz kaydedilmemiş (id'siz) kalemler birbirine eşit sayılmaz
+        return id != null && Objects.equals(id, that.id);
     }
     
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        // id kayıt sırasında atandığı için Set içindeki konum değişmesin diye sabit
+        return getClass().hashCode();
     }
     
     // Yardımcı metodlar
@@ -94,11 +95,6 @@ public class PurchaseRequestItem {
         quote.setQuoteUid(UUID.randomUUID().toString());
         quote.setStatus(QuoteStatus.PENDING);
         
-        // Quote number
-        String datePart = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        int randomNum = 1000 + (int)(Math.random() * 9000);
-        quote.setQuoteNumber(String.format("QT-%s-%04d", datePart, randomNum));
-        
         // Varsayılan teslim tarihi olarak tahmini teslim tarihini veya 30 gün sonrasını kullan
         LocalDateTime defaultDeliveryDate = this.estimatedDeliveryDate != null 
             ? this.estimatedDeliveryDate 
@@ -11,8 +11,14 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
+/**
+ * Stok hareketi (yalnızca eklenir). Veritabanında tablo created_at'e göre aylık bölümlenmiştir;
+ * sorgular bölüm elemesi için tarih aralığı içermelidir.
+ */
 @Entity
-@Table(name = "stock_movements")
+@Table(name = "stock_movements", indexes = {
+    @Index(name = "idx_stock_movements_stock_created", columnList = "warehouse_stock_id, created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
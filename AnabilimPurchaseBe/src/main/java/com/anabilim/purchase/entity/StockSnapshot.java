@@ -0,0 +1,43 @@
+package com.anabilim.purchase.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stok kaydının belirli bir andaki miktarı (ör. ay sonu).
+ * Geçmiş bir tarihteki stok, en yakın snapshot'tan sonraki hareketler uygulanarak hesaplanır.
+ */
+@Entity
+@Table(name = "stock_snapshots",
+    uniqueConstraints = @UniqueConstraint(name = "uk_stock_snapshots_stock_at", columnNames = {"warehouse_stock_id", "snapshot_at"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSnapshot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_stock_id", nullable = false)
+    private WarehouseStock warehouseStock;
+    
+    // Bu ana kadar (dahil) oluşturulan hareketler miktara yansımıştır
+    @Column(name = "snapshot_at", nullable = false)
+    private LocalDateTime snapshotAt;
+    
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -11,7 +11,6 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -97,12 +96,6 @@ public class SupplierQuote {
         if (this.quoteUid == null) {
             this.quoteUid = UUID.randomUUID().toString();
         }
-        if (this.quoteNumber == null) {
-            // Format: QT-YYYYMMDD-XXXX where XXXX is a random number between 1000-9999
-            String datePart = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-            int randomNum = 1000 + (int)(Math.random() * 9000);
-            this.quoteNumber = String.format("QT-%s-%04d", datePart, randomNum);
-        }
         if (this.totalPrice == null && this.unitPrice != null && this.quantity != null) {
             this.totalPrice = this.unitPrice.multiply(BigDecimal.valueOf(this.quantity));
         }
@@ -119,6 +112,11 @@ public class SupplierQuote {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         SupplierQuote that = (SupplierQuote) o;
-        return Objects.equals(id, that.id);
+        return id != null && Objects.equals(id, that.id);
+    }
+    
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
     }
 } 
\ No newline at end of file
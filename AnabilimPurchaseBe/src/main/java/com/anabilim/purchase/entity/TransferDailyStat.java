@@ -0,0 +1,42 @@
+package com.anabilim.purchase.entity;
+
+import com.anabilim.purchase.entity.enums.TransferStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Gün (transferin oluşturulduğu gün), okul ve durum başına transfer sayısı.
+ * Transferler durum değiştirdikçe artımlı olarak güncellenir; istatistikler transfer tablosunu taramadan buradan okunur.
+ */
+@Entity
+@Table(name = "transfer_daily_stats",
+    uniqueConstraints = @UniqueConstraint(name = "uk_transfer_daily_stats_key", columnNames = {"stat_date", "school_id", "status"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferDailyStat {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "school_id", nullable = false)
+    private School school;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private TransferStatus status;
+    
+    @Column(name = "transfer_count", nullable = false)
+    private Long transferCount = 0L;
+}
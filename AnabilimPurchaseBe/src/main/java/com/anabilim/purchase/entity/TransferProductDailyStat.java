@@ -0,0 +1,55 @@
+package com.anabilim.purchase.entity;
+
+import com.anabilim.purchase.entity.enums.TransferStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Gün (transferin oluşturulduğu gün), okul, ürün ve durum başına transfer kalemi toplamları.
+ * TransferDailyStat ile birlikte artımlı olarak güncellenir.
+ */
+@Entity
+@Table(name = "transfer_product_daily_stats",
+    uniqueConstraints = @UniqueConstraint(name = "uk_transfer_product_daily_stats_key",
+        columnNames = {"stat_date", "school_id", "product_id", "status"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferProductDailyStat {
+    
+    // Satırlar TransferStatBatchRepository upsert'leriyle yazılır; id sequence'tan nextval ile alınır
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfer_product_daily_stat_id_seq")
+    @SequenceGenerator(name = "transfer_product_daily_stat_id_seq", sequenceName = "transfer_product_daily_stat_id_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "school_id", nullable = false)
+    private School school;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private TransferStatus status;
+    
+    @Column(name = "item_count", nullable = false)
+    private Long itemCount = 0L;
+    
+    @Column(name = "requested_quantity", nullable = false)
+    private Long requestedQuantity = 0L;
+    
+    @Column(name = "transferred_quantity", nullable = false)
+    private Long transferredQuantity = 0L;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -14,7 +15,8 @@ import java.util.Set;
 
 @Entity
 @Table(name = "warehouse_stocks", 
-    uniqueConstraints = @UniqueConstraint(columnNames = {"warehouse_id", "product_id"}))
+    uniqueConstraints = @UniqueConstraint(columnNames = {"warehouse_id", "product_id"}),
+    indexes = @Index(name = "idx_warehouse_stocks_product_levels", columnList = "product_id, current_stock, min_stock"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -36,12 +38,22 @@ public class WarehouseStock {
     @Column(name = "current_stock", nullable = false)
     private Integer currentStock = 0;
     
+    // Bekleyen transferler için ayrılmış miktar; kullanılabilir stok = mevcut - ayrılmış
+    @ColumnDefault("0")
+    @Column(name = "reserved_quantity", nullable = false)
+    private Integer reservedQuantity = 0;
+    
     @Column(name = "min_stock")
     private Integer minStock;
     
     @Column(name = "max_stock")
     private Integer maxStock;
     
+    // Son hareketin zamanı; hareketi uygulayan UPDATE ile birlikte güncellenir
+    @Column(name = "last_movement_at")
+    private LocalDateTime lastMovementAt;
+    
+    // Hareketler StockLedgerService ile doğrudan eklenir; bu koleksiyon yazma sırasında yüklenmez
     @OneToMany(mappedBy = "warehouseStock", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<StockMovement> movements = new HashSet<>();
     
@@ -53,40 +65,9 @@ public class WarehouseStock {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
-    public void addMovement(StockMovement movement) {
-        movements.add(movement);
-        movement.setWarehouseStock(this);
-        
-        // Stok miktarını güncelle
-        switch (movement.getMovementType()) {
-            case IN:
-                this.currentStock += movement.getQuantity();
-                break;
-            case OUT:
-                this.currentStock -= movement.getQuantity();
-                break;
-            case ADJUSTMENT:
-                this.currentStock += movement.getQuantity(); // Pozitif veya negatif olabilir
-                break;
-        }
-    }
-    
-    public void removeMovement(StockMovement movement) {
-        if (movements.remove(movement)) {
-            movement.setWarehouseStock(null);
-            
-            // Stok miktarını geri al
-            switch (movement.getMovementType()) {
-                case IN:
-                    this.currentStock -= movement.getQuantity();
-                    break;
-                case OUT:
-                    this.currentStock += movement.getQuantity();
-                    break;
-                case ADJUSTMENT:
-                    this.currentStock -= movement.getQuantity(); // Pozitif veya negatif olabilir
-                    break;
-            }
-        }
+    public int getAvailableQuantity() {
+        int current = currentStock != null ? currentStock : 0;
+        int reserved = reservedQuantity != null ? reservedQuantity : 0;
+        return current - reserved;
     }
-} 
\ No newline at end of file
+}
@@ -14,4 +14,11 @@ public enum MovementType {
     public String getDisplayName() {
         return displayName;
     }
+    
+    /**
+     * Hareket miktarının stoğa etkisi: giriş ve düzeltme ekler, çıkış düşer
+     */
+    public int toDelta(int quantity) {
+        return this == OUT ? -quantity : quantity;
+    }
 } 
\ No newline at end of file
@@ -19,9 +19,6 @@ public class AssetTransferMapper {
     public AssetTransfer toEntity(CreateAssetTransferDto createDto) {
         AssetTransfer transfer = new AssetTransfer();
         
-        // Transfer kodu otomatik oluştur
-        transfer.setTransferCode(generateTransferCode());
-        
         // Transfer tarihini ayarla
         if (createDto.getTransferDate() != null) {
             // LocalDate'i LocalDateTime'a çevir ve günün sonunu (23:59:59) kullan
@@ -47,6 +44,7 @@ public class AssetTransferMapper {
         dto.setStatusDisplayName(transfer.getStatus().getDisplayName());
         dto.setTransferDate(transfer.getTransferDate());
         dto.setActualTransferDate(transfer.getActualTransferDate());
+        dto.setStockPostedAt(transfer.getStockPostedAt());
         dto.setNotes(transfer.getNotes());
         dto.setCreatedAt(transfer.getCreatedAt());
         dto.setUpdatedAt(transfer.getUpdatedAt());
@@ -164,9 +162,4 @@ public class AssetTransferMapper {
             user.getPosition()
         );
     }
-    
-    private String generateTransferCode() {
-        return "TR-" + LocalDateTime.now().getYear() + "-" + 
-               String.format("%06d", (int)(Math.random() * 1000000));
-    }
 } 
\ No newline at end of file
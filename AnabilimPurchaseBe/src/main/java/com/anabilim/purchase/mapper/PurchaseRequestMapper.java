@@ -6,15 +6,22 @@ import com.anabilim.purchase.dto.response.PurchaseRequestApprovalDto;
 import com.anabilim.purchase.dto.response.PurchaseRequestDto;
 import com.anabilim.purchase.dto.response.PurchaseRequestItemDto;
 import com.anabilim.purchase.entity.*;
+import com.anabilim.purchase.entity.enums.QuoteStatus;
 import com.anabilim.purchase.exception.ResourceNotFoundException;
+import com.anabilim.purchase.exception.ValidationException;
 import com.anabilim.purchase.repository.ProductRepository;
 import com.anabilim.purchase.repository.SupplierRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
@@ -32,30 +39,23 @@ public class PurchaseRequestMapper {
         request.setRequester(requester);
         
         if (createDto.getItems() != null && !createDto.getItems().isEmpty()) {
+            // Tüm ürün ve tedarikçiler kalem sayısından bağımsız olarak tek seferde yüklenir
+            Map<Long, Product> products = loadProducts(createDto.getItems().stream()
+                    .map(CreatePurchaseRequestDto.PurchaseRequestItemDto::getProductId)
+                    .collect(Collectors.toList()));
+            Map<Long, Supplier> suppliers = loadSuppliers(createDto.getItems().stream()
+                    .map(CreatePurchaseRequestDto.PurchaseRequestItemDto::getPotentialSupplierIds)
+                    .collect(Collectors.toList()));
+            
             List<PurchaseRequestItem> items = createDto.getItems().stream()
                     .map(itemDto -> {
-                        Product product = productRepository.findById(itemDto.getProductId())
-                                .orElseThrow(() -> new ResourceNotFoundException("Ürün bulunamadı: " + itemDto.getProductId()));
-                        
                         PurchaseRequestItem item = new PurchaseRequestItem();
                         item.setPurchaseRequest(request);
-                        item.setProduct(product);
+                        item.setProduct(products.get(itemDto.getProductId()));
                         item.setQuantity(itemDto.getQuantity());
                         item.setEstimatedDeliveryDate(itemDto.getEstimatedDeliveryDate());
                         item.setNotes(itemDto.getNotes());
-                        
-                        if (itemDto.getPotentialSupplierIds() != null && !itemDto.getPotentialSupplierIds().isEmpty()) {
-                            // Önce Set'i temizle
-                            item.getPotentialSuppliers().clear();
-                            item.getSupplierQuotes().clear();
-                            
-                            // Sonra tedarikçileri ekle
-                            itemDto.getPotentialSupplierIds().stream()
-                                    .map(id -> supplierRepository.findById(id)
-                                            .orElseThrow(() -> new ResourceNotFoundException("Tedarikçi bulunamadı: " + id)))
-                                    .forEach(item::addPotentialSupplier);
-                        }
-                        
+                        addPotentialSuppliers(item, itemDto.getPotentialSupplierIds(), suppliers);
                         return item;
                     })
                     .collect(Collectors.toList());
@@ -66,35 +66,163 @@ public class PurchaseRequestMapper {
     }
     
     public List<PurchaseRequestItem> toItemEntityList(List<UpdatePurchaseRequestItemsDto.PurchaseRequestItemDto> itemDtos) {
+        Map<Long, Product> products = loadProducts(itemDtos.stream()
+                .map(UpdatePurchaseRequestItemsDto.PurchaseRequestItemDto::getProductId)
+                .collect(Collectors.toList()));
+        Map<Long, Supplier> suppliers = loadSuppliers(itemDtos.stream()
+                .map(UpdatePurchaseRequestItemsDto.PurchaseRequestItemDto::getPotentialSupplierIds)
+                .collect(Collectors.toList()));
+        
         return itemDtos.stream()
-                .map(this::toItemEntity)
+                .map(itemDto -> toItemEntity(itemDto, products, suppliers))
                 .collect(Collectors.toList());
     }
     
     public PurchaseRequestItem toItemEntity(UpdatePurchaseRequestItemsDto.PurchaseRequestItemDto itemDto) {
-        Product product = productRepository.findById(itemDto.getProductId())
-                .orElseThrow(() -> new ResourceNotFoundException("Ürün bulunamadı: " + itemDto.getProductId()));
+        return toItemEntityList(List.of(itemDto)).get(0);
+    }
+    
+    /**
+     * Talep kalemlerini gelen listeye göre fark bazlı günceller: kalemler ID'ye, ID yoksa ürüne göre
+     * eşleştirilir. Eşleşen kalemler yerinde güncellenir ve mevcut teklifleri korunur; yalnızca
+     * değişen kalemler ve tedarikçi bağlantıları eklenir veya kaldırılır.
+     */
+    public void updateItems(PurchaseRequest request, List<UpdatePurchaseRequestItemsDto.PurchaseRequestItemDto> itemDtos) {
+        Map<Long, Product> products = loadProducts(itemDtos.stream()
+                .map(UpdatePurchaseRequestItemsDto.PurchaseRequestItemDto::getProductId)
+                .collect(Collectors.toList()));
+        Map<Long, Supplier> suppliers = loadSuppliers(itemDtos.stream()
+                .map(UpdatePurchaseRequestItemsDto.PurchaseRequestItemDto::getPotentialSupplierIds)
+                .collect(Collectors.toList()));
+        
+        Map<Long, PurchaseRequestItem> existingById = request.getItems().stream()
+                .collect(Collectors.toMap(PurchaseRequestItem::getId, Function.identity()));
+        Map<Long, PurchaseRequestItem> existingByProduct = request.getItems().stream()
+                .collect(Collectors.toMap(item -> item.getProduct().getId(), Function.identity(), (first, second) -> first));
+        
+        Set<PurchaseRequestItem> retained = new HashSet<>();
+        List<PurchaseRequestItem> added = new ArrayList<>();
+        for (UpdatePurchaseRequestItemsDto.PurchaseRequestItemDto itemDto : itemDtos) {
+            PurchaseRequestItem item;
+            if (itemDto.getId() != null) {
+                item = existingById.get(itemDto.getId());
+                if (item == null) {
+                    throw new ResourceNotFoundException("Talep kalemi bulunamadı: " + itemDto.getId());
+                }
+            } else {
+                item = existingByProduct.get(itemDto.getProductId());
+            }
+            
+            if (item == null || !retained.add(item)) {
+                PurchaseRequestItem newItem = toItemEntity(itemDto, products, suppliers);
+                newItem.setPurchaseRequest(request);
+                added.add(newItem);
+                continue;
+            }
+            
+            item.setProduct(products.get(itemDto.getProductId()));
+            if (!Objects.equals(item.getQuantity(), itemDto.getQuantity())) {
+                item.setQuantity(itemDto.getQuantity());
+                // Henüz yanıtlanmamış tekliflerin miktarı kalemle birlikte güncellenir
+                item.getSupplierQuotes().stream()
+                        .filter(quote -> quote.getStatus() == QuoteStatus.PENDING)
+                        .forEach(quote -> quote.setQuantity(itemDto.getQuantity()));
+            }
+            item.setSelectedSupplierId(itemDto.getSelectedSupplierId());
+            item.setEstimatedDeliveryDate(itemDto.getEstimatedDeliveryDate());
+            item.setNotes(itemDto.getNotes());
+            syncPotentialSuppliers(item, itemDto.getPotentialSupplierIds(), suppliers);
+        }
         
+        // Listede olmayan kalemler (ve orphanRemoval ile teklifleri) silinir
+        request.getItems().removeIf(item -> !retained.contains(item));
+        request.getItems().addAll(added);
+    }
+    
+    private void syncPotentialSuppliers(PurchaseRequestItem item, Set<Long> supplierIds, Map<Long, Supplier> suppliers) {
+        Set<Long> desiredIds = supplierIds != null ? supplierIds : Set.of();
+        List<Supplier> removed = item.getPotentialSuppliers().stream()
+                .filter(supplier -> !desiredIds.contains(supplier.getId()))
+                .collect(Collectors.toList());
+        removed.forEach(item::removePotentialSupplier);
+        
+        Set<Long> currentIds = item.getPotentialSuppliers().stream()
+                .map(Supplier::getId)
+                .collect(Collectors.toSet());
+        desiredIds.stream()
+                .filter(supplierId -> !currentIds.contains(supplierId))
+                .map(suppliers::get)
+                .forEach(item::addPotentialSupplier);
+    }
+    
+    private PurchaseRequestItem toItemEntity(UpdatePurchaseRequestItemsDto.PurchaseRequestItemDto itemDto,
+                                             Map<Long, Product> products,
+                                             Map<Long, Supplier> suppliers) {
         PurchaseRequestItem item = new PurchaseRequestItem();
-        item.setProduct(product);
+        item.setProduct(products.get(itemDto.getProductId()));
         item.setQuantity(itemDto.getQuantity());
         item.setSelectedSupplierId(itemDto.getSelectedSupplierId());
         item.setEstimatedDeliveryDate(itemDto.getEstimatedDeliveryDate());
         item.setNotes(itemDto.getNotes());
-        
-        if (itemDto.getPotentialSupplierIds() != null && !itemDto.getPotentialSupplierIds().isEmpty()) {
-            // Önce Set'i temizle
-            item.getPotentialSuppliers().clear();
-            item.getSupplierQuotes().clear();
-
-
-            for (Long potentialSupplierId : itemDto.getPotentialSupplierIds()) {
-                Supplier s = supplierRepository.findById(potentialSupplierId).get();
-                item.addPotentialSupplier(s);
-            }
+        addPotentialSuppliers(item, itemDto.getPotentialSupplierIds(), suppliers);
+        return item;
+    }
+    
+    private void addPotentialSuppliers(PurchaseRequestItem item, Set<Long> supplierIds, Map<Long, Supplier> suppliers) {
+        if (supplierIds == null || supplierIds.isEmpty()) {
+            return;
         }
+        // Önce Set'i temizle
+        item.getPotentialSuppliers().clear();
+        item.getSupplierQuotes().clear();
         
-        return item;
+        // Sonra tedarikçileri ekle
+        supplierIds.stream()
+                .map(suppliers::get)
+                .forEach(item::addPotentialSupplier);
+    }
+    
+    /**
+     * Ürünleri tek bir findAllById çağrısıyla yükler; eksik olanların tamamı tek hata mesajında bildirilir.
+     */
+    private Map<Long, Product> loadProducts(List<Long> productIds) {
+        if (productIds.contains(null)) {
+            throw new ValidationException("Ürün seçilmelidir");
+        }
+        Set<Long> ids = new LinkedHashSet<>(productIds);
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        throwIfMissing(ids, products.keySet(), "Ürün bulunamadı: ");
+        return products;
+    }
+    
+    private Map<Long, Supplier> loadSuppliers(List<Set<Long>> supplierIdSets) {
+        Set<Long> ids = supplierIdSets.stream()
+                .filter(Objects::nonNull)
+                .flatMap(Set::stream)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        if (ids.contains(null)) {
+            throw new ValidationException("Geçersiz tedarikçi seçimi");
+        }
+        Map<Long, Supplier> suppliers = supplierRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Supplier::getId, Function.identity()));
+        throwIfMissing(ids, suppliers.keySet(), "Tedarikçi bulunamadı: ");
+        return suppliers;
+    }
+    
+    private void throwIfMissing(Set<Long> requestedIds, Set<Long> foundIds, String message) {
+        List<Long> missingIds = requestedIds.stream()
+                .filter(id -> !foundIds.contains(id))
+                .sorted()
+                .collect(Collectors.toList());
+        if (!missingIds.isEmpty()) {
+            throw new ResourceNotFoundException(message + missingIds.stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(", ")));
+        }
     }
     
     public PurchaseRequestDto toDto(PurchaseRequest request) {
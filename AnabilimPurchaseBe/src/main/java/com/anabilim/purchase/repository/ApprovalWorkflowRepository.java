@@ -1,6 +1,7 @@
 package com.anabilim.purchase.repository;
 
 import com.anabilim.purchase.entity.ApprovalWorkflow;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -25,6 +26,17 @@ public interface ApprovalWorkflowRepository extends JpaRepository<ApprovalWorkfl
 
     List<ApprovalWorkflow> findByCategoryAndIsActiveTrue(String category);
     
+    // Eşleştirme indeksinin derlenmesi için: aktif akışlar adımlarıyla birlikte
+    @EntityGraph(attributePaths = {"steps"})
+    @Query("SELECT DISTINCT w FROM ApprovalWorkflow w WHERE w.isActive = true")
+    List<ApprovalWorkflow> findActiveWithSteps();
+    
+    // SLA zamanlayıcısı: aktif akış adımlarında rol bazında tanımlı en kısa süre (saat)
+    @Query("SELECT s.approverRole.name, MIN(s.timeoutHours) FROM ApprovalStep s " +
+           "WHERE s.isActive = true AND s.workflow.isActive = true AND s.timeoutHours IS NOT NULL " +
+           "GROUP BY s.approverRole.name")
+    List<Object[]> findStepTimeoutHoursByRole();
+    
     @Query("SELECT w FROM ApprovalWorkflow w WHERE w.isActive = true AND " +
            "(:amount IS NULL OR (w.minAmount IS NULL OR w.minAmount <= :amount) AND " +
            "(w.maxAmount IS NULL OR w.maxAmount >= :amount)) AND " +
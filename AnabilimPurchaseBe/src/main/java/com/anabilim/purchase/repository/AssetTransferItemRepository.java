@@ -38,12 +38,6 @@ public interface AssetTransferItemRepository extends JpaRepository<AssetTransfer
            "GROUP BY p.id, p.name")
     List<Object[]> getTransferItemsSummary(@Param("transferId") Long transferId);
     
-    @Query("SELECT p.name, COUNT(ati), SUM(ati.requestedQuantity), SUM(COALESCE(ati.transferredQuantity, 0)) " +
-           "FROM AssetTransferItem ati JOIN ati.product p " +
-           "GROUP BY p.id, p.name " +
-           "ORDER BY COUNT(ati) DESC")
-    List<Object[]> getMostTransferredProducts();
-    
     // Belirli bir transfer için eksik kalan ürünler
     @Query("SELECT ati FROM AssetTransferItem ati WHERE ati.assetTransfer.id = :transferId " +
            "AND (ati.transferredQuantity IS NULL OR ati.transferredQuantity < ati.requestedQuantity)")
@@ -20,7 +20,9 @@ public interface AssetTransferRepository extends JpaRepository<AssetTransfer, Lo
     
     Optional<AssetTransfer> findByTransferCode(String transferCode);
     
-    boolean existsByTransferCode(String transferCode);
+    // Durum geçişleri sıraya sokulur; aynı transfer için stok ayırma iki kez bırakılamaz veya düşülemez
+    @Query(value = "SELECT id FROM asset_transfers WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
     
     List<AssetTransfer> findByStatus(TransferStatus status);
     
@@ -60,26 +62,32 @@ public interface AssetTransferRepository extends JpaRepository<AssetTransfer, Lo
             @Param("endDate") java.sql.Timestamp endDate,
             Pageable pageable);
     
-    // Arama sorguları
-    @Query("SELECT at FROM AssetTransfer at WHERE " +
-           "LOWER(at.transferCode) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(at.sourceWarehouse.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(at.targetSchool.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(at.notes) LIKE LOWER(CONCAT('%', :search, '%'))")
+    // Arama sorguları: transfer (kod, not), okul ve depo search_text sütunları Türkçe katlanmış ve trigram indekslidir.
+    // Her tablo kendi indeksiyle ayrı eşleşir, id'ler UNION ile birleştirilir; OR ile tek taramaya düşülmez.
+    String TRANSFER_SEARCH_MATCHES =
+            "SELECT t.id FROM asset_transfers t " +
+            "WHERE t.search_text LIKE '%' || tr_fold(:search) || '%' OR tr_fold(:search) <% t.search_text " +
+            "UNION SELECT t.id FROM asset_transfers t JOIN schools sc ON sc.id = t.target_school_id " +
+            "WHERE sc.search_text LIKE '%' || tr_fold(:search) || '%' OR tr_fold(:search) <% sc.search_text " +
+            "UNION SELECT t.id FROM asset_transfers t JOIN warehouses w ON w.id = t.source_warehouse_id " +
+            "WHERE w.search_text LIKE '%' || tr_fold(:search) || '%' OR tr_fold(:search) <% w.search_text";
+    
+    // Sıralama benzerlikten gelir; sayfa isteği sıralama içermemelidir
+    @Query(value = "SELECT t.* FROM asset_transfers t " +
+                   "JOIN (" + TRANSFER_SEARCH_MATCHES + ") m ON m.id = t.id " +
+                   "JOIN schools sc ON sc.id = t.target_school_id " +
+                   "JOIN warehouses w ON w.id = t.source_warehouse_id " +
+                   "ORDER BY GREATEST(word_similarity(tr_fold(:search), t.search_text), " +
+                   "word_similarity(tr_fold(:search), sc.search_text), " +
+                   "word_similarity(tr_fold(:search), w.search_text)) DESC, t.created_at DESC",
+           countQuery = "SELECT COUNT(*) FROM (" + TRANSFER_SEARCH_MATCHES + ") m",
+           nativeQuery = true)
     Page<AssetTransfer> searchTransfers(@Param("search") String search, Pageable pageable);
     
     // İstatistik sorguları
     @Query("SELECT COUNT(at) FROM AssetTransfer at WHERE at.status = :status")
     long countByStatus(@Param("status") TransferStatus status);
     
-    @Query("SELECT at.status, COUNT(at) FROM AssetTransfer at GROUP BY at.status")
-    List<Object[]> countTransfersByStatus();
-    
-    @Query("SELECT at.targetSchool.name, COUNT(at) FROM AssetTransfer at " +
-           "WHERE at.actualTransferDate >= :startDate " +
-           "GROUP BY at.targetSchool.name ORDER BY COUNT(at) DESC")
-    List<Object[]> getTopSchoolsByTransferCount(@Param("startDate") LocalDateTime startDate);
-    
     // Bekleyen transferler
     @Query("SELECT at FROM AssetTransfer at WHERE at.status IN ('PENDING', 'APPROVED', 'PREPARING') " +
            "ORDER BY at.transferDate ASC")
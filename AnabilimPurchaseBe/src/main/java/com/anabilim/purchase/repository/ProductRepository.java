@@ -9,11 +9,12 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductStockSummaryRepository {
     List<Product> findByIsActiveTrue();
     List<Product> findByIsActiveTrueAndNameContainingIgnoreCase(String name);
     List<Product> findByCategoryNameContainingIgnoreCase(String categoryName);
@@ -31,6 +32,10 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Page<Product> findByProductType(ProductType productType, Pageable pageable);
     Page<Product> findByProductTypeAndIsActiveTrue(ProductType productType, Pageable pageable);
     
+    // Toplu içe aktarım: ürün kodlarının ID'lere çözülmesi (kod, id)
+    @Query("SELECT p.code, p.id FROM Product p WHERE p.code IN :codes")
+    List<Object[]> findIdsByCodes(@Param("codes") Collection<String> codes);
+    
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.category.name LIKE %:categoryName%")
     List<Product> findByActiveTrueAndCategoryNameContaining(@Param("categoryName") String categoryName);
 } 
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.anabilim.purchase.repository;
+
+import com.anabilim.purchase.entity.Product;
+import com.anabilim.purchase.entity.WarehouseStock;
+import com.anabilim.purchase.entity.enums.ProductType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Ürün listeleri için birleştirilebilir filtreler
+ */
+public final class ProductSpecifications {
+    
+    private ProductSpecifications() {
+    }
+    
+    public static Specification<Product> isActive() {
+        return (root, query, cb) -> cb.isTrue(root.get("isActive"));
+    }
+    
+    public static Specification<Product> hasProductType(ProductType productType) {
+        return (root, query, cb) -> cb.equal(root.get("productType"), productType);
+    }
+    
+    public static Specification<Product> inCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+    
+    // Ad veya kodda büyük/küçük harf duyarsız arama
+    public static Specification<Product> nameOrCodeContains(String search) {
+        return (root, query, cb) -> {
+            String pattern = "%" + escapeLike(search.toLowerCase()) + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("name")), pattern, '\\'),
+                    cb.like(cb.lower(root.get("code")), pattern, '\\'));
+        };
+    }
+    
+    // Herhangi bir depoda stoğu minimum seviyenin altına inmiş ürünler
+    public static Specification<Product> hasLowStockInAnyWarehouse() {
+        return (root, query, cb) -> {
+            Subquery<Long> lowStock = query.subquery(Long.class);
+            Root<WarehouseStock> stock = lowStock.from(WarehouseStock.class);
+            lowStock.select(stock.get("id"))
+                    .where(cb.equal(stock.get("product"), root),
+                            cb.isNotNull(stock.get("minStock")),
+                            cb.lessThanOrEqualTo(stock.get("currentStock"), stock.get("minStock")));
+            return cb.exists(lowStock);
+        };
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,19 @@
+package com.anabilim.purchase.repository;
+
+import com.anabilim.purchase.dto.response.ProductStockSummaryDto;
+import com.anabilim.purchase.entity.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Ürün bazında stok özeti sorguları
+ */
+public interface ProductStockSummaryRepository {
+    
+    /**
+     * Filtreye uyan ürünlerin stok özetleri: toplam stok, depo sayısı, düşük stok bayrağı ve son hareket tarihi
+     * tek bir SQL ile hesaplanır. Sayfa başına en fazla iki sorgu çalışır (veri + sayım).
+     */
+    Page<ProductStockSummaryDto> findStockSummaries(Specification<Product> specification, Pageable pageable);
+}
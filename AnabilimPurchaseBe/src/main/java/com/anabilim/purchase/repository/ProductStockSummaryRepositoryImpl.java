@@ -0,0 +1,140 @@
+package com.anabilim.purchase.repository;
+
+import com.anabilim.purchase.dto.response.ProductStockSummaryDto;
+import com.anabilim.purchase.entity.Category;
+import com.anabilim.purchase.entity.Product;
+import com.anabilim.purchase.entity.WarehouseStock;
+import com.anabilim.purchase.entity.enums.ProductType;
+import com.anabilim.purchase.entity.enums.UnitOfMeasure;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductStockSummaryRepositoryImpl implements ProductStockSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ProductStockSummaryDto> findStockSummaries(Specification<Product> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        Join<Product, Category> category = product.join("category", JoinType.LEFT);
+
+        // Depo stokları ürün bazında ilişkili alt sorgularla toplanır; ürün satırları çoğalmaz,
+        // böylece sayfalama ve sıralama doğrudan ürün üzerinde yapılır
+        Subquery<Long> totalStock = query.subquery(Long.class);
+        Root<WarehouseStock> totalRoot = totalStock.from(WarehouseStock.class);
+        totalStock.select(cb.coalesce(cb.sumAsLong(totalRoot.get("currentStock")), 0L))
+                .where(cb.equal(totalRoot.get("product"), product));
+
+        Subquery<Long> warehouseCount = query.subquery(Long.class);
+        Root<WarehouseStock> countRoot = warehouseCount.from(WarehouseStock.class);
+        warehouseCount.select(cb.count(countRoot))
+                .where(cb.equal(countRoot.get("product"), product));
+
+        Subquery<Long> lowStock = query.subquery(Long.class);
+        Root<WarehouseStock> lowRoot = lowStock.from(WarehouseStock.class);
+        lowStock.select(lowRoot.get("id"))
+                .where(cb.equal(lowRoot.get("product"), product),
+                        cb.isNotNull(lowRoot.get("minStock")),
+                        cb.lessThanOrEqualTo(lowRoot.get("currentStock"), lowRoot.get("minStock")));
+
+        // Son hareket tarihi hareket tablosu taranmadan depo stoklarındaki last_movement_at alanından okunur
+        Subquery<LocalDateTime> lastMovement = query.subquery(LocalDateTime.class);
+        Root<WarehouseStock> lastRoot = lastMovement.from(WarehouseStock.class);
+        lastMovement.select(cb.greatest(lastRoot.<LocalDateTime>get("lastMovementAt")))
+                .where(cb.equal(lastRoot.get("product"), product));
+
+        Expression<Boolean> hasLowStock = cb.<Boolean>selectCase()
+                .when(cb.exists(lowStock), true)
+                .otherwise(false);
+
+        query.multiselect(
+                product.get("id"),
+                product.get("name"),
+                product.get("code"),
+                product.get("description"),
+                product.get("unitOfMeasure"),
+                category.get("name"),
+                product.get("productType"),
+                totalStock,
+                warehouseCount,
+                hasLowStock,
+                lastMovement,
+                product.get("isActive"));
+
+        Predicate predicate = toPredicate(specification, product, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        List<Order> orders = new ArrayList<>(QueryUtils.toOrders(pageable.getSort(), product, cb));
+        orders.add(cb.asc(product.get("id")));
+        query.orderBy(orders);
+
+        var typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<ProductStockSummaryDto> content = typedQuery.getResultList().stream()
+                .map(ProductStockSummaryRepositoryImpl::toSummary)
+                .toList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    private long count(Specification<Product> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> product = query.from(Product.class);
+        query.select(cb.count(product));
+        Predicate predicate = toPredicate(specification, product, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Predicate toPredicate(Specification<Product> specification, Root<Product> root,
+                                         CriteriaQuery<?> query, CriteriaBuilder cb) {
+        return specification != null ? specification.toPredicate(root, query, cb) : null;
+    }
+
+    private static ProductStockSummaryDto toSummary(Tuple row) {
+        UnitOfMeasure unit = row.get(4, UnitOfMeasure.class);
+        ProductType productType = row.get(6, ProductType.class);
+        return new ProductStockSummaryDto(
+                row.get(0, Long.class),
+                row.get(1, String.class),
+                row.get(2, String.class),
+                row.get(3, String.class),
+                unit != null ? unit.getDisplayName() : null,
+                row.get(5, String.class),
+                productType != null ? productType.getDisplayName() : null,
+                row.get(7, Long.class).intValue(),
+                row.get(8, Long.class).intValue(),
+                Boolean.TRUE.equals(row.get(9, Boolean.class)),
+                row.get(10, LocalDateTime.class),
+                Boolean.TRUE.equals(row.get(11, Boolean.class)));
+    }
+}
@@ -0,0 +1,129 @@
+package com.anabilim.purchase.repository;
+
+import com.anabilim.purchase.entity.enums.ApprovalStatus;
+import com.anabilim.purchase.entity.enums.RequestStatus;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Toplu onay/red için koşullu geçişlerin JDBC batch karşılıkları. Koşullar PurchaseRequestApprovalRepository.completePendingStep
+ * ve PurchaseRequestRepository.approveIfNoPendingSteps/rejectInApproval ile aynıdır; adım ayrıca yalnızca talep hâlâ
+ * IN_APPROVAL ise karara bağlanır. Eşzamanlı bir işlemin değiştirdiği satırlar güncellenmez ve ID'leri döndürülür. Her çağrı öncesinde persistence context flush edilir, sonrasında temizlenir
+ * (@Modifying flushAutomatically/clearAutomatically gibi); yüklenmiş varlıklar eski durumu geri yazamaz.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PurchaseRequestApprovalBatchRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    /**
+     * Adımlar hâlâ PENDING, bu onaylayıcıya ait ve talep IN_APPROVAL ise kararı yazar.
+     * @return güncellenmeyen adımların ID'leri
+     */
+    public Set<Long> completePendingSteps(List<Long> approvalIds, Long approverId, ApprovalStatus decision,
+                                          String comment, LocalDateTime actionTakenAt) {
+        Timestamp timestamp = Timestamp.valueOf(actionTakenAt);
+        return execute(
+                "UPDATE purchase_request_approvals SET status = ?, comment = ?, action_taken_at = ?, updated_at = ? " +
+                "WHERE id = ? AND status = ? AND approver_id = ? AND EXISTS (SELECT 1 FROM purchase_requests r " +
+                "WHERE r.id = purchase_request_approvals.purchase_request_id AND r.status = ?)",
+                approvalIds, (ps, approvalId) -> {
+                    ps.setString(1, decision.name());
+                    ps.setString(2, comment);
+                    ps.setTimestamp(3, timestamp);
+                    ps.setTimestamp(4, timestamp);
+                    ps.setLong(5, approvalId);
+                    ps.setString(6, ApprovalStatus.PENDING.name());
+                    ps.setLong(7, approverId);
+                    ps.setString(8, RequestStatus.IN_APPROVAL.name());
+                });
+    }
+
+    /**
+     * completePendingSteps ile karara bağlanmış ama talebi ilerletilemeyen adımları yeniden PENDING yapar.
+     */
+    public void reopenSteps(List<Long> approvalIds, ApprovalStatus decision, LocalDateTime updatedAt) {
+        Timestamp timestamp = Timestamp.valueOf(updatedAt);
+        execute(
+                "UPDATE purchase_request_approvals SET status = ?, comment = NULL, action_taken_at = NULL, updated_at = ? " +
+                "WHERE id = ? AND status = ?",
+                approvalIds, (ps, approvalId) -> {
+                    ps.setString(1, ApprovalStatus.PENDING.name());
+                    ps.setTimestamp(2, timestamp);
+                    ps.setLong(3, approvalId);
+                    ps.setString(4, decision.name());
+                });
+    }
+
+    /**
+     * Bekleyen adımı kalmayan IN_APPROVAL talepleri onaylar.
+     * @return onaylanmayan taleplerin ID'leri (sıradaki adım var ya da talep artık onay aşamasında değil)
+     */
+    public Set<Long> approveIfNoPendingSteps(List<Long> requestIds, LocalDateTime completedAt) {
+        Timestamp timestamp = Timestamp.valueOf(completedAt);
+        return execute(
+                "UPDATE purchase_requests SET status = ?, completed_at = ?, updated_at = ? " +
+                "WHERE id = ? AND status = ? AND NOT EXISTS (SELECT 1 FROM purchase_request_approvals a " +
+                "WHERE a.purchase_request_id = purchase_requests.id AND a.status = ?)",
+                requestIds, (ps, requestId) -> {
+                    ps.setString(1, RequestStatus.APPROVED.name());
+                    ps.setTimestamp(2, timestamp);
+                    ps.setTimestamp(3, timestamp);
+                    ps.setLong(4, requestId);
+                    ps.setString(5, RequestStatus.IN_APPROVAL.name());
+                    ps.setString(6, ApprovalStatus.PENDING.name());
+                });
+    }
+
+    /**
+     * IN_APPROVAL talepleri reddeder.
+     * @return reddedilmeyen (artık onay aşamasında olmayan) taleplerin ID'leri
+     */
+    public Set<Long> rejectInApproval(List<Long> requestIds, String rejectionReason, LocalDateTime rejectedAt) {
+        Timestamp timestamp = Timestamp.valueOf(rejectedAt);
+        return execute(
+                "UPDATE purchase_requests SET status = ?, rejection_reason = ?, updated_at = ? " +
+                "WHERE id = ? AND status = ?",
+                requestIds, (ps, requestId) -> {
+                    ps.setString(1, RequestStatus.REJECTED.name());
+                    ps.setString(2, rejectionReason);
+                    ps.setTimestamp(3, timestamp);
+                    ps.setLong(4, requestId);
+                    ps.setString(5, RequestStatus.IN_APPROVAL.name());
+                });
+    }
+
+    private Set<Long> execute(String sql, List<Long> ids, ParameterizedPreparedStatementSetter<Long> setter) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        entityManager.flush();
+        int[][] counts = jdbcTemplate.batchUpdate(sql, ids, BATCH_SIZE, setter);
+        entityManager.clear();
+
+        Set<Long> unchanged = new HashSet<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    unchanged.add(ids.get(index));
+                }
+                index++;
+            }
+        }
+        return unchanged;
+    }
+}
@@ -4,10 +4,18 @@ import com.anabilim.purchase.entity.PurchaseRequest;
 import com.anabilim.purchase.entity.PurchaseRequestApproval;
 import com.anabilim.purchase.entity.User;
 import com.anabilim.purchase.entity.enums.ApprovalStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,4 +37,95 @@ public interface PurchaseRequestApprovalRepository extends JpaRepository<Purchas
     @EntityGraph(attributePaths = {"purchaseRequest", "approver"})
     Optional<PurchaseRequestApproval> findFirstByPurchaseRequestAndStatusOrderByStepOrderAsc(
             PurchaseRequest purchaseRequest, ApprovalStatus status);
-} 
\ No newline at end of file
+    
+    // Onay kutusu: onaylayıcının sırası gelmiş (en küçük step_order'lı PENDING) adımları
+    @EntityGraph(attributePaths = {"purchaseRequest", "purchaseRequest.requester"})
+    @Query(value = "SELECT a FROM PurchaseRequestApproval a " +
+           "WHERE a.approver.email = :approverEmail " +
+           "AND a.status = com.anabilim.purchase.entity.enums.ApprovalStatus.PENDING " +
+           "AND a.purchaseRequest.status = com.anabilim.purchase.entity.enums.RequestStatus.IN_APPROVAL " +
+           "AND a.stepOrder = (SELECT MIN(p.stepOrder) FROM PurchaseRequestApproval p " +
+           "WHERE p.purchaseRequest = a.purchaseRequest " +
+           "AND p.status = com.anabilim.purchase.entity.enums.ApprovalStatus.PENDING)",
+           countQuery = "SELECT COUNT(a) FROM PurchaseRequestApproval a " +
+           "WHERE a.approver.email = :approverEmail " +
+           "AND a.status = com.anabilim.purchase.entity.enums.ApprovalStatus.PENDING " +
+           "AND a.purchaseRequest.status = com.anabilim.purchase.entity.enums.RequestStatus.IN_APPROVAL " +
+           "AND a.stepOrder = (SELECT MIN(p.stepOrder) FROM PurchaseRequestApproval p " +
+           "WHERE p.purchaseRequest = a.purchaseRequest " +
+           "AND p.status = com.anabilim.purchase.entity.enums.ApprovalStatus.PENDING)")
+    Page<PurchaseRequestApproval> findCurrentPendingStepsByApproverEmail(
+            @Param("approverEmail") String approverEmail, Pageable pageable);
+    
+    // Onay kutusu rozeti için yalnızca sayım
+    @Query("SELECT COUNT(a) FROM PurchaseRequestApproval a " +
+           "WHERE a.approver.email = :approverEmail " +
+           "AND a.status = com.anabilim.purchase.entity.enums.ApprovalStatus.PENDING " +
+           "AND a.purchaseRequest.status = com.anabilim.purchase.entity.enums.RequestStatus.IN_APPROVAL " +
+           "AND a.stepOrder = (SELECT MIN(p.stepOrder) FROM PurchaseRequestApproval p " +
+           "WHERE p.purchaseRequest = a.purchaseRequest " +
+           "AND p.status = com.anabilim.purchase.entity.enums.ApprovalStatus.PENDING)")
+    long countCurrentPendingStepsByApproverEmail(@Param("approverEmail") String approverEmail);
+    
+    // Toplu onay: verilen taleplerin bekleyen tüm adımları tek sorguda, adım sırasına göre
+    @EntityGraph(attributePaths = {"purchaseRequest"})
+    @Query("SELECT a FROM PurchaseRequestApproval a " +
+           "WHERE a.purchaseRequest.id IN :requestIds " +
+           "AND a.status = com.anabilim.purchase.entity.enums.ApprovalStatus.PENDING " +
+           "ORDER BY a.purchaseRequest.id, a.stepOrder")
+    List<PurchaseRequestApproval> findPendingStepsByRequestIds(@Param("requestIds") Collection<Long> requestIds);
+    
+    // Onay komutu: talebin bekleyen adımları, talep ve onaylayıcı kimliğiyle birlikte tek sorguda
+    @EntityGraph(attributePaths = {"purchaseRequest", "approver"})
+    @Query("SELECT a FROM PurchaseRequestApproval a " +
+           "WHERE a.purchaseRequest.id = :requestId " +
+           "AND a.status = com.anabilim.purchase.entity.enums.ApprovalStatus.PENDING " +
+           "ORDER BY a.stepOrder")
+    List<PurchaseRequestApproval> findPendingStepsWithApproverByRequestId(@Param("requestId") Long requestId);
+    
+    // SLA zamanlayıcısı: sırası gelmiş tüm bekleyen adımlar ve aktifleştikleri an
+    // (bir önceki adımın işlem zamanı, ilk adımda adımın oluşturulma zamanı)
+    @Query("SELECT a.id, a.purchaseRequest.id, a.approver.id, a.roleName, a.stepOrder, a.createdAt, " +
+           "(SELECT MAX(p.actionTakenAt) FROM PurchaseRequestApproval p " +
+           "WHERE p.purchaseRequest = a.purchaseRequest AND p.stepOrder < a.stepOrder) " +
+           "FROM PurchaseRequestApproval a " +
+           "WHERE a.status = com.anabilim.purchase.entity.enums.ApprovalStatus.PENDING " +
+           "AND a.escalatedAt IS NULL " +
+           "AND a.purchaseRequest.status = com.anabilim.purchase.entity.enums.RequestStatus.IN_APPROVAL " +
+           "AND a.stepOrder = (SELECT MIN(p.stepOrder) FROM PurchaseRequestApproval p " +
+           "WHERE p.purchaseRequest = a.purchaseRequest " +
+           "AND p.status = com.anabilim.purchase.entity.enums.ApprovalStatus.PENDING)")
+    List<Object[]> findCurrentPendingStepTimers();
+    
+    // SLA zamanlayıcısı: süresi dolan adımlardan hâlâ sırası gelmiş, bekleyen ve üst yönetime iletilmemiş olanlar
+    @Query("SELECT a.id FROM PurchaseRequestApproval a " +
+           "WHERE a.id IN :approvalIds " +
+           "AND a.status = com.anabilim.purchase.entity.enums.ApprovalStatus.PENDING " +
+           "AND a.escalatedAt IS NULL " +
+           "AND a.purchaseRequest.status = com.anabilim.purchase.entity.enums.RequestStatus.IN_APPROVAL " +
+           "AND a.stepOrder = (SELECT MIN(p.stepOrder) FROM PurchaseRequestApproval p " +
+           "WHERE p.purchaseRequest = a.purchaseRequest " +
+           "AND p.status = com.anabilim.purchase.entity.enums.ApprovalStatus.PENDING)")
+    List<Long> findOpenCurrentStepIds(@Param("approvalIds") Collection<Long> approvalIds);
+    
+    // Üst yönetime iletilen adımlar işaretlenir; günlük yeniden yüklemede ve açılışta tekrar zamanlanmazlar
+    @Transactional
+    @Modifying
+    @Query("UPDATE PurchaseRequestApproval a SET a.escalatedAt = :escalatedAt " +
+           "WHERE a.id IN :approvalIds AND a.escalatedAt IS NULL")
+    int markEscalated(@Param("approvalIds") Collection<Long> approvalIds,
+                      @Param("escalatedAt") LocalDateTime escalatedAt);
+    
+    // Koşullu geçiş: adım hâlâ PENDING ve bu onaylayıcıya aitse güncellenir, aksi halde 0 döner
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PurchaseRequestApproval a " +
+           "SET a.status = :newStatus, a.comment = :comment, a.actionTakenAt = :actionTakenAt, a.updatedAt = :actionTakenAt " +
+           "WHERE a.id = :approvalId " +
+           "AND a.status = com.anabilim.purchase.entity.enums.ApprovalStatus.PENDING " +
+           "AND a.approver.id = :approverId")
+    int completePendingStep(@Param("approvalId") Long approvalId,
+                            @Param("approverId") Long approverId,
+                            @Param("newStatus") ApprovalStatus newStatus,
+                            @Param("comment") String comment,
+                            @Param("actionTakenAt") LocalDateTime actionTakenAt);
+}
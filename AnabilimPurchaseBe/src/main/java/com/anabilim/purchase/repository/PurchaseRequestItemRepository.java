@@ -4,8 +4,11 @@ import com.anabilim.purchase.entity.PurchaseRequest;
 import com.anabilim.purchase.entity.PurchaseRequestItem;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,4 +16,13 @@ public interface PurchaseRequestItemRepository extends JpaRepository<PurchaseReq
     
     @EntityGraph(attributePaths = {"purchaseRequest"})
     List<PurchaseRequestItem> findByPurchaseRequest(PurchaseRequest purchaseRequest);
-} 
\ No newline at end of file
+    
+    @Query("SELECT i FROM PurchaseRequestItem i LEFT JOIN FETCH i.potentialSuppliers WHERE i IN :items")
+    List<PurchaseRequestItem> fetchPotentialSuppliers(@Param("items") Collection<PurchaseRequestItem> items);
+    
+    @Query("SELECT i FROM PurchaseRequestItem i " +
+           "LEFT JOIN FETCH i.supplierQuotes q " +
+           "LEFT JOIN FETCH q.supplier " +
+           "WHERE i IN :items")
+    List<PurchaseRequestItem> fetchSupplierQuotes(@Param("items") Collection<PurchaseRequestItem> items);
+}
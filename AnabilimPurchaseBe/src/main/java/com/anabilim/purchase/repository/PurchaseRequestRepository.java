@@ -1,23 +1,126 @@
 package com.anabilim.purchase.repository;
 
+import com.anabilim.purchase.dto.response.PurchaseRequestSummaryDto;
 import com.anabilim.purchase.entity.PurchaseRequest;
 import com.anabilim.purchase.entity.User;
 import com.anabilim.purchase.entity.enums.RequestStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PurchaseRequestRepository extends JpaRepository<PurchaseRequest, Long> {
     
-    @EntityGraph(attributePaths = {"requester", "approvals", "approvals.approver", "items"})
+    @EntityGraph("PurchaseRequest.list")
+    @Override
+    List<PurchaseRequest> findAll();
+    
+    @EntityGraph("PurchaseRequest.list")
     List<PurchaseRequest> findByRequester(User requester);
     
-    @EntityGraph(attributePaths = {"requester", "approvals", "approvals.approver", "items"})
+    @EntityGraph("PurchaseRequest.list")
     List<PurchaseRequest> findByStatus(RequestStatus status);
     
-    @EntityGraph(attributePaths = {"requester", "approvals", "approvals.approver", "items"})
+    @EntityGraph("PurchaseRequest.list")
     List<PurchaseRequest> findByRequesterAndStatus(User requester, RequestStatus status);
-} 
\ No newline at end of file
+    
+    @EntityGraph("PurchaseRequest.list")
+    List<PurchaseRequest> findByIdIn(Collection<Long> ids);
+    
+    // Bekleyen adım kalmadıysa talebi onaylar; etkilenen satır sayısı 0 ise sıradaki adım vardır
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE PurchaseRequest r " +
+           "SET r.status = com.anabilim.purchase.entity.enums.RequestStatus.APPROVED, " +
+           "r.completedAt = :completedAt, r.updatedAt = :completedAt " +
+           "WHERE r.id = :id " +
+           "AND r.status = com.anabilim.purchase.entity.enums.RequestStatus.IN_APPROVAL " +
+           "AND NOT EXISTS (SELECT a.id FROM PurchaseRequestApproval a " +
+           "WHERE a.purchaseRequest.id = r.id " +
+           "AND a.status = com.anabilim.purchase.entity.enums.ApprovalStatus.PENDING)")
+    int approveIfNoPendingSteps(@Param("id") Long id, @Param("completedAt") LocalDateTime completedAt);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE PurchaseRequest r " +
+           "SET r.status = com.anabilim.purchase.entity.enums.RequestStatus.REJECTED, " +
+           "r.rejectionReason = :rejectionReason, r.updatedAt = :rejectedAt " +
+           "WHERE r.id = :id " +
+           "AND r.status = com.anabilim.purchase.entity.enums.RequestStatus.IN_APPROVAL")
+    int rejectInApproval(@Param("id") Long id,
+                         @Param("rejectionReason") String rejectionReason,
+                         @Param("rejectedAt") LocalDateTime rejectedAt);
+    
+    @Query("SELECT r.id FROM PurchaseRequest r WHERE r.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    @EntityGraph("PurchaseRequest.list")
+    @Query("SELECT r FROM PurchaseRequest r WHERE r.id = :id")
+    Optional<PurchaseRequest> findDetailById(@Param("id") Long id);
+    
+    // Liste görünümünde kalemler ayrı sorguyla yüklenir (onaylar x kalemler kartezyen çarpımını önler)
+    @Query("SELECT r FROM PurchaseRequest r " +
+           "LEFT JOIN FETCH r.items i " +
+           "LEFT JOIN FETCH i.product p " +
+           "LEFT JOIN FETCH p.category " +
+           "WHERE r IN :requests")
+    List<PurchaseRequest> fetchItems(@Param("requests") Collection<PurchaseRequest> requests);
+    
+    // Keyset sayfalama: (created_at, id) azalan sırada, imleçten sonraki satırlar
+    @Query("SELECT new com.anabilim.purchase.dto.response.PurchaseRequestSummaryDto(" +
+           "r.id, r.title, r.status, u.id, u.firstName, u.lastName, r.createdAt, r.updatedAt, r.completedAt) " +
+           "FROM PurchaseRequest r JOIN r.requester u " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<PurchaseRequestSummaryDto> findSummaries(Pageable pageable);
+    
+    @Query("SELECT new com.anabilim.purchase.dto.response.PurchaseRequestSummaryDto(" +
+           "r.id, r.title, r.status, u.id, u.firstName, u.lastName, r.createdAt, r.updatedAt, r.completedAt) " +
+           "FROM PurchaseRequest r JOIN r.requester u " +
+           "WHERE (r.createdAt, r.id) < (:createdAt, :id) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<PurchaseRequestSummaryDto> findSummariesAfter(@Param("createdAt") LocalDateTime createdAt,
+                                                       @Param("id") Long id,
+                                                       Pageable pageable);
+    
+    @Query("SELECT new com.anabilim.purchase.dto.response.PurchaseRequestSummaryDto(" +
+           "r.id, r.title, r.status, u.id, u.firstName, u.lastName, r.createdAt, r.updatedAt, r.completedAt) " +
+           "FROM PurchaseRequest r JOIN r.requester u " +
+           "WHERE r.status = :status " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<PurchaseRequestSummaryDto> findSummariesByStatus(@Param("status") RequestStatus status, Pageable pageable);
+    
+    @Query("SELECT new com.anabilim.purchase.dto.response.PurchaseRequestSummaryDto(" +
+           "r.id, r.title, r.status, u.id, u.firstName, u.lastName, r.createdAt, r.updatedAt, r.completedAt) " +
+           "FROM PurchaseRequest r JOIN r.requester u " +
+           "WHERE r.status = :status AND (r.createdAt, r.id) < (:createdAt, :id) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<PurchaseRequestSummaryDto> findSummariesByStatusAfter(@Param("status") RequestStatus status,
+                                                               @Param("createdAt") LocalDateTime createdAt,
+                                                               @Param("id") Long id,
+                                                               Pageable pageable);
+    
+    @Query("SELECT new com.anabilim.purchase.dto.response.PurchaseRequestSummaryDto(" +
+           "r.id, r.title, r.status, u.id, u.firstName, u.lastName, r.createdAt, r.updatedAt, r.completedAt) " +
+           "FROM PurchaseRequest r JOIN r.requester u " +
+           "WHERE u.email = :requesterEmail " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<PurchaseRequestSummaryDto> findSummariesByRequesterEmail(@Param("requesterEmail") String requesterEmail,
+                                                                  Pageable pageable);
+    
+    @Query("SELECT new com.anabilim.purchase.dto.response.PurchaseRequestSummaryDto(" +
+           "r.id, r.title, r.status, u.id, u.firstName, u.lastName, r.createdAt, r.updatedAt, r.completedAt) " +
+           "FROM PurchaseRequest r JOIN r.requester u " +
+           "WHERE u.email = :requesterEmail AND (r.createdAt, r.id) < (:createdAt, :id) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<PurchaseRequestSummaryDto> findSummariesByRequesterEmailAfter(@Param("requesterEmail") String requesterEmail,
+                                                                       @Param("createdAt") LocalDateTime createdAt,
+                                                                       @Param("id") Long id,
+                                                                       Pageable pageable);
+}
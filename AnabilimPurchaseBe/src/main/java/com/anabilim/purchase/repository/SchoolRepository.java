@@ -37,19 +37,20 @@ public interface SchoolRepository extends JpaRepository<School, Long> {
     
     Page<School> findByDistrictAndIsActiveTrue(String district, Pageable pageable);
     
-    // Arama sorguları
-    @Query("SELECT s FROM School s WHERE s.isActive = true AND " +
-           "(LOWER(s.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(s.code) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(s.city) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(s.district) LIKE LOWER(CONCAT('%', :search, '%')))")
+    // Arama sorguları: search_text (ad, kod, şehir, ilçe) Türkçe katlanmış üretilmiş sütundur ve trigram indekslidir.
+    // Alt dize veya yazım hatalı kelime eşleşmeleri bulunur, sonuçlar kelime benzerliğine göre sıralanır.
+    String ACTIVE_SCHOOL_SEARCH = "FROM schools s WHERE s.is_active = true AND " +
+            "(s.search_text LIKE '%' || tr_fold(:search) || '%' OR tr_fold(:search) <% s.search_text)";
+    
+    String SIMILARITY_ORDER = " ORDER BY word_similarity(tr_fold(:search), s.search_text) DESC, s.name";
+    
+    @Query(value = "SELECT s.* " + ACTIVE_SCHOOL_SEARCH + SIMILARITY_ORDER, nativeQuery = true)
     List<School> searchActiveSchools(@Param("search") String search);
     
-    @Query("SELECT s FROM School s WHERE s.isActive = true AND " +
-           "(LOWER(s.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(s.code) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(s.city) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(s.district) LIKE LOWER(CONCAT('%', :search, '%')))")
+    // Sıralama benzerlikten gelir; sayfa isteği sıralama içermemelidir
+    @Query(value = "SELECT s.* " + ACTIVE_SCHOOL_SEARCH + SIMILARITY_ORDER,
+           countQuery = "SELECT COUNT(*) " + ACTIVE_SCHOOL_SEARCH,
+           nativeQuery = true)
     Page<School> searchActiveSchools(@Param("search") String search, Pageable pageable);
     
     // İstatistik sorguları
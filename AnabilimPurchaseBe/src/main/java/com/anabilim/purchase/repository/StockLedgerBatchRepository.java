@@ -0,0 +1,198 @@
+package com.anabilim.purchase.repository;
+
+import com.anabilim.purchase.entity.enums.MovementType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stok defteri için JDBC toplu yazma işlemleri.
+ * StockMovement kimlikleri IDENTITY ile üretildiğinden Hibernate INSERT'leri toplu gönderemez;
+ * büyük hacimli yazmalar burada JDBC batch olarak yapılır. Aktif transaction'a katılır.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockLedgerBatchRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertStocks(List<long[]> warehouseProductPairs, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO warehouse_stocks (warehouse_id, product_id, current_stock, created_at, updated_at) " +
+                "VALUES (?, ?, 0, ?, ?)",
+                warehouseProductPairs, BATCH_SIZE, (ps, pair) -> {
+                    ps.setLong(1, pair[0]);
+                    ps.setLong(2, pair[1]);
+                    ps.setTimestamp(3, timestamp);
+                    ps.setTimestamp(4, timestamp);
+                });
+    }
+
+    /**
+     * Net miktar değişimlerini stok kaydı başına bir kez uygular. Satırlar verilen sırayla kilitlenir; diğer stok
+     * yazmalarıyla kilitlenme olmaması için (depo ID, ürün ID) sırasıyla verilmelidir.
+     * Stoğu eksiye düşürecek veya ayrılmış miktarın altına indirecek değişimler uygulanmaz;
+     * bu stok kayıtlarının ID'leri döndürülür.
+     */
+    public Set<Long> applyDeltas(List<Map.Entry<Long, Integer>> deltasByStockId, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE warehouse_stocks SET current_stock = current_stock + ?, last_movement_at = ?, updated_at = ? " +
+                "WHERE id = ? AND current_stock + ? >= 0 AND (? >= 0 OR current_stock + ? >= reserved_quantity)",
+                deltasByStockId, BATCH_SIZE, (ps, delta) -> {
+                    ps.setInt(1, delta.getValue());
+                    ps.setTimestamp(2, timestamp);
+                    ps.setTimestamp(3, timestamp);
+                    ps.setLong(4, delta.getKey());
+                    ps.setInt(5, delta.getValue());
+                    ps.setInt(6, delta.getValue());
+                    ps.setInt(7, delta.getValue());
+                });
+        return rejectedKeys(deltasByStockId, counts);
+    }
+
+    /**
+     * Depodaki ürünlerin ayrılmış miktarlarını değiştirir. Satırlar verilen sırayla kilitlenir; kilitlenme
+     * olmaması için çağıran taraf ürün ID sırasıyla vermelidir. Ayrılmış miktar eksiye düşecekse ya da artış
+     * kullanılabilir stoğu aşacaksa satır güncellenmez; bu ürünlerin ID'leri döndürülür.
+     */
+    public Set<Long> applyReservationDeltas(Long warehouseId, List<Map.Entry<Long, Integer>> deltasByProductId,
+                                            LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE warehouse_stocks SET reserved_quantity = reserved_quantity + ?, updated_at = ? " +
+                "WHERE warehouse_id = ? AND product_id = ? AND reserved_quantity + ? >= 0 " +
+                "AND (? <= 0 OR reserved_quantity + ? <= current_stock)",
+                deltasByProductId, BATCH_SIZE, (ps, delta) -> {
+                    ps.setInt(1, delta.getValue());
+                    ps.setTimestamp(2, timestamp);
+                    ps.setLong(3, warehouseId);
+                    ps.setLong(4, delta.getKey());
+                    ps.setInt(5, delta.getValue());
+                    ps.setInt(6, delta.getValue());
+                    ps.setInt(7, delta.getValue());
+                });
+        return rejectedKeys(deltasByProductId, counts);
+    }
+
+    /**
+     * Depodaki ürünlerin stok satırlarını ürün ID sırasıyla kilitler ve ürün id → stok kaydı id eşlemesini döndürür.
+     * Stok kaydı olmayan ürünler eşlemede yer almaz.
+     */
+    public Map<Long, Long> lockStockIds(Long warehouseId, Collection<Long> productIds) {
+        Map<Long, Long> stockIds = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT id, product_id FROM warehouse_stocks WHERE warehouse_id = ? AND product_id IN (" +
+                placeholders(productIds.size()) + ") ORDER BY product_id FOR UPDATE",
+                rs -> {
+                    stockIds.put(rs.getLong("product_id"), rs.getLong("id"));
+                },
+                parameters(warehouseId, productIds));
+        return stockIds;
+    }
+
+    /**
+     * Depodan çıkan miktarları tek bir UPDATE ile düşer; her satırda mevcut stok ve ayrılmış miktar birlikte azalır.
+     * Kalan stoğu kalan ayrılmış miktarın altına indirecek satırlar güncellenmez.
+     * @return güncellenen satır sayısı; satır sayısından azsa en az bir ürün için stok yetmemiştir
+     */
+    public int applyOutflows(Long warehouseId, List<OutflowRow> outflows, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        StringBuilder quantityCase = new StringBuilder("CASE product_id");
+        StringBuilder reservedCase = new StringBuilder("CASE product_id");
+        List<Object> quantityArgs = new ArrayList<>();
+        List<Object> reservedArgs = new ArrayList<>();
+        List<Long> productIds = new ArrayList<>();
+        for (OutflowRow outflow : outflows) {
+            quantityCase.append(" WHEN ? THEN CAST(? AS INTEGER)");
+            reservedCase.append(" WHEN ? THEN CAST(? AS INTEGER)");
+            quantityArgs.addAll(List.of(outflow.productId(), outflow.quantity()));
+            reservedArgs.addAll(List.of(outflow.productId(), outflow.reservedQuantity()));
+            productIds.add(outflow.productId());
+        }
+        quantityCase.append(" END");
+        reservedCase.append(" END");
+        String remainingReserved = "GREATEST(reserved_quantity - " + reservedCase + ", 0)";
+
+        List<Object> args = new ArrayList<>(quantityArgs);
+        args.addAll(reservedArgs);
+        args.addAll(List.of(timestamp, timestamp));
+        args.addAll(List.of(parameters(warehouseId, productIds)));
+        args.addAll(quantityArgs);
+        args.addAll(reservedArgs);
+        return jdbcTemplate.update(
+                "UPDATE warehouse_stocks SET current_stock = current_stock - " + quantityCase + ", " +
+                "reserved_quantity = " + remainingReserved + ", last_movement_at = ?, updated_at = ? " +
+                "WHERE warehouse_id = ? AND product_id IN (" + placeholders(productIds.size()) + ") " +
+                "AND current_stock - " + quantityCase + " >= " + remainingReserved,
+                args.toArray());
+    }
+
+    public void insertMovements(List<MovementRow> movements, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO stock_movements (warehouse_stock_id, quantity, movement_type, reference_type, " +
+                "reference_id, notes, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                movements, BATCH_SIZE, (ps, movement) -> {
+                    ps.setLong(1, movement.warehouseStockId());
+                    ps.setInt(2, movement.quantity());
+                    ps.setString(3, movement.movementType().name());
+                    ps.setString(4, movement.referenceType());
+                    if (movement.referenceId() != null) {
+                        ps.setLong(5, movement.referenceId());
+                    } else {
+                        ps.setNull(5, Types.BIGINT);
+                    }
+                    ps.setString(6, movement.notes());
+                    ps.setTimestamp(7, timestamp);
+                    ps.setTimestamp(8, timestamp);
+                });
+    }
+
+    private static Set<Long> rejectedKeys(List<Map.Entry<Long, Integer>> deltas, int[][] counts) {
+        Set<Long> rejected = new HashSet<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    rejected.add(deltas.get(index).getKey());
+                }
+                index++;
+            }
+        }
+        return rejected;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static Object[] parameters(Long warehouseId, Collection<Long> productIds) {
+        List<Object> parameters = new ArrayList<>(productIds.size() + 1);
+        parameters.add(warehouseId);
+        parameters.addAll(productIds);
+        return parameters.toArray();
+    }
+
+    public record OutflowRow(Long productId, int quantity, int reservedQuantity) {
+    }
+
+    public record MovementRow(Long warehouseStockId, int quantity, MovementType movementType,
+                              String referenceType, Long referenceId, String notes) {
+    }
+}
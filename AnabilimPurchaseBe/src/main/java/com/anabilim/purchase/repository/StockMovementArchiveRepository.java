@@ -0,0 +1,55 @@
+package com.anabilim.purchase.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * StockMovementArchiver'ın doldurduğu stock_movements_archive tablosu (stok kaydı ve ay başına tek satır).
+ * Tablo yalnızca migration ile oluşturulur; yoksa (ör. testlerdeki H2) hiçbir ay arşivlenmemiş sayılır.
+ */
+@Repository
+public class StockMovementArchiveRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile boolean archiveTableExists;
+
+    public StockMovementArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Stok kaydının [from, to) aralığıyla kesişen, hareketleri arşive taşınmış bir ayı var mı.
+     * Bu aralıktaki hareketler artık stock_movements tablosunda değildir.
+     */
+    public boolean hasArchivedMonthBetween(Long warehouseStockId, LocalDateTime from, LocalDateTime to) {
+        if (!archiveTableExists()) {
+            return false;
+        }
+        // Ay [period_start, period_start + 1 ay) aralığıdır
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_movements_archive WHERE warehouse_stock_id = ? " +
+                "AND period_start < ? AND period_start > ?",
+                Integer.class, warehouseStockId, Timestamp.valueOf(to), Timestamp.valueOf(from.minusMonths(1)));
+        return count != null && count > 0;
+    }
+
+    private boolean archiveTableExists() {
+        // Yalnızca olumlu sonuç saklanır; tablo uygulama çalışırken oluşturulabilir
+        if (!archiveTableExists) {
+            archiveTableExists = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+                DatabaseMetaData metaData = connection.getMetaData();
+                String table = metaData.storesUpperCaseIdentifiers() ? "STOCK_MOVEMENTS_ARCHIVE" : "stock_movements_archive";
+                try (ResultSet tables = metaData.getTables(null, null, table, new String[]{"TABLE"})) {
+                    return tables.next();
+                }
+            }));
+        }
+        return archiveTableExists;
+    }
+}
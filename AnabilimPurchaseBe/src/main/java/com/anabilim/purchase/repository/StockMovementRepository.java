@@ -1,11 +1,9 @@
 package com.anabilim.purchase.repository;
 
-import com.anabilim.purchase.entity.Product;
+import com.anabilim.purchase.dto.response.StockMovementSummaryDto;
 import com.anabilim.purchase.entity.StockMovement;
-import com.anabilim.purchase.entity.WarehouseStock;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,25 +11,60 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
     
-    @EntityGraph(attributePaths = {"warehouseStock", "warehouseStock.warehouse", "warehouseStock.product"})
-    Page<StockMovement> findByWarehouseStock(WarehouseStock warehouseStock, Pageable pageable);
+    // Hareket geçmişi: depo ve ürün kodlarıyla birlikte tek sorguda, varlıklar yüklenmeden.
+    // Tablo created_at'e göre aylık bölümlendiğinden tüm sorgular tarih aralığı alır; yalnızca ilgili bölümler taranır
+    @Query(value = "SELECT new com.anabilim.purchase.dto.response.StockMovementSummaryDto(" +
+           "sm.id, ws.id, w.id, w.code, w.name, p.id, p.code, sm.quantity, sm.movementType, " +
+           "sm.referenceType, sm.referenceId, sm.notes, sm.createdAt, sm.updatedAt) " +
+           "FROM StockMovement sm JOIN sm.warehouseStock ws JOIN ws.warehouse w JOIN ws.product p " +
+           "WHERE ws.id = :stockId AND sm.createdAt >= :from AND sm.createdAt < :to",
+           countQuery = "SELECT COUNT(sm) FROM StockMovement sm WHERE sm.warehouseStock.id = :stockId " +
+                   "AND sm.createdAt >= :from AND sm.createdAt < :to")
+    Page<StockMovementSummaryDto> findSummariesByStockId(@Param("stockId") Long stockId,
+                                                         @Param("from") LocalDateTime from,
+                                                         @Param("to") LocalDateTime to,
+                                                         Pageable pageable);
     
-    @EntityGraph(attributePaths = {"warehouseStock", "warehouseStock.warehouse", "warehouseStock.product"})
-    Page<StockMovement> findByWarehouseStockAndReferenceTypeAndReferenceId(
-            WarehouseStock warehouseStock, String referenceType, Long referenceId, Pageable pageable);
+    @Query(value = "SELECT new com.anabilim.purchase.dto.response.StockMovementSummaryDto(" +
+           "sm.id, ws.id, w.id, w.code, w.name, p.id, p.code, sm.quantity, sm.movementType, " +
+           "sm.referenceType, sm.referenceId, sm.notes, sm.createdAt, sm.updatedAt) " +
+           "FROM StockMovement sm JOIN sm.warehouseStock ws JOIN ws.warehouse w JOIN ws.product p " +
+           "WHERE ws.id = :stockId AND sm.referenceType = :referenceType AND sm.referenceId = :referenceId " +
+           "AND sm.createdAt >= :from AND sm.createdAt < :to",
+           countQuery = "SELECT COUNT(sm) FROM StockMovement sm WHERE sm.warehouseStock.id = :stockId " +
+                   "AND sm.referenceType = :referenceType AND sm.referenceId = :referenceId " +
+                   "AND sm.createdAt >= :from AND sm.createdAt < :to")
+    Page<StockMovementSummaryDto> findSummariesByStockIdAndReference(@Param("stockId") Long stockId,
+                                                                      @Param("referenceType") String referenceType,
+                                                                      @Param("referenceId") Long referenceId,
+                                                                      @Param("from") LocalDateTime from,
+                                                                      @Param("to") LocalDateTime to,
+                                                                      Pageable pageable);
     
-    @Query("SELECT sm FROM StockMovement sm JOIN sm.warehouseStock ws WHERE ws.product = :product ORDER BY sm.createdAt DESC")
-    @EntityGraph(attributePaths = {"warehouseStock", "warehouseStock.warehouse", "warehouseStock.product"})
-    List<StockMovement> findRecentMovementsByProduct(@Param("product") Product product, Pageable pageable);
+    @Query("SELECT new com.anabilim.purchase.dto.response.StockMovementSummaryDto(" +
+           "sm.id, ws.id, w.id, w.code, w.name, p.id, p.code, sm.quantity, sm.movementType, " +
+           "sm.referenceType, sm.referenceId, sm.notes, sm.createdAt, sm.updatedAt) " +
+           "FROM StockMovement sm JOIN sm.warehouseStock ws JOIN ws.warehouse w JOIN ws.product p " +
+           "WHERE p.id = :productId AND sm.createdAt >= :from " +
+           "ORDER BY sm.createdAt DESC, sm.id DESC")
+    List<StockMovementSummaryDto> findRecentSummariesByProductId(@Param("productId") Long productId,
+                                                                 @Param("from") LocalDateTime from,
+                                                                 Pageable pageable);
     
-    @Query("SELECT MAX(sm.createdAt) FROM StockMovement sm WHERE sm.warehouseStock = :warehouseStock")
-    Optional<LocalDateTime> findLastMovementDateByWarehouseStock(@Param("warehouseStock") WarehouseStock warehouseStock);
+    // Geçmiş tarihli stok: belirli bir aralıktaki hareketlerin net etkisi ve sayısı (warehouse_stock_id, created_at indeksi)
+    @Query("SELECT COALESCE(SUM(CASE WHEN sm.movementType = com.anabilim.purchase.entity.enums.MovementType.OUT " +
+           "THEN -sm.quantity ELSE sm.quantity END), 0), COUNT(sm) FROM StockMovement sm " +
+           "WHERE sm.warehouseStock.id = :stockId AND sm.createdAt > :after AND sm.createdAt <= :upTo")
+    List<Object[]> summarizeMovementsBetween(@Param("stockId") Long stockId,
+                                             @Param("after") LocalDateTime after,
+                                             @Param("upTo") LocalDateTime upTo);
     
-    @Query("SELECT MAX(sm.createdAt) FROM StockMovement sm JOIN sm.warehouseStock ws WHERE ws.product = :product")
-    Optional<LocalDateTime> findLastMovementDateByProduct(@Param("product") Product product);
-} 
\ No newline at end of file
+    @Query("SELECT COALESCE(SUM(CASE WHEN sm.movementType = com.anabilim.purchase.entity.enums.MovementType.OUT " +
+           "THEN -sm.quantity ELSE sm.quantity END), 0), COUNT(sm) FROM StockMovement sm " +
+           "WHERE sm.warehouseStock.id = :stockId AND sm.createdAt > :after")
+    List<Object[]> summarizeMovementsAfter(@Param("stockId") Long stockId, @Param("after") LocalDateTime after);
+}
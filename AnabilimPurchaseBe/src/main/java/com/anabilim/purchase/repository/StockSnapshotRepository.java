@@ -0,0 +1,36 @@
+package com.anabilim.purchase.repository;
+
+import com.anabilim.purchase.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+    
+    Optional<StockSnapshot> findFirstByWarehouseStockIdAndSnapshotAtLessThanEqualOrderBySnapshotAtDesc(
+            Long warehouseStockId, LocalDateTime asOf);
+    
+    Optional<StockSnapshot> findFirstByWarehouseStockIdAndSnapshotAtGreaterThanOrderBySnapshotAtAsc(
+            Long warehouseStockId, LocalDateTime asOf);
+    
+    // Tüm stok kayıtları için tek sorguda snapshot: anlık stoktan, snapshot anından sonraki hareketler geri alınır.
+    // Aynı an için daha önce alınmış snapshot'lar atlanır, böylece iş tekrar çalıştırılabilir
+    @Modifying
+    @Query(value = "INSERT INTO stock_snapshots (warehouse_stock_id, snapshot_at, quantity, created_at) " +
+           "SELECT ws.id, :snapshotAt, ws.current_stock - COALESCE((" +
+           "    SELECT SUM(CASE WHEN sm.movement_type = 'OUT' THEN -sm.quantity ELSE sm.quantity END) " +
+           "    FROM stock_movements sm " +
+           "    WHERE sm.warehouse_stock_id = ws.id AND sm.created_at > :snapshotAt), 0), :createdAt " +
+           "FROM warehouse_stocks ws " +
+           "WHERE ws.created_at <= :snapshotAt " +
+           "AND NOT EXISTS (SELECT 1 FROM stock_snapshots s " +
+           "    WHERE s.warehouse_stock_id = ws.id AND s.snapshot_at = :snapshotAt)",
+           nativeQuery = true)
+    int insertSnapshots(@Param("snapshotAt") LocalDateTime snapshotAt, @Param("createdAt") LocalDateTime createdAt);
+}
@@ -0,0 +1,30 @@
+package com.anabilim.purchase.repository;
+
+import com.anabilim.purchase.entity.TransferDailyStat;
+import com.anabilim.purchase.entity.enums.TransferStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TransferDailyStatRepository extends JpaRepository<TransferDailyStat, Long> {
+    
+    @Query("SELECT s.status, SUM(s.transferCount) FROM TransferDailyStat s " +
+           "WHERE (:from IS NULL OR s.statDate >= :from) AND (:to IS NULL OR s.statDate <= :to) " +
+           "GROUP BY s.status HAVING SUM(s.transferCount) > 0")
+    List<Object[]> sumTransfersByStatus(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Query("SELECT s.school.name, SUM(s.transferCount) FROM TransferDailyStat s " +
+           "WHERE s.status IN :statuses " +
+           "AND (:from IS NULL OR s.statDate >= :from) AND (:to IS NULL OR s.statDate <= :to) " +
+           "GROUP BY s.school.id, s.school.name HAVING SUM(s.transferCount) > 0 " +
+           "ORDER BY SUM(s.transferCount) DESC")
+    List<Object[]> sumTransfersBySchool(@Param("statuses") Collection<TransferStatus> statuses,
+                                        @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to);
+}
@@ -0,0 +1,22 @@
+package com.anabilim.purchase.repository;
+
+import com.anabilim.purchase.entity.TransferProductDailyStat;
+import com.anabilim.purchase.entity.enums.TransferStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TransferProductDailyStatRepository extends JpaRepository<TransferProductDailyStat, Long> {
+    
+    @Query("SELECT s.product.name, SUM(s.itemCount), SUM(s.requestedQuantity), SUM(s.transferredQuantity) " +
+           "FROM TransferProductDailyStat s " +
+           "WHERE (:from IS NULL OR s.statDate >= :from) AND (:to IS NULL OR s.statDate <= :to) " +
+           "GROUP BY s.product.id, s.product.name HAVING SUM(s.itemCount) > 0 " +
+           "ORDER BY SUM(s.itemCount) DESC")
+    List<Object[]> sumItemsByProduct(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
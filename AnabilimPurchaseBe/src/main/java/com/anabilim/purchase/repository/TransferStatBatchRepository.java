@@ -0,0 +1,70 @@
+package com.anabilim.purchase.repository;
+
+import com.anabilim.purchase.entity.enums.TransferStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Transfer günlük özet tablolarına artımlı yazma. Satırlar INSERT ... ON CONFLICT DO UPDATE ile tek ifadede
+ * eklenir veya artırılır; eşzamanlı yazanlar yalnızca ilgili özet satırında sıraya girer, üst kayıt (okul) kilitlenmez.
+ * Kilitlenme olmaması için satırlar anahtar sırasıyla (durum, ardından ürün ID) verilmelidir. Aktif transaction'a katılır.
+ */
+@Repository
+public class TransferStatBatchRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String DAILY_UPSERT =
+            "INSERT INTO transfer_daily_stats (stat_date, school_id, status, transfer_count) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (stat_date, school_id, status) " +
+            "DO UPDATE SET transfer_count = transfer_daily_stats.transfer_count + EXCLUDED.transfer_count";
+
+    private static final String PRODUCT_UPSERT =
+            "INSERT INTO transfer_product_daily_stats (id, stat_date, school_id, status, product_id, item_count, " +
+            "requested_quantity, transferred_quantity) " +
+            "VALUES (nextval('transfer_product_daily_stat_id_seq'), ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (stat_date, school_id, product_id, status) DO UPDATE SET " +
+            "item_count = transfer_product_daily_stats.item_count + EXCLUDED.item_count, " +
+            "requested_quantity = transfer_product_daily_stats.requested_quantity + EXCLUDED.requested_quantity, " +
+            "transferred_quantity = transfer_product_daily_stats.transferred_quantity + EXCLUDED.transferred_quantity";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransferStatBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void addTransferCounts(LocalDate statDate, Long schoolId, List<DailyDelta> deltas) {
+        Date date = Date.valueOf(statDate);
+        jdbcTemplate.batchUpdate(DAILY_UPSERT, deltas, BATCH_SIZE, (ps, delta) -> {
+            ps.setDate(1, date);
+            ps.setLong(2, schoolId);
+            ps.setString(3, delta.status().name());
+            ps.setLong(4, delta.transferCount());
+        });
+    }
+
+    public void addProductTotals(LocalDate statDate, Long schoolId, List<ProductDelta> deltas) {
+        Date date = Date.valueOf(statDate);
+        jdbcTemplate.batchUpdate(PRODUCT_UPSERT, deltas, BATCH_SIZE, (ps, delta) -> {
+            ps.setDate(1, date);
+            ps.setLong(2, schoolId);
+            ps.setString(3, delta.status().name());
+            ps.setLong(4, delta.productId());
+            ps.setLong(5, delta.itemCount());
+            ps.setLong(6, delta.requestedQuantity());
+            ps.setLong(7, delta.transferredQuantity());
+        });
+    }
+
+    public record DailyDelta(TransferStatus status, long transferCount) {
+    }
+
+    public record ProductDelta(TransferStatus status, Long productId, long itemCount, long requestedQuantity,
+                               long transferredQuantity) {
+    }
+}
@@ -44,6 +44,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u JOIN u.roles r WHERE r.name IN :roleNames AND u.isActive = true")
     List<User> findByRoleNames(@Param("roleNames") List<String> roleNames);
     
+    @EntityGraph(attributePaths = {"roles", "manager"})
+    @Query("SELECT DISTINCT u FROM User u JOIN u.roles r WHERE u.isActive = true")
+    List<User> findActiveUsersWithRoles();
+    
     @EntityGraph(attributePaths = {"roles", "roles.permissions", "manager", "subordinates"})
     List<User> findByDepartment(String department);
     
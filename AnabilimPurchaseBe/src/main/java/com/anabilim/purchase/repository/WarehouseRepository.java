@@ -2,8 +2,11 @@ package com.anabilim.purchase.repository;
 
 import com.anabilim.purchase.entity.Warehouse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +15,16 @@ public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
     Optional<Warehouse> findByCode(String code);
     boolean existsByCode(String code);
     List<Warehouse> findAllByIsActiveTrue();
+    
+    // Depoya yeni stok kaydı eklenirken eşzamanlı oluşturmaları sıraya sokmak için satır kilidi
+    @Query(value = "SELECT id FROM warehouses WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+    
+    // Toplu içe aktarım: depolar ID sırasıyla kilitlenir (eşzamanlı aktarımlar arasında kilitlenme olmaması için)
+    @Query(value = "SELECT id FROM warehouses WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIds(@Param("ids") Collection<Long> ids);
+    
+    // Toplu içe aktarım: depo kodlarının ID'lere çözülmesi (kod, id)
+    @Query("SELECT w.code, w.id FROM Warehouse w WHERE w.code IN :codes")
+    List<Object[]> findIdsByCodes(@Param("codes") Collection<String> codes);
 } 
\ No newline at end of file
@@ -5,9 +5,13 @@ import com.anabilim.purchase.entity.Warehouse;
 import com.anabilim.purchase.entity.WarehouseStock;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,4 +33,29 @@ public interface WarehouseStockRepository extends JpaRepository<WarehouseStock,
     
     @Query("SELECT SUM(ws.currentStock) FROM WarehouseStock ws WHERE ws.product = :product")
     Integer getTotalStockForProduct(Product product);
+    
+    @Query("SELECT ws.id FROM WarehouseStock ws WHERE ws.warehouse.id = :warehouseId AND ws.product.id = :productId")
+    Optional<Long> findIdByWarehouseIdAndProductId(@Param("warehouseId") Long warehouseId,
+                                                   @Param("productId") Long productId);
+    
+    // Toplu içe aktarım: depo/ürün çiftlerinin stok kayıtları (depo id, ürün id, stok id)
+    @Query("SELECT ws.warehouse.id, ws.product.id, ws.id FROM WarehouseStock ws " +
+           "WHERE ws.warehouse.id IN :warehouseIds AND ws.product.id IN :productIds")
+    List<Object[]> findIdsByWarehouseIdsAndProductIds(@Param("warehouseIds") Collection<Long> warehouseIds,
+                                                     @Param("productIds") Collection<Long> productIds);
+    
+    // Kullanılabilir stok (ürün id, mevcut - ayrılmış)
+    @Query("SELECT ws.product.id, ws.currentStock - ws.reservedQuantity FROM WarehouseStock ws " +
+           "WHERE ws.warehouse.id = :warehouseId AND ws.product.id IN :productIds")
+    List<Object[]> findAvailableQuantities(@Param("warehouseId") Long warehouseId,
+                                           @Param("productIds") Collection<Long> productIds);
+    
+    // Stok hareketi: miktar satır okunmadan, veritabanında göreli olarak güncellenir.
+    // Stok eksiye düşecekse veya çıkış transferler için ayrılmış miktara dokunacaksa satır güncellenmez ve 0 döner
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE WarehouseStock ws SET ws.currentStock = ws.currentStock + :delta, " +
+           "ws.lastMovementAt = :updatedAt, ws.updatedAt = :updatedAt " +
+           "WHERE ws.id = :id AND ws.currentStock + :delta >= 0 " +
+           "AND (:delta >= 0 OR ws.currentStock + :delta >= ws.reservedQuantity)")
+    int applyDelta(@Param("id") Long id, @Param("delta") int delta, @Param("updatedAt") LocalDateTime updatedAt);
 } 
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.anabilim.purchase.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Onay adımı süre (SLA) olayı.
+ * REMINDER: adımın süresi dolmak üzere, onaylayıcıya hatırlatma yapılır.
+ * ESCALATION: adımın süresi doldu, üst yönetime iletilir.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ApprovalSlaEvent {
+    
+    private final Type type;
+    private final Long approvalId;
+    private final Long purchaseRequestId;
+    private final Long approverId;
+    private final String roleName;
+    private final Integer stepOrder;
+    private final LocalDateTime dueAt;
+    
+    public enum Type {
+        REMINDER,
+        ESCALATION
+    }
+}
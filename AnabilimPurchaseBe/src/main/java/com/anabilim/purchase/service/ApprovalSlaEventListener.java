@@ -0,0 +1,26 @@
+package com.anabilim.purchase.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * SLA olaylarını kaydeder. Bildirim kanalları (e-posta vb.) bu olayları dinleyerek eklenebilir.
+ */
+@Component
+@Slf4j
+public class ApprovalSlaEventListener {
+    
+    @EventListener
+    public void onApprovalSlaEvent(ApprovalSlaEvent event) {
+        if (event.getType() == ApprovalSlaEvent.Type.ESCALATION) {
+            log.warn("Onay adımının süresi doldu, üst yönetime iletiliyor: talep {}, adım {} ({}), onaylayıcı {}, son tarih {}",
+                    event.getPurchaseRequestId(), event.getStepOrder(), event.getRoleName(),
+                    event.getApproverId(), event.getDueAt());
+        } else {
+            log.info("Onay adımı için hatırlatma: talep {}, adım {} ({}), onaylayıcı {}, son tarih {}",
+                    event.getPurchaseRequestId(), event.getStepOrder(), event.getRoleName(),
+                    event.getApproverId(), event.getDueAt());
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.anabilim.purchase.service;
+
+import com.anabilim.purchase.entity.PurchaseRequestApproval;
+import com.anabilim.purchase.repository.ApprovalWorkflowRepository;
+import com.anabilim.purchase.repository.PurchaseRequestApprovalRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Onay adımı süre (SLA) zamanlayıcısı.
+ * Sırası gelmiş bekleyen adımların son tarihleri bellekteki bir {@link TimerWheel} üzerinde tutulur;
+ * tick'lerde veritabanı taranmaz. Yalnızca süresi dolan adımlar için, adımın hâlâ bekleyip
+ * beklemediği tek bir toplu sorguyla doğrulanır ve {@link ApprovalSlaEvent} yayınlanır.
+ * Süre, adımın rolüne karşılık gelen {@code ApprovalStep.timeoutHours} değerinden alınır.
+ */
+@Service
+@Slf4j
+public class ApprovalSlaScheduler {
+
+    private static final int VERIFY_BATCH_SIZE = 1000;
+
+    private final PurchaseRequestApprovalRepository approvalRepository;
+    private final ApprovalWorkflowRepository workflowRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int defaultTimeoutHours;
+    private final int reminderLeadHours;
+    private final TimerWheel<Long, SlaTimer> wheel;
+    private final Counter reminderCounter;
+    private final Counter escalationCounter;
+
+    private volatile Map<String, Integer> timeoutHoursByRole = Map.of();
+
+    public ApprovalSlaScheduler(PurchaseRequestApprovalRepository approvalRepository,
+                                ApprovalWorkflowRepository workflowRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                MeterRegistry meterRegistry,
+                                @Value("${purchase-request.approval.sla.enabled:true}") boolean enabled,
+                                @Value("${purchase-request.approval.sla.default-timeout-hours:48}") int defaultTimeoutHours,
+                                @Value("${purchase-request.approval.sla.reminder-lead-hours:4}") int reminderLeadHours,
+                                @Value("${purchase-request.approval.sla.tick-millis:60000}") long tickMillis,
+                                @Value("${purchase-request.approval.sla.wheel-slots:1024}") int wheelSlots) {
+        this.approvalRepository = approvalRepository;
+        this.workflowRepository = workflowRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.defaultTimeoutHours = defaultTimeoutHours;
+        this.reminderLeadHours = reminderLeadHours;
+        this.wheel = new TimerWheel<>(tickMillis, wheelSlots, System.currentTimeMillis());
+        this.reminderCounter = Counter.builder("approval.sla.events")
+                .description("Yayınlanan onay SLA olayları")
+                .tag("type", ApprovalSlaEvent.Type.REMINDER.name())
+                .register(meterRegistry);
+        this.escalationCounter = Counter.builder("approval.sla.events")
+                .description("Yayınlanan onay SLA olayları")
+                .tag("type", ApprovalSlaEvent.Type.ESCALATION.name())
+                .register(meterRegistry);
+        meterRegistry.gauge("approval.sla.timers", wheel, TimerWheel::size);
+    }
+
+    /**
+     * Zamanlayıcıyı veritabanından yeniden kurar: açılışta ve günlük olarak (kaçırılmış geçişleri düzeltmek için).
+     * Sırası gelmiş tüm bekleyen adımlar tek sorguyla okunur; üst yönetime iletilmiş adımlar yeniden zamanlanmaz.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${purchase-request.approval.sla.resync-cron:0 30 3 * * *}")
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Integer> timeouts = new HashMap<>();
+        for (Object[] row : workflowRepository.findStepTimeoutHoursByRole()) {
+            timeouts.put((String) row[0], ((Number) row[1]).intValue());
+        }
+        timeoutHoursByRole = Map.copyOf(timeouts);
+
+        // Tekerlek sorgudan önce boşaltılır; sorgu sürerken commit sonrası eklenen adımlar silinmez.
+        // Sorgudaki bir adım yeniden eklenirse aynı anahtarla değiştirilir, kapanmış adımları tick doğrular.
+        wheel.clear();
+        List<Object[]> rows = approvalRepository.findCurrentPendingStepTimers();
+        for (Object[] row : rows) {
+            LocalDateTime createdAt = (LocalDateTime) row[5];
+            LocalDateTime previousActionAt = (LocalDateTime) row[6];
+            LocalDateTime activatedAt = previousActionAt != null && previousActionAt.isAfter(createdAt)
+                    ? previousActionAt
+                    : createdAt;
+            schedule((Long) row[0], (Long) row[1], (Long) row[2], (String) row[3], (Integer) row[4], activatedAt);
+        }
+        log.info("Onay SLA zamanlayıcısı yüklendi: {} bekleyen adım, {} rol süresi", rows.size(), timeouts.size());
+    }
+
+    /**
+     * Sırası gelen adımı zamanlayıcıya ekler. Aktif bir transaction varsa commit sonrasında uygulanır.
+     */
+    public void stepActivated(PurchaseRequestApproval approval, LocalDateTime activatedAt) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> schedule(approval.getId(), approval.getPurchaseRequest().getId(),
+                approval.getApprover().getId(), approval.getRoleName(), approval.getStepOrder(), activatedAt));
+    }
+
+    /**
+     * Onaylanan, reddedilen veya iptal edilen adımı zamanlayıcıdan çıkarır.
+     */
+    public void stepClosed(Long approvalId) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> wheel.cancel(approvalId));
+    }
+
+    @Scheduled(fixedDelayString = "${purchase-request.approval.sla.tick-millis:60000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        List<SlaTimer> expired = wheel.advance(System.currentTimeMillis());
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        // Tetiklenen zamanlayıcılardan yalnızca hâlâ bekleyen adımlar için olay yayınlanır
+        Set<Long> openIds = new HashSet<>();
+        List<Long> ids = expired.stream().map(SlaTimer::approvalId).toList();
+        for (int from = 0; from < ids.size(); from += VERIFY_BATCH_SIZE) {
+            openIds.addAll(approvalRepository.findOpenCurrentStepIds(
+                    ids.subList(from, Math.min(from + VERIFY_BATCH_SIZE, ids.size()))));
+        }
+
+        // İletilen adımlar yayından önce işaretlenir; yeniden yüklemede geçmiş tarihli zamanlayıcı olarak dönmezler
+        List<Long> escalatedIds = expired.stream()
+                .filter(timer -> timer.stage() == ApprovalSlaEvent.Type.ESCALATION)
+                .map(SlaTimer::approvalId)
+                .filter(openIds::contains)
+                .toList();
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < escalatedIds.size(); from += VERIFY_BATCH_SIZE) {
+            approvalRepository.markEscalated(
+                    escalatedIds.subList(from, Math.min(from + VERIFY_BATCH_SIZE, escalatedIds.size())), now);
+        }
+
+        for (SlaTimer timer : expired) {
+            if (!openIds.contains(timer.approvalId())) {
+                continue;
+            }
+            eventPublisher.publishEvent(new ApprovalSlaEvent(timer.stage(), timer.approvalId(), timer.requestId(),
+                    timer.approverId(), timer.roleName(), timer.stepOrder(), timer.dueAt()));
+            if (timer.stage() == ApprovalSlaEvent.Type.REMINDER) {
+                reminderCounter.increment();
+                // Hatırlatmadan sonra adım son tarihte üst yönetime iletilmek üzere yeniden planlanır
+                SlaTimer escalation = new SlaTimer(timer.approvalId(), timer.requestId(), timer.approverId(),
+                        timer.roleName(), timer.stepOrder(), timer.dueAt(), ApprovalSlaEvent.Type.ESCALATION);
+                wheel.schedule(timer.approvalId(), escalation, toEpochMillis(timer.dueAt()));
+            } else {
+                escalationCounter.increment();
+            }
+        }
+    }
+
+    public int getTimerCount() {
+        return wheel.size();
+    }
+
+    private void schedule(Long approvalId, Long requestId, Long approverId, String roleName,
+                          Integer stepOrder, LocalDateTime activatedAt) {
+        int timeoutHours = timeoutHoursByRole.getOrDefault(roleName, defaultTimeoutHours);
+        LocalDateTime dueAt = activatedAt.plusHours(timeoutHours);
+        LocalDateTime remindAt = dueAt.minusHours(reminderLeadHours);
+
+        if (reminderLeadHours > 0 && reminderLeadHours < timeoutHours && remindAt.isAfter(LocalDateTime.now())) {
+            wheel.schedule(approvalId, new SlaTimer(approvalId, requestId, approverId, roleName, stepOrder,
+                    dueAt, ApprovalSlaEvent.Type.REMINDER), toEpochMillis(remindAt));
+        } else {
+            wheel.schedule(approvalId, new SlaTimer(approvalId, requestId, approverId, roleName, stepOrder,
+                    dueAt, ApprovalSlaEvent.Type.ESCALATION), toEpochMillis(dueAt));
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record SlaTimer(Long approvalId, Long requestId, Long approverId, String roleName,
+                            Integer stepOrder, LocalDateTime dueAt, ApprovalSlaEvent.Type stage) {
+    }
+}
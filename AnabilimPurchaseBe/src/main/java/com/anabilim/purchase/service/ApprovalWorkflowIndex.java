@@ -0,0 +1,126 @@
+package com.anabilim.purchase.service;
+
+import com.anabilim.purchase.dto.ApprovalWorkflowDto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Aktif onay akışlarının derlenmiş, değiştirilemez eşleştirme indeksi.
+ * Her kategori için min/max tutar sınırları sıralı bir diziye alınır; sınırlar arasındaki her
+ * aralık (ve her sınır noktası) için eşleşen akışlar önceden hesaplanır. Eşleştirme tek bir
+ * ikili arama ile yapılır, veritabanına gidilmez.
+ */
+public final class ApprovalWorkflowIndex {
+    
+    private static final ApprovalWorkflowIndex EMPTY = new ApprovalWorkflowIndex(Map.of(), AmountIndex.of(List.of()));
+    
+    private final Map<String, AmountIndex> byCategory;
+    private final AmountIndex allCategories;
+    
+    private ApprovalWorkflowIndex(Map<String, AmountIndex> byCategory, AmountIndex allCategories) {
+        this.byCategory = byCategory;
+        this.allCategories = allCategories;
+    }
+    
+    public static ApprovalWorkflowIndex empty() {
+        return EMPTY;
+    }
+    
+    public static ApprovalWorkflowIndex compile(List<ApprovalWorkflowDto> workflows) {
+        List<ApprovalWorkflowDto> ordered = workflows.stream()
+                .sorted(Comparator.comparing(ApprovalWorkflowDto::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        Map<String, AmountIndex> byCategory = new HashMap<>();
+        ordered.stream()
+                .filter(workflow -> workflow.getCategory() != null)
+                .collect(Collectors.groupingBy(ApprovalWorkflowDto::getCategory))
+                .forEach((category, categoryWorkflows) -> byCategory.put(category, AmountIndex.of(categoryWorkflows)));
+        return new ApprovalWorkflowIndex(Map.copyOf(byCategory), AmountIndex.of(ordered));
+    }
+    
+    /**
+     * Tutar ve kategoriye uyan akışlar. Boş tutar tüm tutarlara, boş kategori tüm kategorilere uyar;
+     * kategori verildiğinde yalnızca o kategorideki akışlar döner.
+     */
+    public List<ApprovalWorkflowDto> match(BigDecimal amount, String category) {
+        AmountIndex index = category == null ? allCategories : byCategory.get(category);
+        if (index == null) {
+            return List.of();
+        }
+        return index.match(amount);
+    }
+    
+    /**
+     * Sıralı sınır dizisi: k sınır için 2k+1 dilim vardır —
+     * (-∞, b0), [b0], (b0, b1), [b1], ..., [bk-1], (bk-1, +∞).
+     */
+    private static final class AmountIndex {
+        
+        private final BigDecimal[] boundaries;
+        private final List<List<ApprovalWorkflowDto>> slots;
+        private final List<ApprovalWorkflowDto> all;
+        
+        private AmountIndex(BigDecimal[] boundaries, List<List<ApprovalWorkflowDto>> slots, List<ApprovalWorkflowDto> all) {
+            this.boundaries = boundaries;
+            this.slots = slots;
+            this.all = all;
+        }
+        
+        static AmountIndex of(List<ApprovalWorkflowDto> workflows) {
+            TreeSet<BigDecimal> sorted = new TreeSet<>();
+            for (ApprovalWorkflowDto workflow : workflows) {
+                if (workflow.getMinAmount() != null) {
+                    sorted.add(workflow.getMinAmount());
+                }
+                if (workflow.getMaxAmount() != null) {
+                    sorted.add(workflow.getMaxAmount());
+                }
+            }
+            BigDecimal[] boundaries = sorted.toArray(new BigDecimal[0]);
+            
+            List<List<ApprovalWorkflowDto>> slots = new ArrayList<>(2 * boundaries.length + 1);
+            for (int slot = 0; slot <= 2 * boundaries.length; slot++) {
+                List<ApprovalWorkflowDto> matches = new ArrayList<>();
+                for (ApprovalWorkflowDto workflow : workflows) {
+                    if (covers(workflow, boundaries, slot)) {
+                        matches.add(workflow);
+                    }
+                }
+                slots.add(List.copyOf(matches));
+            }
+            return new AmountIndex(boundaries, List.copyOf(slots), List.copyOf(workflows));
+        }
+        
+        List<ApprovalWorkflowDto> match(BigDecimal amount) {
+            if (amount == null) {
+                return all;
+            }
+            int position = Arrays.binarySearch(boundaries, amount);
+            int slot = position >= 0 ? 2 * position + 1 : 2 * (-position - 1);
+            return slots.get(slot);
+        }
+        
+        private static boolean covers(ApprovalWorkflowDto workflow, BigDecimal[] boundaries, int slot) {
+            BigDecimal min = workflow.getMinAmount();
+            BigDecimal max = workflow.getMaxAmount();
+            if (slot % 2 == 1) {
+                // Sınır noktası
+                BigDecimal point = boundaries[slot / 2];
+                return (min == null || min.compareTo(point) <= 0) && (max == null || max.compareTo(point) >= 0);
+            }
+            // Açık aralık (lower, upper); uçlar sınır olduğundan min <= lower ve max >= upper yeterlidir
+            BigDecimal lower = slot == 0 ? null : boundaries[slot / 2 - 1];
+            BigDecimal upper = slot / 2 == boundaries.length ? null : boundaries[slot / 2];
+            return (min == null || (lower != null && min.compareTo(lower) <= 0))
+                    && (max == null || (upper != null && max.compareTo(upper) >= 0));
+        }
+    }
+}
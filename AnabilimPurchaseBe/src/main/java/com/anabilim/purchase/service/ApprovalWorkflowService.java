@@ -10,8 +10,12 @@ import com.anabilim.purchase.repository.RoleRepository;
 import com.anabilim.purchase.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -30,6 +34,9 @@ public class ApprovalWorkflowService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     
+    // Aktif akışların derlenmiş eşleştirme indeksi; değişikliklerde bütün olarak yenisiyle değiştirilir
+    private volatile ApprovalWorkflowIndex workflowIndex;
+    
     public List<ApprovalWorkflow> getAllActiveWorkflows() {
         return workflowRepository.findByIsActiveTrue();
     }
@@ -46,8 +53,30 @@ public class ApprovalWorkflowService {
         return workflowRepository.findById(id);
     }
     
-    public List<ApprovalWorkflow> findMatchingWorkflows(BigDecimal amount, String category) {
-        return workflowRepository.findMatchingWorkflows(amount, category);
+    public List<ApprovalWorkflowDto> findMatchingWorkflows(BigDecimal amount, String category) {
+        ApprovalWorkflowIndex index = workflowIndex;
+        if (index == null) {
+            index = rebuildWorkflowIndex();
+        }
+        return index.match(amount, category);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuildWorkflowIndex();
+    }
+    
+    /**
+     * Aktif akışları adımlarıyla birlikte tek sorguda yükleyip eşleştirme indeksini yeniden derler
+     */
+    public synchronized ApprovalWorkflowIndex rebuildWorkflowIndex() {
+        List<ApprovalWorkflowDto> workflows = workflowRepository.findActiveWithSteps().stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        ApprovalWorkflowIndex index = ApprovalWorkflowIndex.compile(workflows);
+        workflowIndex = index;
+        log.debug("Onay akışı indeksi derlendi: {} aktif akış", workflows.size());
+        return index;
     }
     
     public List<String> getDistinctCategories() {
@@ -78,7 +107,9 @@ public class ApprovalWorkflowService {
             }
         }
         
-        return workflowRepository.save(workflow);
+        ApprovalWorkflow saved = workflowRepository.save(workflow);
+        scheduleIndexRebuild();
+        return saved;
     }
     
     @Transactional
@@ -111,7 +142,9 @@ public class ApprovalWorkflowService {
             }
         }
         
-        return workflowRepository.save(workflow);
+        ApprovalWorkflow saved = workflowRepository.save(workflow);
+        scheduleIndexRebuild();
+        return saved;
     }
     
     @Transactional
@@ -125,6 +158,7 @@ public class ApprovalWorkflowService {
         }
         
         workflowRepository.delete(workflow);
+        scheduleIndexRebuild();
     }
     
     @Transactional
@@ -134,6 +168,29 @@ public class ApprovalWorkflowService {
         
         workflow.setIsActive(false);
         workflowRepository.save(workflow);
+        scheduleIndexRebuild();
+    }
+    
+    /**
+     * İndeks commit sonrasında yeniden derlenir; geri alınan değişiklikler indekse yansımaz.
+     * Derleme başarısız olursa indeks boşaltılır ve ilk eşleştirmede yeniden denenir.
+     */
+    private void scheduleIndexRebuild() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuildWorkflowIndex();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    rebuildWorkflowIndex();
+                } catch (RuntimeException e) {
+                    log.warn("Onay akışı indeksi yeniden derlenemedi, ilk eşleştirmede denenecek", e);
+                    workflowIndex = null;
+                }
+            }
+        });
     }
     
     private ApprovalStep createApprovalStep(ApprovalWorkflowDto.ApprovalStepDto stepDto) {
@@ -0,0 +1,139 @@
+package com.anabilim.purchase.service;
+
+import com.anabilim.purchase.entity.Role;
+import com.anabilim.purchase.entity.User;
+import com.anabilim.purchase.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Rol → onaylayıcı dizini.
+ * Onay zinciri oluşturulurken her rol için veritabanına gitmemek adına aktif kullanıcıların
+ * rolleri bellekte tutulur. Yalnızca kullanıcı ID'leri saklanır; varlık çağıranın
+ * persistence context'inden referans olarak döner, bu yüzden kullanıcı alanlarındaki
+ * değişiklikler dizini eskitmez. Rol atamaları değiştiğinde {@link #invalidate()} çağrılır
+ * ve dizin bir sonraki erişimde yeniden yüklenir.
+ */
+@Service
+@Slf4j
+public class ApproverDirectory {
+    
+    private final UserRepository userRepository;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter reloadCounter;
+    
+    private final Object publishLock = new Object();
+    
+    private volatile Map<String, Long> approverIdsByRole;
+    // publishLock ile korunur; her geçersiz kılmada artar
+    private long generation;
+    
+    public ApproverDirectory(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.hitCounter = Counter.builder("approver.directory.lookups")
+                .description("Onaylayıcı dizini sorguları")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("approver.directory.lookups")
+                .description("Onaylayıcı dizini sorguları")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.reloadCounter = Counter.builder("approver.directory.reloads")
+                .description("Onaylayıcı dizininin veritabanından yeniden yüklenme sayısı")
+                .register(meterRegistry);
+        meterRegistry.gauge("approver.directory.roles", this, directory -> {
+            Map<String, Long> snapshot = directory.approverIdsByRole;
+            return snapshot != null ? snapshot.size() : 0;
+        });
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+    
+    /**
+     * Verilen role sahip onaylayıcıyı döndürür (birden fazla kullanıcı varsa en küçük ID'li olan)
+     */
+    @Transactional(readOnly = true)
+    public Optional<User> findApprover(String roleName) {
+        Map<String, Long> snapshot = approverIdsByRole;
+        if (snapshot == null) {
+            snapshot = reload();
+        }
+        Long approverId = snapshot.get(roleName);
+        if (approverId == null) {
+            missCounter.increment();
+            return Optional.empty();
+        }
+        hitCounter.increment();
+        return Optional.of(userRepository.getReferenceById(approverId));
+    }
+    
+    /**
+     * Dizini geçersiz kılar. Aktif bir transaction varsa commit sonrasında uygulanır,
+     * böylece commit edilmemiş rol atamaları dizine okunmaz.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+    
+    private void clear() {
+        synchronized (publishLock) {
+            generation++;
+            approverIdsByRole = null;
+        }
+    }
+    
+    /**
+     * Dizini yükler. Sorgu sürerken dizin geçersiz kılınırsa okunan görüntü yayımlanmaz,
+     * yalnızca bu çağrıda kullanılır; sonraki erişim yeniden yükler.
+     */
+    private synchronized Map<String, Long> reload() {
+        long startGeneration;
+        synchronized (publishLock) {
+            startGeneration = generation;
+        }
+        List<User> users = userRepository.findActiveUsersWithRoles();
+        Map<String, Long> ids = new HashMap<>();
+        users.stream()
+                .sorted(Comparator.comparing(User::getId))
+                .forEach(user -> {
+                    for (Role role : user.getRoles()) {
+                        ids.putIfAbsent(role.getName(), user.getId());
+                    }
+                });
+        Map<String, Long> snapshot = Map.copyOf(ids);
+        synchronized (publishLock) {
+            if (generation == startGeneration) {
+                approverIdsByRole = snapshot;
+            }
+        }
+        reloadCounter.increment();
+        log.debug("Onaylayıcı dizini yüklendi: {} rol", snapshot.size());
+        return snapshot;
+    }
+}
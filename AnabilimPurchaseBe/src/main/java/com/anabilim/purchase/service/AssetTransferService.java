@@ -7,6 +7,7 @@ import com.anabilim.purchase.entity.enums.TransferStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -63,9 +64,12 @@ public interface AssetTransferService {
     // İstatistik metodları
     long getTransferCountByStatus(TransferStatus status);
     
-    List<Object[]> getTransferCountsByStatus();
+    // Günlük özet tablosundan okunur; tarih sınırları transferin oluşturulduğu güne uygulanır, null sınır filtrelenmez
+    List<Object[]> getTransferCountsByStatus(LocalDate from, LocalDate to);
     
-    List<Object[]> getTopSchoolsByTransferCount(LocalDateTime startDate);
+    List<Object[]> getTopSchoolsByTransferCount(LocalDate from, LocalDate to);
+    
+    List<Object[]> getMostTransferredProducts(LocalDate from, LocalDate to);
     
     Page<AssetTransferDto> getAllTransfersSortedByDate(Pageable pageable);
 } 
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.anabilim.purchase.service;
+
+/**
+ * Transfer, sipariş ve teklif belge numaraları.
+ * Numaralar veritabanı sequence'larından blok halinde ayrılır; benzersizdir ancak ardışık olmaları garanti edilmez.
+ */
+public interface DocumentNumberService {
+
+    /**
+     * Format: TR-YYYY-NNNNNN
+     */
+    String nextTransferCode();
+
+    /**
+     * Format: PO-YYYY-NNNNNN
+     */
+    String nextOrderCode();
+
+    /**
+     * Format: QT-YYYY-NNNNNN
+     */
+    String nextQuoteNumber();
+}
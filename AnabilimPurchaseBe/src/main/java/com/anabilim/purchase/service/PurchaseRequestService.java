@@ -1,10 +1,16 @@
 package com.anabilim.purchase.service;
 
 import com.anabilim.purchase.dto.request.ApprovePurchaseRequestDto;
+import com.anabilim.purchase.dto.request.BulkApprovePurchaseRequestDto;
 import com.anabilim.purchase.dto.request.CreatePurchaseRequestDto;
 import com.anabilim.purchase.dto.request.UpdatePurchaseRequestItemsDto;
+import com.anabilim.purchase.dto.response.BulkApprovalResultDto;
+import com.anabilim.purchase.dto.response.CursorPageDto;
 import com.anabilim.purchase.dto.response.PurchaseRequestDto;
+import com.anabilim.purchase.dto.response.PurchaseRequestSummaryDto;
 import com.anabilim.purchase.entity.enums.RequestStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 
@@ -21,10 +27,18 @@ public interface PurchaseRequestService {
     List<PurchaseRequestDto> getPurchaseRequestsByRequester(String requesterEmail);
     List<PurchaseRequestDto> getPurchaseRequestsByRequesterAndStatus(String requesterEmail, RequestStatus status);
     
+    // İmleç (created_at, id) tabanlı özet listeler
+    CursorPageDto<PurchaseRequestSummaryDto> getPurchaseRequestSummaries(String cursor, Integer size);
+    CursorPageDto<PurchaseRequestSummaryDto> getPurchaseRequestSummariesByStatus(RequestStatus status, String cursor, Integer size);
+    CursorPageDto<PurchaseRequestSummaryDto> getPurchaseRequestSummariesByRequester(String requesterEmail, String cursor, Integer size);
+    
     // Onay işlemleri
     PurchaseRequestDto approvePurchaseRequest(Long id, String approverEmail, ApprovePurchaseRequestDto approveDto);
     PurchaseRequestDto rejectPurchaseRequest(Long id, String approverEmail, ApprovePurchaseRequestDto rejectDto);
+    BulkApprovalResultDto bulkApprovePurchaseRequests(String approverEmail, BulkApprovePurchaseRequestDto bulkDto);
     List<PurchaseRequestDto> getPendingApprovalsForUser(String approverEmail);
+    Page<PurchaseRequestDto> getPendingApprovalsForUser(String approverEmail, Pageable pageable);
+    long countPendingApprovalsForUser(String approverEmail);
     
     // Ürün işlemleri
     PurchaseRequestDto updatePurchaseRequestItems(Long id, UpdatePurchaseRequestItemsDto itemsDto);
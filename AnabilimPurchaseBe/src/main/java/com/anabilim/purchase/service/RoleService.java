@@ -22,6 +22,7 @@ public class RoleService {
     
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
+    private final ApproverDirectory approverDirectory;
     
     /**
      * Tüm rolleri getir
@@ -90,7 +91,10 @@ public class RoleService {
         existingRole.setIsActive(role.getIsActive());
         existingRole.setIsSystemRole(role.getIsSystemRole());
         
-        return roleRepository.save(existingRole);
+        Role savedRole = roleRepository.save(existingRole);
+        // Rol adı değişmiş olabilir, onaylayıcı dizini yeniden yüklenmeli
+        approverDirectory.invalidate();
+        return savedRole;
     }
     
     /**
@@ -110,6 +114,7 @@ public class RoleService {
         }
         
         roleRepository.delete(role);
+        approverDirectory.invalidate();
     }
     
     /**
@@ -0,0 +1,15 @@
+package com.anabilim.purchase.service;
+
+import com.anabilim.purchase.dto.request.CreateStockMovementByWarehouseDto;
+import com.anabilim.purchase.dto.request.CreateStockMovementDto;
+import com.anabilim.purchase.entity.StockMovement;
+
+/**
+ * Stok hareket defteri: hareketler yalnızca eklenir, stok miktarı göreli olarak güncellenir
+ */
+public interface StockLedgerService {
+    
+    StockMovement recordMovement(Long warehouseStockId, CreateStockMovementDto movementDto);
+    
+    StockMovement recordMovement(CreateStockMovementByWarehouseDto movementDto);
+}
@@ -0,0 +1,140 @@
+package com.anabilim.purchase.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Aylık bölümlenmiş stock_movements tablosunun bakımı.
+ * Gelecek aylar için bölümleri önceden oluşturur; saklama süresini aşan bölümleri tablodan ayırıp
+ * stock_movements_archive tablosuna (stok kaydı ve ay başına sıkıştırılmış JSONB) taşır.
+ * Arşivlemeden önce bölümün bitiş anı için stok snapshot'ı alınır, böylece geçmiş tarihli stok sorguları
+ * arşivlenen hareketlere ihtiyaç duymadan kontrol noktasından devam eder.
+ * Bölümlenmiş tablo yoksa (ör. geliştirme ortamındaki H2) iş hiçbir şey yapmaz.
+ */
+@Service
+@Slf4j
+public class StockMovementArchiver {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("stock_movements_p(\\d{6})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockSnapshotService stockSnapshotService;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public StockMovementArchiver(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 StockSnapshotService stockSnapshotService,
+                                 @Value("${stock.movements.partition.enabled:true}") boolean enabled,
+                                 @Value("${stock.movements.partition.months-ahead:3}") int monthsAhead,
+                                 @Value("${stock.movements.partition.retention-months:24}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stockSnapshotService = stockSnapshotService;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @Scheduled(cron = "${stock.movements.partition.cron:0 30 1 1 * *}")
+    public void maintainPartitions() {
+        if (!enabled || !isPartitioned()) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            // Oluşturulamayan bölüm (ör. varsayılan bölümde o aya ait satır varsa) arşivlemeyi durdurmaz
+            YearMonth month = current.plusMonths(i);
+            try {
+                createPartition(month);
+            } catch (DataAccessException e) {
+                log.error("Stok hareketi bölümü oluşturulamadı: {}", partitionName(month), e);
+            }
+        }
+
+        YearMonth oldestRetained = current.minusMonths(retentionMonths);
+        for (YearMonth month : listPartitions()) {
+            if (month.isBefore(oldestRetained)) {
+                // Her bölüm kendi transaction'ında arşivlenir; hata diğer bölümleri etkilemez
+                try {
+                    transactionTemplate.executeWithoutResult(status -> archivePartition(month));
+                } catch (DataAccessException e) {
+                    log.error("Stok hareketi bölümü arşivlenemedi: {}", partitionName(month), e);
+                }
+            }
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.queryForList("SELECT create_stock_movement_partition(?)", Date.valueOf(month.atDay(1)));
+    }
+
+    private void archivePartition(YearMonth month) {
+        String partition = partitionName(month);
+        LocalDate periodStart = month.atDay(1);
+
+        stockSnapshotService.createSnapshots(month.plusMonths(1).atDay(1).atStartOfDay());
+        jdbcTemplate.execute("ALTER TABLE stock_movements DETACH PARTITION " + partition);
+        int archived = jdbcTemplate.update(
+                "INSERT INTO stock_movements_archive (warehouse_stock_id, period_start, movement_count, net_quantity, movements) " +
+                "SELECT warehouse_stock_id, ?, COUNT(*), " +
+                "       SUM(CASE WHEN movement_type = 'OUT' THEN -quantity ELSE quantity END), " +
+                "       jsonb_agg(jsonb_build_object('id', id, 'quantity', quantity, 'movementType', movement_type, " +
+                "                 'referenceType', reference_type, 'referenceId', reference_id, 'notes', notes, " +
+                "                 'createdAt', created_at) ORDER BY created_at, id) " +
+                "FROM " + partition + " GROUP BY warehouse_stock_id " +
+                "ON CONFLICT (warehouse_stock_id, period_start) DO NOTHING",
+                Date.valueOf(periodStart));
+        jdbcTemplate.execute("DROP TABLE " + partition);
+
+        log.info("Stok hareketi bölümü arşivlendi: {} ({} stok kaydı)", partition, archived);
+    }
+
+    private List<YearMonth> listPartitions() {
+        List<YearMonth> months = new ArrayList<>();
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'stock_movements'::regclass ORDER BY c.relname", String.class);
+        for (String name : names) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.parse(matcher.group(1), PARTITION_SUFFIX));
+            }
+        }
+        return months;
+    }
+
+    private boolean isPartitioned() {
+        try {
+            Integer count = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid " +
+                    "WHERE c.relname = 'stock_movements'", Integer.class);
+            return count != null && count > 0;
+        } catch (DataAccessException e) {
+            log.debug("stock_movements bölümlenmiş değil, bölüm bakımı atlandı");
+            return false;
+        }
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "stock_movements_p" + month.format(PARTITION_SUFFIX);
+    }
+}
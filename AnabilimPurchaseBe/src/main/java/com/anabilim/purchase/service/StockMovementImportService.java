@@ -0,0 +1,24 @@
+package com.anabilim.purchase.service;
+
+import com.anabilim.purchase.dto.response.BulkStockMovementResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Toplu stok hareketi içe aktarımı (dönem başı teslimatları, yıl sonu sayımları vb.)
+ */
+public interface StockMovementImportService {
+    
+    /**
+     * Satır biçimi: warehouseCode, productCode, quantity, movementType, reference.
+     * CSV'de ilk satır başlık olabilir; JSON'da aynı alanlara sahip nesnelerden oluşan bir dizi beklenir.
+     * Hatalı satırlar raporlanır, geçerli satırlar işlenir.
+     */
+    BulkStockMovementResultDto importMovements(InputStream input, Format format) throws IOException;
+    
+    enum Format {
+        CSV,
+        JSON
+    }
+}
@@ -0,0 +1,28 @@
+package com.anabilim.purchase.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Bekleyen transferler için depo stoğu ayırma.
+ * Ayrılan miktar warehouse_stocks.reserved_quantity alanında tutulur; kullanılabilir stok = mevcut - ayrılmış.
+ * Tüm işlemler ürün ID sırasıyla satır kilidi alır, böylece çok kalemli transferler birbirini kilitlemez.
+ * Depodan çıkışta ayırma burada değil, stok çıkışıyla aynı güncellemede düşülür (TransferStockPostingService).
+ */
+public interface StockReservationService {
+    
+    /**
+     * Ürün miktarlarını ayırır. Herhangi bir ürün için kullanılabilir stok yetmezse hiçbir miktar ayrılmaz.
+     */
+    void reserve(Long warehouseId, Map<Long, Integer> quantitiesByProduct);
+    
+    /**
+     * İptal edilen veya reddedilen transferin ayırdığı miktarları serbest bırakır.
+     */
+    void release(Long warehouseId, Map<Long, Integer> quantitiesByProduct);
+    
+    /**
+     * Ürünlerin depodaki kullanılabilir miktarları (ürün id → mevcut - ayrılmış); stok kaydı olmayan ürünler dönmez.
+     */
+    Map<Long, Integer> getAvailableQuantities(Long warehouseId, Collection<Long> productIds);
+}
@@ -0,0 +1,23 @@
+package com.anabilim.purchase.service;
+
+import com.anabilim.purchase.dto.response.StockAsOfDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stok snapshot'ları (ay sonu kontrol noktaları) ve geçmiş tarihli stok sorguları
+ */
+public interface StockSnapshotService {
+    
+    /**
+     * Tüm stok kayıtları için verilen andaki miktarı kaydeder. Aynı an için tekrar çağrılabilir; an gelecekte olamaz.
+     * @return oluşturulan snapshot sayısı
+     */
+    int createSnapshots(LocalDateTime snapshotAt);
+    
+    /**
+     * Stok kaydının verilen andaki miktarı; yalnızca en yakın snapshot ile o an arasındaki hareketler işlenir.
+     * Bu aralıktaki hareketler arşivlenmişse ValidationException fırlatılır.
+     */
+    StockAsOfDto getStockAsOf(Long warehouseStockId, LocalDateTime asOf);
+}
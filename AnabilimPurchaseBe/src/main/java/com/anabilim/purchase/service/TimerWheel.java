@@ -0,0 +1,102 @@
+package com.anabilim.purchase.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Anahtar bazlı, tek seviyeli hashed timer wheel.
+ * Zaman sabit uzunlukta tick'lere bölünür; her zamanlayıcı son tarihinin düştüğü tick'in
+ * yuvasına (tick % yuva sayısı) konur. Tick ilerletilirken yalnızca geçilen yuvalar taranır,
+ * bu sayede yüz binlerce zamanlayıcı için her tick'te tüm kayıtlar gezilmez.
+ * Aynı anahtarla yeniden planlama önceki zamanlayıcının yerine geçer.
+ */
+public final class TimerWheel<K, V> {
+
+    private final long tickMillis;
+    private final List<Map<K, Entry<V>>> slots;
+    private final Map<K, Entry<V>> entries = new HashMap<>();
+    private long currentTick;
+
+    public TimerWheel(long tickMillis, int slotCount, long nowMillis) {
+        if (tickMillis <= 0 || slotCount <= 0) {
+            throw new IllegalArgumentException("Tick süresi ve yuva sayısı pozitif olmalıdır");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new LinkedHashMap<>());
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Zamanlayıcıyı planlar. Son tarihi geçmiş zamanlayıcılar bir sonraki tick'te tetiklenir.
+     */
+    public synchronized void schedule(K key, V value, long deadlineMillis) {
+        cancel(key);
+        long deadlineTick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        Entry<V> entry = new Entry<>(value, deadlineTick);
+        entries.put(key, entry);
+        slotOf(deadlineTick).put(key, entry);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        slotOf(entry.deadlineTick).remove(key);
+        return true;
+    }
+
+    /**
+     * Tekerleği verilen zamana kadar ilerletir ve süresi dolan zamanlayıcıları son tarih sırasıyla döndürür.
+     * Gecikme tekerleğin bir turundan uzunsa tüm yuvalar yalnızca bir kez taranır.
+     */
+    public synchronized List<V> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        if (targetTick <= currentTick) {
+            return List.of();
+        }
+        List<Entry<V>> expired = new ArrayList<>();
+        long ticksToScan = Math.min(targetTick - currentTick, slots.size());
+        for (long tick = currentTick + 1; tick <= currentTick + ticksToScan; tick++) {
+            Iterator<Map.Entry<K, Entry<V>>> iterator = slotOf(tick).entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<K, Entry<V>> slotEntry = iterator.next();
+                if (slotEntry.getValue().deadlineTick <= targetTick) {
+                    iterator.remove();
+                    entries.remove(slotEntry.getKey());
+                    expired.add(slotEntry.getValue());
+                }
+            }
+        }
+        currentTick = targetTick;
+        expired.sort((a, b) -> Long.compare(a.deadlineTick, b.deadlineTick));
+        return expired.stream().map(entry -> entry.value).toList();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        slots.forEach(Map::clear);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private Map<K, Entry<V>> slotOf(long tick) {
+        return slots.get((int) Math.floorMod(tick, (long) slots.size()));
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private record Entry<V>(V value, long deadlineTick) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.anabilim.purchase.service;
+
+import com.anabilim.purchase.entity.AssetTransfer;
+import com.anabilim.purchase.entity.enums.TransferStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transfer istatistikleri için günlük özet (rollup) tabloları.
+ * Gün, transferin oluşturulduğu gündür; tarih filtreleri bu güne uygulanır ve null sınır filtrelenmez.
+ */
+public interface TransferStatisticsService {
+    
+    /**
+     * Transferin mevcut durumu ve kalemleriyle özete katkısını ekler (sign = 1) veya geri alır (sign = -1).
+     * Oluşturma ve silmede kullanılır; stok güncellemeleriyle aynı transaction'daysa onlardan sonra çağrılır.
+     */
+    void record(AssetTransfer transfer, int sign);
+    
+    /**
+     * Transferin özete o anki katkısı; durum veya kalem değişikliğinden önce alınır.
+     */
+    Contribution contributionOf(AssetTransfer transfer);
+    
+    /**
+     * Önceki katkı ile transferin mevcut katkısı arasındaki farkı tek adımda yazar.
+     * Stok güncellemelerinden sonra çağrılır; transfer satırı kilitli olmalıdır.
+     */
+    void recordChange(AssetTransfer transfer, Contribution before);
+    
+    /**
+     * @param totalsByProduct ürün id → {kalem sayısı, istenen miktar, transfer edilen miktar}
+     */
+    record Contribution(TransferStatus status, Map<Long, long[]> totalsByProduct) {
+    }
+    
+    /**
+     * [durum, transfer sayısı]
+     */
+    List<Object[]> getTransferCountsByStatus(LocalDate from, LocalDate to);
+    
+    /**
+     * [okul adı, depodan çıkmış transfer sayısı], çoktan aza
+     */
+    List<Object[]> getTopSchoolsByTransferCount(LocalDate from, LocalDate to);
+    
+    /**
+     * [ürün adı, kalem sayısı, istenen miktar, transfer edilen miktar], kalem sayısına göre çoktan aza
+     */
+    List<Object[]> getMostTransferredProducts(LocalDate from, LocalDate to);
+}
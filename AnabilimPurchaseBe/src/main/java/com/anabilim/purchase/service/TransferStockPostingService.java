@@ -0,0 +1,18 @@
+package com.anabilim.purchase.service;
+
+import com.anabilim.purchase.entity.AssetTransfer;
+
+/**
+ * Depodan çıkan transferlerin stok defterine işlenmesi.
+ * Çağıran taraf transfer satırını kilitlemiş olmalıdır; aynı transfer iki kez işlenemez.
+ */
+public interface TransferStockPostingService {
+    
+    /**
+     * Transfer kalemlerini kaynak depodan OUT hareketi olarak işler ve depo stoğunu tek seferde düşer.
+     * Transfer daha önce işlendiyse hiçbir şey yapmaz.
+     * @param consumeReservation transferin ayırdığı miktarlar da düşülsün mü
+     * @return oluşturulan hareket sayısı
+     */
+    int postStockOut(AssetTransfer transfer, boolean consumeReservation);
+}
@@ -7,17 +7,30 @@ import com.anabilim.purchase.entity.enums.TransferStatus;
 import com.anabilim.purchase.mapper.AssetTransferMapper;
 import com.anabilim.purchase.repository.*;
 import com.anabilim.purchase.service.AssetTransferService;
+import com.anabilim.purchase.service.DocumentNumberService;
+import com.anabilim.purchase.service.StockReservationService;
+import com.anabilim.purchase.service.TransferStatisticsService;
+import com.anabilim.purchase.service.TransferStockPostingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +38,13 @@ import java.util.List;
 @Transactional
 public class AssetTransferServiceImpl implements AssetTransferService {
 
+    // Bu durumlardaki transferler kaynak depoda stok ayırır
+    private static final Set<TransferStatus> RESERVING_STATUSES =
+            EnumSet.of(TransferStatus.PENDING, TransferStatus.APPROVED, TransferStatus.PREPARING);
+    // Bu durumlara geçişte ayrılan stok depoya geri bırakılır; diğer çıkışlarda stok depodan çıkmış sayılır
+    private static final Set<TransferStatus> RELEASING_STATUSES =
+            EnumSet.of(TransferStatus.CANCELLED, TransferStatus.REJECTED);
+
     private final AssetTransferRepository assetTransferRepository;
     private final AssetTransferItemRepository assetTransferItemRepository;
     private final WarehouseRepository warehouseRepository;
@@ -32,6 +52,10 @@ public class AssetTransferServiceImpl implements AssetTransferService {
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final AssetTransferMapper assetTransferMapper;
+    private final StockReservationService stockReservationService;
+    private final DocumentNumberService documentNumberService;
+    private final TransferStockPostingService transferStockPostingService;
+    private final TransferStatisticsService transferStatisticsService;
 
     @Override
     public AssetTransferDto createTransfer(CreateAssetTransferDto createDto) {
@@ -52,28 +76,23 @@ public class AssetTransferServiceImpl implements AssetTransferService {
         transfer.setSourceWarehouse(sourceWarehouse);
         transfer.setTargetSchool(targetSchool);
         
-        // Generate unique transfer code if needed
-        String transferCode = transfer.getTransferCode();
-        while (assetTransferRepository.existsByTransferCode(transferCode)) {
-            transfer.setTransferCode(generateTransferCode());
-            transferCode = transfer.getTransferCode();
-        }
-        
-        transfer = assetTransferRepository.save(transfer);
+        transfer.setTransferCode(documentNumberService.nextTransferCode());
 
-        // Create transfer items
+        // Kalem ürünleri tek sorguyla yüklenir; transfer ve kalemleri tek flush'ta toplu yazılır
+        Map<Long, Product> products = loadProducts(createDto.getItems());
         for (CreateAssetTransferDto.TransferItemDto itemDto : createDto.getItems()) {
-            Product product = productRepository.findById(itemDto.getProductId())
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
-                        "Ürün bulunamadı: " + itemDto.getProductId()));
-            
             AssetTransferItem item = assetTransferMapper.toItemEntity(itemDto);
-            item.setProduct(product);
+            item.setProduct(products.get(itemDto.getProductId()));
             transfer.addTransferItem(item);
         }
         
         transfer = assetTransferRepository.save(transfer);
         
+        if (RESERVING_STATUSES.contains(transfer.getStatus())) {
+            stockReservationService.reserve(sourceWarehouse.getId(), quantitiesByProduct(transfer));
+        }
+        transferStatisticsService.record(transfer, 1);
+        
         log.info("Asset transfer created successfully with ID: {}", transfer.getId());
         return assetTransferMapper.toDto(transfer);
     }
@@ -82,8 +101,8 @@ public class AssetTransferServiceImpl implements AssetTransferService {
     public AssetTransferDto updateTransferStatus(Long id, TransferStatus status) {
         log.info("Updating transfer status for ID: {} to {}", id, status);
         
-        AssetTransfer transfer = findTransferEntityById(id);
-        transfer.setStatus(status);
+        AssetTransfer transfer = lockTransfer(id);
+        changeStatus(transfer, status);
         
         if (status == TransferStatus.IN_TRANSIT) {
             transfer.setActualTransferDate(LocalDateTime.now());
@@ -103,12 +122,12 @@ public class AssetTransferServiceImpl implements AssetTransferService {
     public AssetTransferDto approveTransfer(Long id, Long approvedByUserId) {
         log.info("Approving transfer ID: {} by user: {}", id, approvedByUserId);
         
-        AssetTransfer transfer = findTransferEntityById(id);
+        AssetTransfer transfer = lockTransfer(id);
         User approvedBy = userRepository.findById(approvedByUserId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
                     "Kullanıcı bulunamadı: " + approvedByUserId));
         
-        transfer.setStatus(TransferStatus.APPROVED);
+        changeStatus(transfer, TransferStatus.APPROVED);
         transfer.setApprovedBy(approvedBy);
         
         transfer = assetTransferRepository.save(transfer);
@@ -121,12 +140,12 @@ public class AssetTransferServiceImpl implements AssetTransferService {
     public AssetTransferDto startTransfer(Long id, Long deliveredByUserId) {
         log.info("Starting transfer ID: {} by user: {}", id, deliveredByUserId);
         
-        AssetTransfer transfer = findTransferEntityById(id);
+        AssetTransfer transfer = lockTransfer(id);
         User deliveredBy = userRepository.findById(deliveredByUserId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
                     "Kullanıcı bulunamadı: " + deliveredByUserId));
         
-        transfer.setStatus(TransferStatus.IN_TRANSIT);
+        changeStatus(transfer, TransferStatus.IN_TRANSIT);
         transfer.setDeliveredBy(deliveredBy);
         transfer.setActualTransferDate(LocalDateTime.now());
         
@@ -140,12 +159,12 @@ public class AssetTransferServiceImpl implements AssetTransferService {
     public AssetTransferDto completeTransfer(Long id, Long receivedByUserId) {
         log.info("Completing transfer ID: {} by user: {}", id, receivedByUserId);
         
-        AssetTransfer transfer = findTransferEntityById(id);
+        AssetTransfer transfer = lockTransfer(id);
         User receivedBy = userRepository.findById(receivedByUserId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
                     "Kullanıcı bulunamadı: " + receivedByUserId));
         
-        transfer.setStatus(TransferStatus.COMPLETED);
+        changeStatus(transfer, TransferStatus.COMPLETED);
         transfer.setReceivedBy(receivedBy);
         
         transfer = assetTransferRepository.save(transfer);
@@ -158,8 +177,8 @@ public class AssetTransferServiceImpl implements AssetTransferService {
     public AssetTransferDto cancelTransfer(Long id, String reason) {
         log.info("Cancelling transfer ID: {} with reason: {}", id, reason);
         
-        AssetTransfer transfer = findTransferEntityById(id);
-        transfer.setStatus(TransferStatus.CANCELLED);
+        AssetTransfer transfer = lockTransfer(id);
+        changeStatus(transfer, TransferStatus.CANCELLED);
         transfer.setNotes(transfer.getNotes() + "\n\nİptal Nedeni: " + reason);
         
         transfer = assetTransferRepository.save(transfer);
@@ -172,7 +191,11 @@ public class AssetTransferServiceImpl implements AssetTransferService {
     public void deleteTransfer(Long id) {
         log.info("Deleting transfer with ID: {}", id);
         
-        AssetTransfer transfer = findTransferEntityById(id);
+        AssetTransfer transfer = lockTransfer(id);
+        if (RESERVING_STATUSES.contains(transfer.getStatus()) && transfer.getStockPostedAt() == null) {
+            stockReservationService.release(transfer.getSourceWarehouse().getId(), quantitiesByProduct(transfer));
+        }
+        transferStatisticsService.record(transfer, -1);
         assetTransferRepository.delete(transfer);
         
         log.info("Transfer deleted successfully with ID: {}", id);
@@ -231,7 +254,9 @@ public class AssetTransferServiceImpl implements AssetTransferService {
     @Override
     @Transactional(readOnly = true)
     public Page<AssetTransferDto> searchTransfers(String search, Pageable pageable) {
-        Page<AssetTransfer> transfers = assetTransferRepository.searchTransfers(search, pageable);
+        // Sonuçlar benzerliğe göre sıralı gelir; istekteki sıralama uygulanmaz
+        Page<AssetTransfer> transfers = assetTransferRepository.searchTransfers(search,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
         return transfers.map(assetTransferMapper::toDto);
     }
 
@@ -274,6 +299,8 @@ public class AssetTransferServiceImpl implements AssetTransferService {
         log.info("Updating transfer item {} in transfer {} with quantity {}", 
             itemId, transferId, transferredQuantity);
         
+        // Stok çıkışı işlenirken kalem miktarı değişmesin
+        AssetTransfer transfer = lockTransfer(transferId);
         AssetTransferItem item = assetTransferItemRepository.findById(itemId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
                     "Transfer kalemi bulunamadı: " + itemId));
@@ -283,10 +310,26 @@ public class AssetTransferServiceImpl implements AssetTransferService {
                 "Transfer kalemi belirtilen transfere ait değil");
         }
         
+        if (item.getAssetTransfer().getStockPostedAt() != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
+                "Stok çıkışı işlenmiş transferin kalemleri değiştirilemez");
+        }
+        
+        // Transfer edilen miktar stok çıkışı olarak işlenir; eksi değer depo stoğunu artırırdı
+        if (transferredQuantity == null || transferredQuantity < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
+                "Transfer edilen miktar sıfır veya daha büyük olmalıdır");
+        }
+        if (transferredQuantity > item.getRequestedQuantity()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
+                "Transfer edilen miktar istenen miktarı (" + item.getRequestedQuantity() + ") aşamaz");
+        }
+        
+        TransferStatisticsService.Contribution before = transferStatisticsService.contributionOf(transfer);
         item.setTransferredQuantity(transferredQuantity);
         assetTransferItemRepository.save(item);
+        transferStatisticsService.recordChange(transfer, before);
         
-        AssetTransfer transfer = item.getAssetTransfer();
         log.info("Transfer item updated successfully");
         return assetTransferMapper.toDto(transfer);
     }
@@ -315,14 +358,20 @@ public class AssetTransferServiceImpl implements AssetTransferService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Object[]> getTransferCountsByStatus() {
-        return assetTransferRepository.countTransfersByStatus();
+    public List<Object[]> getTransferCountsByStatus(LocalDate from, LocalDate to) {
+        return transferStatisticsService.getTransferCountsByStatus(from, to);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Object[]> getTopSchoolsByTransferCount(LocalDateTime startDate) {
-        return assetTransferRepository.getTopSchoolsByTransferCount(startDate);
+    public List<Object[]> getTopSchoolsByTransferCount(LocalDate from, LocalDate to) {
+        return transferStatisticsService.getTopSchoolsByTransferCount(from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Object[]> getMostTransferredProducts(LocalDate from, LocalDate to) {
+        return transferStatisticsService.getMostTransferredProducts(from, to);
     }
     
     @Override
@@ -332,8 +381,66 @@ public class AssetTransferServiceImpl implements AssetTransferService {
         return transfers.map(assetTransferMapper::toDto);
     }
     
-    private String generateTransferCode() {
-        return "TR-" + LocalDateTime.now().getYear() + "-" + 
-               String.format("%06d", (int)(Math.random() * 1000000));
+    /**
+     * Transfer satırını kilitler ve güncel halini yükler; aynı transfer için durum geçişleri sıraya girer.
+     */
+    private AssetTransfer lockTransfer(Long id) {
+        if (assetTransferRepository.lockById(id).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Transfer bulunamadı: " + id);
+        }
+        return findTransferEntityById(id);
+    }
+    
+    /**
+     * Durumu değiştirir ve kaynak depodaki stok ayırmasını yeni duruma göre ayırır veya bırakır.
+     * Depodan çıkış anlamına gelen ilk geçişte kalemler stok çıkışı olarak işlenir ve ayırma aynı güncellemede düşülür.
+     */
+    private void changeStatus(AssetTransfer transfer, TransferStatus newStatus) {
+        TransferStatisticsService.Contribution before = transferStatisticsService.contributionOf(transfer);
+        boolean reserved = RESERVING_STATUSES.contains(transfer.getStatus());
+        boolean reserves = RESERVING_STATUSES.contains(newStatus);
+        boolean leavesWarehouse = !reserves && !RELEASING_STATUSES.contains(newStatus);
+        Long warehouseId = transfer.getSourceWarehouse().getId();
+        
+        // Stok çıkışı işlenmişse ayırma da o güncellemede düşülmüştür; sonraki geçişler stoğa dokunmaz
+        if (transfer.getStockPostedAt() == null) {
+            if (leavesWarehouse) {
+                transferStockPostingService.postStockOut(transfer, reserved);
+            } else if (reserved && !reserves) {
+                stockReservationService.release(warehouseId, quantitiesByProduct(transfer));
+            } else if (!reserved && reserves) {
+                stockReservationService.reserve(warehouseId, quantitiesByProduct(transfer));
+            }
+        }
+        transfer.setStatus(newStatus);
+        // Kilit sırası her yolda aynı: transfer, stok satırları, özet satırları
+        transferStatisticsService.recordChange(transfer, before);
+    }
+    
+    /**
+     * Ürünleri tek bir findAllById çağrısıyla yükler; eksik olanların tamamı tek hata mesajında bildirilir.
+     */
+    private Map<Long, Product> loadProducts(List<CreateAssetTransferDto.TransferItemDto> items) {
+        Set<Long> ids = items.stream()
+                .map(CreateAssetTransferDto.TransferItemDto::getProductId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Long> missing = ids.stream()
+                .filter(id -> !products.containsKey(id))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Ürün bulunamadı: " +
+                    missing.stream().map(String::valueOf).collect(Collectors.joining(", ")));
+        }
+        return products;
+    }
+    
+    private static Map<Long, Integer> quantitiesByProduct(AssetTransfer transfer) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (AssetTransferItem item : transfer.getTransferItems()) {
+            quantities.merge(item.getProduct().getId(), item.getRequestedQuantity(), Integer::sum);
+        }
+        return quantities;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,129 @@
+package com.anabilim.purchase.service.impl;
+
+import com.anabilim.purchase.service.DocumentNumberService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.time.Year;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hi/lo belge numarası ayırıcı. Her sequence ALLOCATION_SIZE kadar artar; tek bir nextval çağrısı
+ * [değer, değer + ALLOCATION_SIZE) aralığını bu instance'a ayırır ve aralık bitene kadar veritabanına gidilmez.
+ * Aralıklar instance'lar arasında çakışmadığı için numaralar varlık kontrolü yapılmadan benzersizdir;
+ * yeniden başlatmada kullanılmayan numaralar atlanır.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentNumberServiceImpl implements DocumentNumberService {
+
+    // Migration'daki INCREMENT BY değeriyle aynı olmalı
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final Pattern LEGACY_TRANSFER_CODE = Pattern.compile("^TR-\\d{4}-(\\d{1,18})$");
+
+    private enum DocumentType {
+        ASSET_TRANSFER("TR", "asset_transfer_code_seq"),
+        PURCHASE_ORDER("PO", "purchase_order_code_seq"),
+        SUPPLIER_QUOTE("QT", "supplier_quote_number_seq");
+
+        private final String prefix;
+        private final String sequence;
+
+        DocumentType(String prefix, String sequence) {
+            this.prefix = prefix;
+            this.sequence = sequence;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<DocumentType, long[]> blocks = new EnumMap<>(DocumentType.class);
+
+    @PostConstruct
+    void ensureSequences() {
+        // Migration çalıştırılmamış ortamlar (ör. testlerdeki H2) için; başlangıç değerleri migration ile aynı
+        for (DocumentType type : DocumentType.values()) {
+            if (sequenceExists(type.sequence)) {
+                continue;
+            }
+            long start = type == DocumentType.ASSET_TRANSFER ? maxLegacyTransferNumber() + 1 : 1;
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + type.sequence +
+                    " START WITH " + start + " INCREMENT BY " + ALLOCATION_SIZE);
+            log.warn("{} sequence'ı bulunamadı, {} değerinden başlatılarak oluşturuldu", type.sequence, start);
+        }
+    }
+
+    private boolean sequenceExists(String sequence) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.sequences WHERE LOWER(sequence_name) = ?",
+                Integer.class, sequence);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Eski rastgele transfer kodları (TR-YYYY-NNNNNN) yeni formatla aynı; sequence bunların en büyüğünün üzerinden başlamalı.
+     * Tablo henüz yoksa (yeni veritabanı) eski kod da yoktur.
+     */
+    private long maxLegacyTransferNumber() {
+        boolean tableExists = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? "ASSET_TRANSFERS" : "asset_transfers";
+            try (ResultSet tables = metaData.getTables(null, null, table, new String[]{"TABLE"})) {
+                return tables.next();
+            }
+        }));
+        if (!tableExists) {
+            return 0;
+        }
+        long[] max = {0};
+        jdbcTemplate.query("SELECT transfer_code FROM asset_transfers WHERE transfer_code LIKE 'TR-%'", row -> {
+            Matcher matcher = LEGACY_TRANSFER_CODE.matcher(row.getString(1));
+            if (matcher.matches()) {
+                max[0] = Math.max(max[0], Long.parseLong(matcher.group(1)));
+            }
+        });
+        return max[0];
+    }
+
+    @Override
+    public String nextTransferCode() {
+        return format(DocumentType.ASSET_TRANSFER);
+    }
+
+    @Override
+    public String nextOrderCode() {
+        return format(DocumentType.PURCHASE_ORDER);
+    }
+
+    @Override
+    public String nextQuoteNumber() {
+        return format(DocumentType.SUPPLIER_QUOTE);
+    }
+
+    private String format(DocumentType type) {
+        return String.format("%s-%d-%06d", type.prefix, Year.now().getValue(), nextValue(type));
+    }
+
+    private synchronized long nextValue(DocumentType type) {
+        // {sıradaki değer, aralığın bitişi (hariç)}
+        long[] block = blocks.get(type);
+        if (block == null || block[0] >= block[1]) {
+            Long hi = jdbcTemplate.queryForObject("SELECT nextval('" + type.sequence + "')", Long.class);
+            block = new long[]{hi, hi + ALLOCATION_SIZE};
+            blocks.put(type, block);
+            log.debug("{} için yeni numara aralığı ayrıldı: {}-{}", type, block[0], block[1] - 1);
+        }
+        return block[0]++;
+    }
+}
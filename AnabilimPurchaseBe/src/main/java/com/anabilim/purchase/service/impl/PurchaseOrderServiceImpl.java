@@ -14,6 +14,7 @@ import com.anabilim.purchase.entity.enums.QuoteStatus;
 import com.anabilim.purchase.repository.PurchaseOrderRepository;
 import com.anabilim.purchase.repository.SupplierQuoteRepository;
 import com.anabilim.purchase.repository.WarehouseRepository;
+import com.anabilim.purchase.service.DocumentNumberService;
 import com.anabilim.purchase.service.PurchaseOrderService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -31,6 +32,7 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
     private final PurchaseOrderRepository purchaseOrderRepository;
     private final SupplierQuoteRepository supplierQuoteRepository;
     private final WarehouseRepository warehouseRepository;
+    private final DocumentNumberService documentNumberService;
 
     @Override
     public PurchaseOrderDto createPurchaseOrder(CreatePurchaseOrderDto dto) {
@@ -41,6 +43,7 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
                 .orElseThrow(() -> new EntityNotFoundException("Depo bulunamadı"));
 
         PurchaseOrder purchaseOrder = new PurchaseOrder();
+        purchaseOrder.setOrderCode(documentNumberService.nextOrderCode());
         purchaseOrder.setSupplierQuote(supplierQuote);
         purchaseOrder.setQuantity(dto.getQuantity());
         purchaseOrder.setUnitPrice(supplierQuote.getUnitPrice());
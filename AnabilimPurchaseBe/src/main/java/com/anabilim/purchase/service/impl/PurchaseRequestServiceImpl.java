@@ -1,9 +1,13 @@
 package com.anabilim.purchase.service.impl;
 
 import com.anabilim.purchase.dto.request.ApprovePurchaseRequestDto;
+import com.anabilim.purchase.dto.request.BulkApprovePurchaseRequestDto;
 import com.anabilim.purchase.dto.request.CreatePurchaseRequestDto;
 import com.anabilim.purchase.dto.request.UpdatePurchaseRequestItemsDto;
+import com.anabilim.purchase.dto.response.BulkApprovalResultDto;
+import com.anabilim.purchase.dto.response.CursorPageDto;
 import com.anabilim.purchase.dto.response.PurchaseRequestDto;
+import com.anabilim.purchase.dto.response.PurchaseRequestSummaryDto;
 import com.anabilim.purchase.entity.PurchaseRequest;
 import com.anabilim.purchase.entity.PurchaseRequestApproval;
 import com.anabilim.purchase.entity.PurchaseRequestItem;
@@ -17,18 +21,34 @@ import com.anabilim.purchase.exception.ResourceNotFoundException;
 import com.anabilim.purchase.exception.ValidationException;
 import com.anabilim.purchase.mapper.PurchaseRequestMapper;
 import com.anabilim.purchase.repository.*;
+import com.anabilim.purchase.service.ApprovalSlaScheduler;
+import com.anabilim.purchase.service.ApproverDirectory;
+import com.anabilim.purchase.service.DocumentNumberService;
 import com.anabilim.purchase.service.PurchaseRequestService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -38,10 +58,19 @@ public class PurchaseRequestServiceImpl implements PurchaseRequestService {
     
     private final PurchaseRequestRepository purchaseRequestRepository;
     private final PurchaseRequestApprovalRepository approvalRepository;
+    private final PurchaseRequestApprovalBatchRepository approvalBatchRepository;
     private final PurchaseRequestItemRepository itemRepository;
     private final UserRepository userRepository;
     private final PurchaseRequestMapper purchaseRequestMapper;
-    private final SupplierQuoteRepository supplierQuoteRepository;
+    private final ApproverDirectory approverDirectory;
+    private final ApprovalSlaScheduler approvalSlaScheduler;
+    private final DocumentNumberService documentNumberService;
+    
+    @Value("${purchase-request.pagination.default-size:20}")
+    private int defaultPageSize;
+    
+    @Value("${purchase-request.pagination.max-size:100}")
+    private int maxPageSize;
 
     @Override
     public PurchaseRequestDto createPurchaseRequest(CreatePurchaseRequestDto createDto, String requesterEmail) {
@@ -49,24 +78,29 @@ public class PurchaseRequestServiceImpl implements PurchaseRequestService {
                 .orElseThrow(() -> new ResourceNotFoundException("Kullanıcı bulunamadı: " + requesterEmail));
         
         PurchaseRequest request = purchaseRequestMapper.toEntity(createDto, requester);
+        assignQuoteNumbers(request);
         request = purchaseRequestRepository.save(request);
         
         // Onay adımlarını oluştur
         createApprovalSteps(request, requester);
+        approvalSlaScheduler.stepActivated(request.getApprovals().get(0), LocalDateTime.now());
         
         return purchaseRequestMapper.toDto(request);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public PurchaseRequestDto getPurchaseRequestById(Long id) {
-        PurchaseRequest request = purchaseRequestRepository.findById(id)
+        PurchaseRequest request = purchaseRequestRepository.findDetailById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Satın alma talebi bulunamadı: " + id));
+        fetchItemGraph(List.of(request));
         return purchaseRequestMapper.toDto(request);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<PurchaseRequestDto> getAllPurchaseRequests() {
-        return purchaseRequestMapper.toDtoList(purchaseRequestRepository.findAll());
+        return purchaseRequestMapper.toDtoList(fetchItemGraph(purchaseRequestRepository.findAll()));
     }
     
     @Override
@@ -78,133 +112,269 @@ public class PurchaseRequestServiceImpl implements PurchaseRequestService {
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<PurchaseRequestDto> getPurchaseRequestsByStatus(RequestStatus status) {
-        return purchaseRequestMapper.toDtoList(purchaseRequestRepository.findByStatus(status));
+        return purchaseRequestMapper.toDtoList(fetchItemGraph(purchaseRequestRepository.findByStatus(status)));
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<PurchaseRequestDto> getPurchaseRequestsByRequester(String requesterEmail) {
         User requester = userRepository.findByEmailAndIsActiveTrue(requesterEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("Kullanıcı bulunamadı: " + requesterEmail));
-        return purchaseRequestMapper.toDtoList(purchaseRequestRepository.findByRequester(requester));
+        return purchaseRequestMapper.toDtoList(fetchItemGraph(purchaseRequestRepository.findByRequester(requester)));
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<PurchaseRequestDto> getPurchaseRequestsByRequesterAndStatus(String requesterEmail, RequestStatus status) {
         User requester = userRepository.findByEmailAndIsActiveTrue(requesterEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("Kullanıcı bulunamadı: " + requesterEmail));
-        return purchaseRequestMapper.toDtoList(purchaseRequestRepository.findByRequesterAndStatus(requester, status));
+        return purchaseRequestMapper.toDtoList(
+                fetchItemGraph(purchaseRequestRepository.findByRequesterAndStatus(requester, status)));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PurchaseRequestSummaryDto> getPurchaseRequestSummaries(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<PurchaseRequestSummaryDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = purchaseRequestRepository.findSummaries(limit);
+        } else {
+            KeysetCursor after = decodeCursor(cursor);
+            rows = purchaseRequestRepository.findSummariesAfter(after.createdAt(), after.id(), limit);
+        }
+        return toCursorPage(rows, pageSize);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PurchaseRequestSummaryDto> getPurchaseRequestSummariesByStatus(RequestStatus status, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<PurchaseRequestSummaryDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = purchaseRequestRepository.findSummariesByStatus(status, limit);
+        } else {
+            KeysetCursor after = decodeCursor(cursor);
+            rows = purchaseRequestRepository.findSummariesByStatusAfter(status, after.createdAt(), after.id(), limit);
+        }
+        return toCursorPage(rows, pageSize);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PurchaseRequestSummaryDto> getPurchaseRequestSummariesByRequester(String requesterEmail, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<PurchaseRequestSummaryDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = purchaseRequestRepository.findSummariesByRequesterEmail(requesterEmail, limit);
+        } else {
+            KeysetCursor after = decodeCursor(cursor);
+            rows = purchaseRequestRepository.findSummariesByRequesterEmailAfter(
+                    requesterEmail, after.createdAt(), after.id(), limit);
+        }
+        return toCursorPage(rows, pageSize);
     }
     
     @Override
     public PurchaseRequestDto approvePurchaseRequest(Long id, String approverEmail, ApprovePurchaseRequestDto approveDto) {
-        PurchaseRequest request = validateAndGetRequest(id);
-        User approver = validateAndGetUser(approverEmail);
+        return handleApprovalCommand(id, approverEmail, ApprovalStatus.APPROVED,
+                approveDto.getComment(), approveDto.getRejectionReason());
+    }
+    
+    @Override
+    public PurchaseRequestDto rejectPurchaseRequest(Long id, String approverEmail, ApprovePurchaseRequestDto rejectDto) {
+        return handleApprovalCommand(id, approverEmail, ApprovalStatus.REJECTED,
+                rejectDto.getComment(), rejectDto.getRejectionReason());
+    }
+    
+    /**
+     * Onay/red komutu: talep, sıradaki adım ve onaylayıcı tek sorguda okunur; adım geçişi
+     * koşullu UPDATE ile yapılır. Eşzamanlı bir işlem adımı önce güncellemişse etkilenen satır
+     * sayısı 0 olur ve komut reddedilir.
+     */
+    private PurchaseRequestDto handleApprovalCommand(Long id, String approverEmail, ApprovalStatus decision,
+                                                     String comment, String rejectionReason) {
+        boolean approve = decision == ApprovalStatus.APPROVED;
+        String action = approve ? "onaylama" : "reddetme";
         
-        if (!canUserApprovePurchaseRequest(id, approverEmail)) {
-            throw new ValidationException("Bu talebi onaylama yetkiniz bulunmamaktadır.");
+        List<PurchaseRequestApproval> pendingSteps = approvalRepository.findPendingStepsWithApproverByRequestId(id);
+        if (pendingSteps.isEmpty()) {
+            validateAndGetRequest(id);
+            throw new ValidationException("Bu talebi " + action + " yetkiniz bulunmamaktadır.");
         }
         
-        Optional<PurchaseRequestApproval> currentApprovalOpt = approvalRepository
-                .findFirstByPurchaseRequestAndStatusOrderByStepOrderAsc(request, ApprovalStatus.PENDING);
-        
-        if (currentApprovalOpt.isEmpty()) {
-            throw new ValidationException("Onaylanacak adım bulunamadı.");
+        PurchaseRequestApproval currentApproval = pendingSteps.get(0);
+        if (pendingSteps.stream().noneMatch(approval -> approval.getApprover().getEmail().equals(approverEmail))) {
+            throw new ValidationException("Bu talebi " + action + " yetkiniz bulunmamaktadır.");
         }
-        
-        PurchaseRequestApproval currentApproval = currentApprovalOpt.get();
-        if (!currentApproval.getApprover().getId().equals(approver.getId())) {
-            throw new ValidationException("Bu adımı onaylama sırası sizde değil.");
+        if (!currentApproval.getApprover().getEmail().equals(approverEmail)) {
+            throw new ValidationException("Bu adımı " + action + " sırası sizde değil.");
+        }
+        if (currentApproval.getPurchaseRequest().getStatus() != RequestStatus.IN_APPROVAL) {
+            throw new ValidationException("Talep onay aşamasında değil.");
         }
         
-        // Onayı güncelle
-        currentApproval.setStatus(ApprovalStatus.APPROVED);
-        currentApproval.setComment(approveDto.getComment());
-        currentApproval.setActionTakenAt(LocalDateTime.now());
-        approvalRepository.save(currentApproval);
-        
-        // Sonraki onay adımını kontrol et
-        Optional<PurchaseRequestApproval> nextApprovalOpt = approvalRepository
-                .findFirstByPurchaseRequestAndStatusOrderByStepOrderAsc(request, ApprovalStatus.PENDING);
+        LocalDateTime now = LocalDateTime.now();
+        int updatedSteps = approvalRepository.completePendingStep(currentApproval.getId(),
+                currentApproval.getApprover().getId(), decision, comment, now);
+        if (updatedSteps == 0) {
+            throw new ValidationException("Onay adımı başka bir işlem tarafından güncellendi, lütfen tekrar deneyin.");
+        }
         
-        if (nextApprovalOpt.isEmpty()) {
-            // Tüm onaylar tamamlandı
-            request.setStatus(RequestStatus.APPROVED);
-            request.setCompletedAt(LocalDateTime.now());
-        } else {
-            request.setStatus(RequestStatus.IN_APPROVAL);
+        if (approve) {
+            // 0 satır: sıradaki onay adımı var, talep IN_APPROVAL olarak kalır
+            int completed = purchaseRequestRepository.approveIfNoPendingSteps(id, now);
+            log.debug("Talep {} adım {} onaylandı, talep tamamlandı: {}", id, currentApproval.getStepOrder(), completed > 0);
+            if (completed == 0 && pendingSteps.size() > 1) {
+                approvalSlaScheduler.stepActivated(pendingSteps.get(1), now);
+            }
+        } else if (purchaseRequestRepository.rejectInApproval(id, rejectionReason, now) == 0) {
+            throw new ValidationException("Talep onay aşamasında değil.");
         }
+        approvalSlaScheduler.stepClosed(currentApproval.getId());
         
-        request = purchaseRequestRepository.save(request);
-        return purchaseRequestMapper.toDto(request);
+        return getPurchaseRequestById(id);
     }
     
     @Override
-    public PurchaseRequestDto rejectPurchaseRequest(Long id, String approverEmail, ApprovePurchaseRequestDto rejectDto) {
-        PurchaseRequest request = validateAndGetRequest(id);
+    public BulkApprovalResultDto bulkApprovePurchaseRequests(String approverEmail, BulkApprovePurchaseRequestDto bulkDto) {
         User approver = validateAndGetUser(approverEmail);
+        Set<Long> requestIds = bulkDto.getRequestIds().stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
         
-        if (!canUserApprovePurchaseRequest(id, approverEmail)) {
-            throw new ValidationException("Bu talebi reddetme yetkiniz bulunmamaktadır.");
-        }
+        // Bekleyen adımlar tek sorguda yüklenir; talep başına adım sırasına göre gruplanır
+        Map<Long, List<PurchaseRequestApproval>> pendingStepsByRequest = approvalRepository
+                .findPendingStepsByRequestIds(requestIds).stream()
+                .collect(Collectors.groupingBy(approval -> approval.getPurchaseRequest().getId()));
         
-        Optional<PurchaseRequestApproval> currentApprovalOpt = approvalRepository
-                .findFirstByPurchaseRequestAndStatusOrderByStepOrderAsc(request, ApprovalStatus.PENDING);
+        Set<Long> idsWithoutPendingSteps = requestIds.stream()
+                .filter(id -> !pendingStepsByRequest.containsKey(id))
+                .collect(Collectors.toSet());
+        Set<Long> existingIds = idsWithoutPendingSteps.isEmpty()
+                ? Set.of()
+                : new HashSet<>(purchaseRequestRepository.findExistingIds(idsWithoutPendingSteps));
         
-        if (currentApprovalOpt.isEmpty()) {
-            throw new ValidationException("Reddedilecek adım bulunamadı.");
+        boolean approve = bulkDto.isApproved();
+        String action = approve ? "onaylama" : "reddetme";
+        Map<Long, BulkApprovalResultDto.ItemResult> resultsById = new HashMap<>();
+        List<PurchaseRequestApproval> currentSteps = new ArrayList<>();
+        for (Long requestId : requestIds) {
+            List<PurchaseRequestApproval> pendingSteps = pendingStepsByRequest.get(requestId);
+            if (pendingSteps == null) {
+                resultsById.put(requestId, new BulkApprovalResultDto.ItemResult(requestId, false, null,
+                        existingIds.contains(requestId)
+                                ? "Onaylanacak adım bulunamadı."
+                                : "Satın alma talebi bulunamadı: " + requestId));
+                continue;
+            }
+            
+            PurchaseRequestApproval currentApproval = pendingSteps.get(0);
+            RequestStatus status = currentApproval.getPurchaseRequest().getStatus();
+            if (status != RequestStatus.IN_APPROVAL) {
+                resultsById.put(requestId, new BulkApprovalResultDto.ItemResult(requestId, false, status,
+                        "Talep onay aşamasında değil."));
+            } else if (!currentApproval.getApprover().getId().equals(approver.getId())) {
+                resultsById.put(requestId, new BulkApprovalResultDto.ItemResult(requestId, false, status,
+                        "Bu adımı " + action + " sırası sizde değil."));
+            } else {
+                currentSteps.add(currentApproval);
+            }
         }
         
-        PurchaseRequestApproval currentApproval = currentApprovalOpt.get();
-        if (!currentApproval.getApprover().getId().equals(approver.getId())) {
-            throw new ValidationException("Bu adımı reddetme sırası sizde değil.");
+        // Tekli onay/red ile aynı koşullu UPDATE'ler, JDBC batch olarak; 0 satır eşzamanlı bir değişiklik demektir
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> conflictedSteps = approvalBatchRepository.completePendingSteps(
+                currentSteps.stream().map(PurchaseRequestApproval::getId).toList(), approver.getId(),
+                approve ? ApprovalStatus.APPROVED : ApprovalStatus.REJECTED, bulkDto.getComment(), now);
+        List<PurchaseRequestApproval> decidedSteps = new ArrayList<>();
+        for (PurchaseRequestApproval step : currentSteps) {
+            Long requestId = step.getPurchaseRequest().getId();
+            if (conflictedSteps.contains(step.getId())) {
+                resultsById.put(requestId, new BulkApprovalResultDto.ItemResult(requestId, false, null,
+                        "Onay adımı başka bir işlem tarafından güncellendi, lütfen tekrar deneyin."));
+            } else {
+                decidedSteps.add(step);
+            }
         }
         
-        // Onayı güncelle
-        currentApproval.setStatus(ApprovalStatus.REJECTED);
-        currentApproval.setComment(rejectDto.getComment());
-        currentApproval.setActionTakenAt(LocalDateTime.now());
-        approvalRepository.save(currentApproval);
-        
-        // Talebi reddet
-        request.setStatus(RequestStatus.REJECTED);
-        request.setRejectionReason(rejectDto.getRejectionReason());
-        request = purchaseRequestRepository.save(request);
+        List<Long> decidedRequestIds = decidedSteps.stream()
+                .map(step -> step.getPurchaseRequest().getId())
+                .toList();
+        Set<Long> unchangedRequests = approve
+                ? approvalBatchRepository.approveIfNoPendingSteps(decidedRequestIds, now)
+                : approvalBatchRepository.rejectInApproval(decidedRequestIds, bulkDto.getRejectionReason(), now);
+        List<Long> reopenedSteps = new ArrayList<>();
+        for (PurchaseRequestApproval step : decidedSteps) {
+            Long requestId = step.getPurchaseRequest().getId();
+            List<PurchaseRequestApproval> pendingSteps = pendingStepsByRequest.get(requestId);
+            RequestStatus status;
+            if (!unchangedRequests.contains(requestId)) {
+                status = approve ? RequestStatus.APPROVED : RequestStatus.REJECTED;
+            } else if (approve && pendingSteps.size() > 1) {
+                // Sıradaki onay adımı var, talep IN_APPROVAL olarak kalır
+                status = RequestStatus.IN_APPROVAL;
+                approvalSlaScheduler.stepActivated(pendingSteps.get(1), now);
+            } else {
+                // Tekli komut burada geri alınır; toplu işlemde yalnızca bu talebin adımı eski hâline döner
+                reopenedSteps.add(step.getId());
+                resultsById.put(requestId, new BulkApprovalResultDto.ItemResult(requestId, false, null,
+                        "Talep onay aşamasında değil."));
+                continue;
+            }
+            approvalSlaScheduler.stepClosed(step.getId());
+            resultsById.put(requestId, new BulkApprovalResultDto.ItemResult(requestId, true, status, null));
+        }
+        approvalBatchRepository.reopenSteps(reopenedSteps,
+                approve ? ApprovalStatus.APPROVED : ApprovalStatus.REJECTED, now);
         
-        return purchaseRequestMapper.toDto(request);
+        List<BulkApprovalResultDto.ItemResult> results = requestIds.stream().map(resultsById::get).toList();
+        int succeeded = (int) results.stream().filter(BulkApprovalResultDto.ItemResult::isSuccess).count();
+        log.info("Toplu {} işlemi: {} talep, {} başarılı", bulkDto.isApproved() ? "onay" : "red",
+                results.size(), succeeded);
+        return new BulkApprovalResultDto(results.size(), succeeded, results.size() - succeeded, results);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<PurchaseRequestDto> getPendingApprovalsForUser(String approverEmail) {
-        User approver = validateAndGetUser(approverEmail);
-        return purchaseRequestMapper.toDtoList(
-                purchaseRequestRepository.findAll().stream()
-                        .filter(request -> request.getApprovals().stream()
-                                .anyMatch(approval -> approval.getStatus() == ApprovalStatus.PENDING &&
-                                        approval.getApprover().getId().equals(approver.getId())))
-                        .toList()
-        );
+        return getPendingApprovalsForUser(approverEmail, Pageable.unpaged()).getContent();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PurchaseRequestDto> getPendingApprovalsForUser(String approverEmail, Pageable pageable) {
+        // Yalnızca sırası bu onaylayıcıda olan adımlar indeksli sorgu ile getirilir
+        Page<PurchaseRequestApproval> steps = approvalRepository
+                .findCurrentPendingStepsByApproverEmail(approverEmail, pageable);
+        if (steps.hasContent()) {
+            fetchItemGraph(purchaseRequestRepository.findByIdIn(steps.getContent().stream()
+                    .map(approval -> approval.getPurchaseRequest().getId())
+                    .toList()));
+        }
+        return steps.map(approval -> purchaseRequestMapper.toDto(approval.getPurchaseRequest()));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public long countPendingApprovalsForUser(String approverEmail) {
+        return approvalRepository.countCurrentPendingStepsByApproverEmail(approverEmail);
     }
     
     @Override
     @Transactional
     public PurchaseRequestDto updatePurchaseRequestItems(Long id, UpdatePurchaseRequestItemsDto itemsDto) {
         PurchaseRequest request = validateAndGetRequest(id);
-
-        // Mevcut ürünleri ve ilişkili teklifleri temizle
-        request.getItems().forEach(item -> {
-            supplierQuoteRepository.deleteAll(item.getSupplierQuotes());
-            item.getSupplierQuotes().clear();
-            item.getPotentialSuppliers().clear();
-        });
-        request.getItems().clear();
         
-        // Yeni ürünleri ekle
-        List<PurchaseRequestItem> newItems = purchaseRequestMapper.toItemEntityList(itemsDto.getItems());
-        for (PurchaseRequestItem item : newItems) {
-            item.setPurchaseRequest(request);
-            request.getItems().add(item);
-        }
+        // Mevcut kalemler, tedarikçiler ve teklifler sabit sayıda sorguyla yüklenip farka göre güncellenir
+        fetchItemGraph(List.of(request));
+        purchaseRequestMapper.updateItems(request, itemsDto.getItems());
+        assignQuoteNumbers(request);
         
         request.setStatus(RequestStatus.IN_PROGRESS);
         request = purchaseRequestRepository.save(request);
@@ -256,6 +426,89 @@ public class PurchaseRequestServiceImpl implements PurchaseRequestService {
         }
     }
     
+    /**
+     * Liste görünümü: talepler "PurchaseRequest.list" grafiğiyle yüklendikten sonra
+     * kalemler, tedarikçiler ve teklifler satır sayısından bağımsız sabit sayıda sorguyla getirilir.
+     */
+    private List<PurchaseRequest> fetchItemGraph(List<PurchaseRequest> requests) {
+        if (requests.isEmpty()) {
+            return requests;
+        }
+        purchaseRequestRepository.fetchItems(requests);
+        fetchItemAssociations(requests);
+        return requests;
+    }
+    
+    private void fetchItemAssociations(List<PurchaseRequest> requests) {
+        List<PurchaseRequestItem> items = requests.stream()
+                .flatMap(request -> request.getItems().stream())
+                .toList();
+        if (items.isEmpty()) {
+            return;
+        }
+        itemRepository.fetchPotentialSuppliers(items);
+        itemRepository.fetchSupplierQuotes(items);
+    }
+    
+    /**
+     * Sayfa boyutu yapılandırılan üst sınırla kısıtlanır; bir fazla satır çekilerek
+     * COUNT sorgusu olmadan sonraki sayfanın varlığı anlaşılır.
+     */
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        if (size < 1) {
+            throw new ValidationException("Sayfa boyutu en az 1 olmalıdır.");
+        }
+        return Math.min(size, maxPageSize);
+    }
+    
+    private CursorPageDto<PurchaseRequestSummaryDto> toCursorPage(List<PurchaseRequestSummaryDto> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        List<PurchaseRequestSummaryDto> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            PurchaseRequestSummaryDto last = content.get(content.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPageDto<>(content, content.size(), hasNext, nextCursor);
+    }
+    
+    private String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private KeysetCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new ValidationException("Geçersiz sayfa imleci: " + cursor);
+            }
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separator), DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Geçersiz sayfa imleci: " + cursor, e);
+        }
+    }
+    
+    private record KeysetCursor(LocalDateTime createdAt, Long id) {
+    }
+    
+    private void assignQuoteNumbers(PurchaseRequest request) {
+        // Potansiyel tedarikçi eklenirken oluşan yeni teklifler kayıttan önce numaralandırılır
+        for (PurchaseRequestItem item : request.getItems()) {
+            for (SupplierQuote quote : item.getSupplierQuotes()) {
+                if (quote.getQuoteNumber() == null) {
+                    quote.setQuoteNumber(documentNumberService.nextQuoteNumber());
+                }
+            }
+        }
+    }
+    
     private PurchaseRequest validateAndGetRequest(Long id) {
         return purchaseRequestRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Satın alma talebi bulunamadı: " + id));
@@ -312,10 +565,8 @@ public class PurchaseRequestServiceImpl implements PurchaseRequestService {
     }
     
     private User findUserByRole(String roleName) {
-        List<User> users = userRepository.findByRoleName(roleName.replace("ROLE_", ""));
-        if (users.isEmpty()) {
-            throw new ValidationException("Bu role sahip kullanıcı bulunamadı: " + roleName);
-        }
-        return users.get(0); // İlk bulunan kullanıcıyı döndür
+        // Onaylayıcılar bellekteki dizinden alınır, onay zinciri için sorgu atılmaz
+        return approverDirectory.findApprover(roleName.replace("ROLE_", ""))
+                .orElseThrow(() -> new ValidationException("Bu role sahip kullanıcı bulunamadı: " + roleName));
     }
 } 
\ No newline at end of file
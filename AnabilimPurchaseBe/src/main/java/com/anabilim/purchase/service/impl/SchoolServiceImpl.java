@@ -9,6 +9,7 @@ import com.anabilim.purchase.service.SchoolService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -105,7 +106,9 @@ public class SchoolServiceImpl implements SchoolService {
     @Override
     @Transactional(readOnly = true)
     public Page<SchoolDto> searchSchools(String search, Pageable pageable) {
-        Page<School> schools = schoolRepository.searchActiveSchools(search, pageable);
+        // Sonuçlar benzerliğe göre sıralı gelir; istekteki sıralama uygulanmaz
+        Page<School> schools = schoolRepository.searchActiveSchools(search,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
         return schools.map(schoolMapper::toDto);
     }
 
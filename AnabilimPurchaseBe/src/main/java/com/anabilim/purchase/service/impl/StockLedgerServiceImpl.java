@@ -0,0 +1,102 @@
+package com.anabilim.purchase.service.impl;
+
+import com.anabilim.purchase.dto.request.CreateStockMovementByWarehouseDto;
+import com.anabilim.purchase.dto.request.CreateStockMovementDto;
+import com.anabilim.purchase.entity.StockMovement;
+import com.anabilim.purchase.entity.WarehouseStock;
+import com.anabilim.purchase.entity.enums.MovementType;
+import com.anabilim.purchase.exception.ResourceNotFoundException;
+import com.anabilim.purchase.exception.ValidationException;
+import com.anabilim.purchase.repository.ProductRepository;
+import com.anabilim.purchase.repository.StockMovementRepository;
+import com.anabilim.purchase.repository.WarehouseRepository;
+import com.anabilim.purchase.repository.WarehouseStockRepository;
+import com.anabilim.purchase.service.StockLedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class StockLedgerServiceImpl implements StockLedgerService {
+    
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final ProductRepository productRepository;
+    
+    @Override
+    public StockMovement recordMovement(Long warehouseStockId, CreateStockMovementDto movementDto) {
+        return appendMovement(warehouseStockId, movementDto.getQuantity(), movementDto.getMovementType(),
+                movementDto.getReferenceType(), movementDto.getReferenceId(), movementDto.getNotes());
+    }
+    
+    @Override
+    public StockMovement recordMovement(CreateStockMovementByWarehouseDto movementDto) {
+        // Stok kaydını bul veya oluştur
+        Long warehouseStockId = warehouseStockRepository
+                .findIdByWarehouseIdAndProductId(movementDto.getWarehouseId(), movementDto.getProductId())
+                .orElseGet(() -> createStock(movementDto.getWarehouseId(), movementDto.getProductId()));
+        
+        return appendMovement(warehouseStockId, movementDto.getQuantity(), movementDto.getMovementType(),
+                movementDto.getReferenceType(), movementDto.getReferenceId(), movementDto.getNotes());
+    }
+    
+    /**
+     * Hareketi doğrudan ekler ve stok miktarını tek bir göreli UPDATE ile değiştirir.
+     * Stok kaydının hareket koleksiyonu yüklenmez, böylece yazma maliyeti geçmişin boyutundan bağımsızdır.
+     * Eşzamanlı hareketler satır kilidiyle sıraya girer; miktar Java'da okunup yazılmadığı için güncelleme kaybolmaz.
+     */
+    private StockMovement appendMovement(Long warehouseStockId, Integer quantity, MovementType movementType,
+                                         String referenceType, Long referenceId, String notes) {
+        int delta = movementType.toDelta(quantity);
+        if (warehouseStockRepository.applyDelta(warehouseStockId, delta, LocalDateTime.now()) == 0) {
+            if (!warehouseStockRepository.existsById(warehouseStockId)) {
+                throw new ResourceNotFoundException("Stok kaydı bulunamadı: " + warehouseStockId);
+            }
+            throw new ValidationException("Yetersiz stok: stok kaydı " + warehouseStockId + " için "
+                    + quantity + " adet çıkış yapılamaz.");
+        }
+        
+        StockMovement movement = new StockMovement();
+        movement.setWarehouseStock(warehouseStockRepository.getReferenceById(warehouseStockId));
+        movement.setQuantity(quantity);
+        movement.setMovementType(movementType);
+        movement.setReferenceType(referenceType);
+        movement.setReferenceId(referenceId);
+        movement.setNotes(notes);
+        movement = stockMovementRepository.save(movement);
+        
+        log.debug("Stok hareketi kaydedildi: stok {}, {} {}", warehouseStockId, movementType, quantity);
+        return movement;
+    }
+    
+    /**
+     * Stok kaydını oluşturur. Aynı depo/ürün için ilk hareketler eşzamanlı gelirse depo satırı kilitlenerek
+     * oluşturma sıraya sokulur; kilidi bekleyen işlem, kilit açıldığında oluşturulmuş kaydı kullanır.
+     */
+    private Long createStock(Long warehouseId, Long productId) {
+        if (warehouseRepository.lockById(warehouseId).isEmpty()) {
+            throw new ResourceNotFoundException("Depo bulunamadı: " + warehouseId);
+        }
+        Optional<Long> createdMeanwhile = warehouseStockRepository.findIdByWarehouseIdAndProductId(warehouseId, productId);
+        if (createdMeanwhile.isPresent()) {
+            return createdMeanwhile.get();
+        }
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Ürün bulunamadı: " + productId);
+        }
+        
+        WarehouseStock stock = new WarehouseStock();
+        stock.setWarehouse(warehouseRepository.getReferenceById(warehouseId));
+        stock.setProduct(productRepository.getReferenceById(productId));
+        stock.setCurrentStock(0);
+        return warehouseStockRepository.save(stock).getId();
+    }
+}
@@ -0,0 +1,320 @@
+package com.anabilim.purchase.service.impl;
+
+import com.anabilim.purchase.dto.response.BulkStockMovementResultDto;
+import com.anabilim.purchase.entity.enums.MovementType;
+import com.anabilim.purchase.exception.ValidationException;
+import com.anabilim.purchase.repository.ProductRepository;
+import com.anabilim.purchase.repository.StockLedgerBatchRepository;
+import com.anabilim.purchase.repository.WarehouseRepository;
+import com.anabilim.purchase.repository.WarehouseStockRepository;
+import com.anabilim.purchase.service.StockMovementImportService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class StockMovementImportServiceImpl implements StockMovementImportService {
+
+    private static final int QUERY_CHUNK_SIZE = 1000;
+    // Referans stock_movements.notes (VARCHAR(255)) kolonuna yazılır
+    private static final int MAX_REFERENCE_LENGTH = 255;
+    private static final String REFERENCE_TYPE = "BULK_IMPORT";
+
+    private final WarehouseRepository warehouseRepository;
+    private final ProductRepository productRepository;
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final StockLedgerBatchRepository stockLedgerBatchRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${stock.import.max-lines:200000}")
+    private int maxLines;
+
+    @Override
+    public BulkStockMovementResultDto importMovements(InputStream input, Format format) throws IOException {
+        List<BulkStockMovementResultDto.LineError> errors = new ArrayList<>();
+        List<ImportLine> lines = format == Format.CSV ? readCsv(input, errors) : readJson(input, errors);
+        int total = lines.size() + errors.size();
+
+        // Kodlar tek seferde ID'lere çözülür
+        Map<String, Long> warehouseIds = resolveCodes(lines, ImportLine::warehouseCode, warehouseRepository::findIdsByCodes);
+        Map<String, Long> productIds = resolveCodes(lines, ImportLine::productCode, productRepository::findIdsByCodes);
+
+        List<ResolvedLine> resolved = new ArrayList<>();
+        for (ImportLine line : lines) {
+            Long warehouseId = warehouseIds.get(line.warehouseCode());
+            Long productId = productIds.get(line.productCode());
+            if (warehouseId == null) {
+                errors.add(new BulkStockMovementResultDto.LineError(line.lineNumber(), "Depo bulunamadı: " + line.warehouseCode()));
+            } else if (productId == null) {
+                errors.add(new BulkStockMovementResultDto.LineError(line.lineNumber(), "Ürün bulunamadı: " + line.productCode()));
+            } else {
+                resolved.add(new ResolvedLine(line, new StockKey(warehouseId, productId)));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<StockKey, Long> stockIds = upsertStocks(resolved, now);
+
+        // Net değişimler stok kaydı başına bir kez uygulanır. Satırlar (depo, ürün) sırasıyla kilitlenir;
+        // stok ayırma ve transfer çıkışı da aynı sırayı kullanır, böylece örtüşen yazmalar kilitlenmeye girmez
+        Map<StockKey, Integer> netDeltas = new TreeMap<>(
+                Comparator.comparing(StockKey::warehouseId).thenComparing(StockKey::productId));
+        for (ResolvedLine line : resolved) {
+            netDeltas.merge(line.stockKey(), line.line().movementType().toDelta(line.line().quantity()), Integer::sum);
+        }
+        List<Map.Entry<Long, Integer>> deltasByStockId = new ArrayList<>(netDeltas.size());
+        netDeltas.forEach((key, delta) -> deltasByStockId.add(Map.entry(stockIds.get(key), delta)));
+        Set<Long> rejectedStocks = stockLedgerBatchRepository.applyDeltas(deltasByStockId, now);
+
+        List<StockLedgerBatchRepository.MovementRow> movements = new ArrayList<>(resolved.size());
+        for (ResolvedLine line : resolved) {
+            Long stockId = stockIds.get(line.stockKey());
+            if (rejectedStocks.contains(stockId)) {
+                errors.add(new BulkStockMovementResultDto.LineError(line.line().lineNumber(),
+                        "Yetersiz stok: " + line.line().warehouseCode() + " / " + line.line().productCode()
+                                + " için net hareket stoğu eksiye düşürüyor."));
+                continue;
+            }
+            movements.add(new StockLedgerBatchRepository.MovementRow(stockId, line.line().quantity(),
+                    line.line().movementType(), REFERENCE_TYPE, null, line.line().reference()));
+        }
+        stockLedgerBatchRepository.insertMovements(movements, now);
+
+        errors.sort(Comparator.comparingInt(BulkStockMovementResultDto.LineError::getLine));
+        log.info("Toplu stok hareketi içe aktarımı: {} satır, {} hareket, {} stok kaydı, {} hata",
+                total, movements.size(), netDeltas.size(), errors.size());
+        return new BulkStockMovementResultDto(total, movements.size(), errors.size(), errors);
+    }
+
+    /**
+     * Eksik stok kayıtlarını oluşturur ve tüm depo/ürün çiftlerinin stok ID'lerini döndürür.
+     * İlgili depolar ID sırasıyla kilitlenir; tekil hareketlerdeki stok oluşturma ile aynı kilit kullanılır.
+     */
+    private Map<StockKey, Long> upsertStocks(List<ResolvedLine> lines, LocalDateTime now) {
+        Set<StockKey> keys = new LinkedHashSet<>();
+        lines.forEach(line -> keys.add(line.stockKey()));
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> warehouseIds = keys.stream().map(StockKey::warehouseId).distinct().sorted().toList();
+        for (List<Long> chunk : chunks(warehouseIds)) {
+            warehouseRepository.lockByIds(chunk);
+        }
+
+        Map<StockKey, Long> stockIds = loadStockIds(keys, warehouseIds);
+        List<long[]> missing = keys.stream()
+                .filter(key -> !stockIds.containsKey(key))
+                .map(key -> new long[]{key.warehouseId(), key.productId()})
+                .toList();
+        if (!missing.isEmpty()) {
+            stockLedgerBatchRepository.insertStocks(missing, now);
+            stockIds.putAll(loadStockIds(keys, warehouseIds));
+        }
+        return stockIds;
+    }
+
+    private Map<StockKey, Long> loadStockIds(Set<StockKey> keys, List<Long> warehouseIds) {
+        List<Long> productIds = keys.stream().map(StockKey::productId).distinct().toList();
+        Map<StockKey, Long> stockIds = new HashMap<>();
+        for (List<Long> warehouseChunk : chunks(warehouseIds)) {
+            for (List<Long> productChunk : chunks(productIds)) {
+                for (Object[] row : warehouseStockRepository.findIdsByWarehouseIdsAndProductIds(warehouseChunk, productChunk)) {
+                    StockKey key = new StockKey((Long) row[0], (Long) row[1]);
+                    if (keys.contains(key)) {
+                        stockIds.put(key, (Long) row[2]);
+                    }
+                }
+            }
+        }
+        return stockIds;
+    }
+
+    private Map<String, Long> resolveCodes(List<ImportLine> lines, Function<ImportLine, String> code,
+                                           Function<Collection<String>, List<Object[]>> finder) {
+        List<String> codes = lines.stream().map(code).distinct().toList();
+        Map<String, Long> ids = new HashMap<>();
+        for (List<String> chunk : chunks(codes)) {
+            for (Object[] row : finder.apply(chunk)) {
+                ids.put((String) row[0], (Long) row[1]);
+            }
+        }
+        return ids;
+    }
+
+    private List<ImportLine> readCsv(InputStream input, List<BulkStockMovementResultDto.LineError> errors) throws IOException {
+        List<ImportLine> lines = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String raw;
+        int lineNumber = 0;
+        while ((raw = reader.readLine()) != null) {
+            lineNumber++;
+            if (raw.isBlank()) {
+                continue;
+            }
+            List<String> fields = splitCsvLine(raw);
+            if (lineNumber == 1 && fields.get(0).trim().equalsIgnoreCase("warehouseCode")) {
+                continue;
+            }
+            checkLineLimit(lines.size() + errors.size());
+            if (fields.size() < 4 || fields.size() > 5) {
+                errors.add(new BulkStockMovementResultDto.LineError(lineNumber,
+                        "Beklenen alanlar: warehouseCode, productCode, quantity, movementType, reference"));
+                continue;
+            }
+            parseLine(lineNumber, fields.get(0), fields.get(1), fields.get(2), fields.get(3),
+                    fields.size() > 4 ? fields.get(4) : null, lines, errors);
+        }
+        return lines;
+    }
+
+    private List<ImportLine> readJson(InputStream input, List<BulkStockMovementResultDto.LineError> errors) throws IOException {
+        List<ImportLine> lines = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValidationException("JSON içeriği bir dizi olmalıdır.");
+            }
+            int lineNumber = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                lineNumber++;
+                checkLineLimit(lines.size() + errors.size());
+                JsonNode node = objectMapper.readTree(parser);
+                if (node == null || !node.isObject()) {
+                    errors.add(new BulkStockMovementResultDto.LineError(lineNumber, "Satır bir nesne olmalıdır."));
+                    continue;
+                }
+                parseLine(lineNumber, text(node, "warehouseCode"), text(node, "productCode"), text(node, "quantity"),
+                        text(node, "movementType"), text(node, "reference"), lines, errors);
+            }
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Geçersiz JSON içeriği: " + e.getOriginalMessage(), e);
+        }
+        return lines;
+    }
+
+    private void parseLine(int lineNumber, String warehouseCode, String productCode, String quantity, String movementType,
+                           String reference, List<ImportLine> lines, List<BulkStockMovementResultDto.LineError> errors) {
+        String message = null;
+        Integer parsedQuantity = null;
+        MovementType parsedType = null;
+        if (isBlank(warehouseCode) || isBlank(productCode)) {
+            message = "Depo ve ürün kodu boş olamaz";
+        } else {
+            try {
+                parsedQuantity = Integer.valueOf(quantity.trim());
+            } catch (NumberFormatException | NullPointerException e) {
+                message = "Geçersiz miktar: " + quantity;
+            }
+            if (message == null && parsedQuantity < 1) {
+                message = "Miktar en az 1 olmalıdır";
+            }
+            if (message == null) {
+                try {
+                    parsedType = MovementType.valueOf(movementType.trim().toUpperCase());
+                } catch (IllegalArgumentException | NullPointerException e) {
+                    message = "Geçersiz hareket tipi: " + movementType;
+                }
+            }
+            if (message == null && reference != null && reference.length() > MAX_REFERENCE_LENGTH) {
+                message = "Referans en fazla " + MAX_REFERENCE_LENGTH + " karakter olabilir";
+            }
+        }
+
+        if (message != null) {
+            errors.add(new BulkStockMovementResultDto.LineError(lineNumber, message));
+        } else {
+            lines.add(new ImportLine(lineNumber, warehouseCode.trim(), productCode.trim(), parsedQuantity, parsedType,
+                    isBlank(reference) ? null : reference.trim()));
+        }
+    }
+
+    private void checkLineLimit(int count) {
+        if (count >= maxLines) {
+            throw new ValidationException("Tek seferde en fazla " + maxLines + " satır içe aktarılabilir.");
+        }
+    }
+
+    // Tırnak içindeki virgülleri ve "" kaçışını destekleyen basit CSV ayrıştırma
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static <T> List<List<T>> chunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += QUERY_CHUNK_SIZE) {
+            chunks.add(values.subList(from, Math.min(from + QUERY_CHUNK_SIZE, values.size())));
+        }
+        return chunks;
+    }
+
+    private record ImportLine(int lineNumber, String warehouseCode, String productCode, int quantity,
+                              MovementType movementType, String reference) {
+    }
+
+    private record StockKey(Long warehouseId, Long productId) {
+    }
+
+    private record ResolvedLine(ImportLine line, StockKey stockKey) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.anabilim.purchase.service.impl;
+
+import com.anabilim.purchase.exception.ValidationException;
+import com.anabilim.purchase.repository.StockLedgerBatchRepository;
+import com.anabilim.purchase.repository.WarehouseStockRepository;
+import com.anabilim.purchase.service.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class StockReservationServiceImpl implements StockReservationService {
+    
+    private final StockLedgerBatchRepository stockLedgerBatchRepository;
+    private final WarehouseStockRepository warehouseStockRepository;
+    
+    @Override
+    public void reserve(Long warehouseId, Map<Long, Integer> quantitiesByProduct) {
+        Set<Long> rejected = apply(warehouseId, quantitiesByProduct, 1);
+        if (!rejected.isEmpty()) {
+            // Transaction geri alınır; önceki ürünler için yapılan ayırmalar da uygulanmaz
+            throw new ValidationException("Yetersiz kullanılabilir stok: depo " + warehouseId
+                    + " için ürün(ler) " + new TreeSet<>(rejected));
+        }
+        log.debug("Stok ayrıldı: depo {}, {} ürün", warehouseId, quantitiesByProduct.size());
+    }
+    
+    @Override
+    public void release(Long warehouseId, Map<Long, Integer> quantitiesByProduct) {
+        Set<Long> rejected = apply(warehouseId, quantitiesByProduct, -1);
+        if (!rejected.isEmpty()) {
+            log.warn("Ayrılmış miktar bulunamadı, serbest bırakma atlandı: depo {}, ürün(ler) {}", warehouseId, rejected);
+        }
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getAvailableQuantities(Long warehouseId, Collection<Long> productIds) {
+        Map<Long, Integer> available = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return available;
+        }
+        for (Object[] row : warehouseStockRepository.findAvailableQuantities(warehouseId, productIds)) {
+            available.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return available;
+    }
+    
+    private Set<Long> apply(Long warehouseId, Map<Long, Integer> quantitiesByProduct, int sign) {
+        // Kilitler her zaman ürün ID sırasıyla alınır
+        List<Map.Entry<Long, Integer>> deltas = new ArrayList<>();
+        new TreeMap<>(quantitiesByProduct).forEach((productId, quantity) -> {
+            if (quantity != null && quantity > 0) {
+                deltas.add(Map.entry(productId, sign * quantity));
+            }
+        });
+        if (deltas.isEmpty()) {
+            return Set.of();
+        }
+        return stockLedgerBatchRepository.applyReservationDeltas(warehouseId, deltas, LocalDateTime.now());
+    }
+}
@@ -10,6 +10,7 @@ import com.anabilim.purchase.exception.ResourceNotFoundException;
 import com.anabilim.purchase.repository.PurchaseRequestItemRepository;
 import com.anabilim.purchase.repository.SupplierQuoteRepository;
 import com.anabilim.purchase.repository.SupplierRepository;
+import com.anabilim.purchase.service.DocumentNumberService;
 import com.anabilim.purchase.service.SupplierQuoteService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -17,7 +18,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -28,6 +28,7 @@ public class SupplierQuoteServiceImpl implements SupplierQuoteService {
     private final SupplierQuoteRepository supplierQuoteRepository;
     private final PurchaseRequestItemRepository requestItemRepository;
     private final SupplierRepository supplierRepository;
+    private final DocumentNumberService documentNumberService;
     
     @Override
     public SupplierQuoteDto getQuoteByUid(String quoteUid) {
@@ -39,11 +40,9 @@ public class SupplierQuoteServiceImpl implements SupplierQuoteService {
     public SupplierQuoteDto updateQuote(String quoteUid, UpdateSupplierQuoteDto updateDto) {
         SupplierQuote quote = getQuoteEntityByUid(quoteUid);
         
-        // Ensure quote_number is set
+        // Numarası olmayan eski teklifler yanıtlanırken numaralandırılır
         if (quote.getQuoteNumber() == null) {
-            String datePart = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-            int randomNum = 1000 + (int)(Math.random() * 9000);
-            quote.setQuoteNumber(String.format("QT-%s-%04d", datePart, randomNum));
+            quote.setQuoteNumber(documentNumberService.nextQuoteNumber());
         }
         
         quote.setUnitPrice(updateDto.getUnitPrice());
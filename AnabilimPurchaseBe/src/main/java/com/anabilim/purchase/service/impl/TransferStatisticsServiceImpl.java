@@ -0,0 +1,127 @@
+package com.anabilim.purchase.service.impl;
+
+import com.anabilim.purchase.entity.AssetTransfer;
+import com.anabilim.purchase.entity.AssetTransferItem;
+import com.anabilim.purchase.entity.enums.TransferStatus;
+import com.anabilim.purchase.repository.TransferDailyStatRepository;
+import com.anabilim.purchase.repository.TransferProductDailyStatRepository;
+import com.anabilim.purchase.repository.TransferStatBatchRepository;
+import com.anabilim.purchase.service.TransferStatisticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TransferStatisticsServiceImpl implements TransferStatisticsService {
+    
+    // Okul sıralamasında yalnızca depodan çıkmış transferler sayılır
+    private static final Set<TransferStatus> SHIPPED_STATUSES = EnumSet.of(TransferStatus.IN_TRANSIT,
+            TransferStatus.DELIVERED, TransferStatus.COMPLETED, TransferStatus.PARTIALLY_COMPLETED);
+    
+    private final TransferDailyStatRepository transferDailyStatRepository;
+    private final TransferProductDailyStatRepository transferProductDailyStatRepository;
+    private final TransferStatBatchRepository transferStatBatchRepository;
+    
+    @Override
+    public void record(AssetTransfer transfer, int sign) {
+        Map<TransferStatus, Long> counts = new EnumMap<>(TransferStatus.class);
+        Map<TransferStatus, Map<Long, long[]>> totals = new EnumMap<>(TransferStatus.class);
+        add(counts, totals, contributionOf(transfer), sign);
+        write(transfer, counts, totals);
+    }
+    
+    @Override
+    public Contribution contributionOf(AssetTransfer transfer) {
+        Map<Long, long[]> totals = new TreeMap<>();
+        for (AssetTransferItem item : transfer.getTransferItems()) {
+            long[] total = totals.computeIfAbsent(item.getProduct().getId(), id -> new long[3]);
+            total[0]++;
+            total[1] += item.getRequestedQuantity() != null ? item.getRequestedQuantity() : 0;
+            total[2] += item.getTransferredQuantity() != null ? item.getTransferredQuantity() : 0;
+        }
+        return new Contribution(transfer.getStatus(), totals);
+    }
+    
+    @Override
+    public void recordChange(AssetTransfer transfer, Contribution before) {
+        Map<TransferStatus, Long> counts = new EnumMap<>(TransferStatus.class);
+        Map<TransferStatus, Map<Long, long[]>> totals = new EnumMap<>(TransferStatus.class);
+        add(counts, totals, before, -1);
+        add(counts, totals, contributionOf(transfer), 1);
+        write(transfer, counts, totals);
+    }
+    
+    private static void add(Map<TransferStatus, Long> counts, Map<TransferStatus, Map<Long, long[]>> totals,
+                            Contribution contribution, int sign) {
+        counts.merge(contribution.status(), (long) sign, Long::sum);
+        Map<Long, long[]> statusTotals = totals.computeIfAbsent(contribution.status(), status -> new TreeMap<>());
+        contribution.totalsByProduct().forEach((productId, total) -> {
+            long[] sum = statusTotals.computeIfAbsent(productId, id -> new long[3]);
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += sign * total[i];
+            }
+        });
+    }
+    
+    /**
+     * Net farkları upsert ile yazar; sıfır farklar atlanır. Satırlar her yolda aynı sırayla (durum, ardından ürün ID)
+     * kilitlenir: EnumMap durum sırasını, TreeMap ürün sırasını verir.
+     */
+    private void write(AssetTransfer transfer, Map<TransferStatus, Long> counts,
+                       Map<TransferStatus, Map<Long, long[]>> totals) {
+        Long schoolId = transfer.getTargetSchool().getId();
+        LocalDate statDate = transfer.getCreatedAt() != null ? transfer.getCreatedAt().toLocalDate() : LocalDate.now();
+        
+        List<TransferStatBatchRepository.DailyDelta> dailyDeltas = new ArrayList<>();
+        counts.forEach((status, count) -> {
+            if (count != 0) {
+                dailyDeltas.add(new TransferStatBatchRepository.DailyDelta(status, count));
+            }
+        });
+        List<TransferStatBatchRepository.ProductDelta> productDeltas = new ArrayList<>();
+        totals.forEach((status, statusTotals) -> statusTotals.forEach((productId, total) -> {
+            if (total[0] != 0 || total[1] != 0 || total[2] != 0) {
+                productDeltas.add(new TransferStatBatchRepository.ProductDelta(status, productId,
+                        total[0], total[1], total[2]));
+            }
+        }));
+        
+        if (!dailyDeltas.isEmpty()) {
+            transferStatBatchRepository.addTransferCounts(statDate, schoolId, dailyDeltas);
+        }
+        if (!productDeltas.isEmpty()) {
+            transferStatBatchRepository.addProductTotals(statDate, schoolId, productDeltas);
+        }
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Object[]> getTransferCountsByStatus(LocalDate from, LocalDate to) {
+        return transferDailyStatRepository.sumTransfersByStatus(from, to);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Object[]> getTopSchoolsByTransferCount(LocalDate from, LocalDate to) {
+        return transferDailyStatRepository.sumTransfersBySchool(SHIPPED_STATUSES, from, to);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Object[]> getMostTransferredProducts(LocalDate from, LocalDate to) {
+        return transferProductDailyStatRepository.sumItemsByProduct(from, to);
+    }
+}
@@ -0,0 +1,92 @@
+package com.anabilim.purchase.service.impl;
+
+import com.anabilim.purchase.entity.AssetTransfer;
+import com.anabilim.purchase.entity.AssetTransferItem;
+import com.anabilim.purchase.entity.enums.MovementType;
+import com.anabilim.purchase.exception.ValidationException;
+import com.anabilim.purchase.repository.StockLedgerBatchRepository;
+import com.anabilim.purchase.service.TransferStockPostingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TransferStockPostingServiceImpl implements TransferStockPostingService {
+    
+    static final String REFERENCE_TYPE = "ASSET_TRANSFER";
+    
+    private final StockLedgerBatchRepository stockLedgerBatchRepository;
+    
+    @Override
+    public int postStockOut(AssetTransfer transfer, boolean consumeReservation) {
+        if (transfer.getStockPostedAt() != null) {
+            log.debug("Transfer {} stok çıkışı zaten işlenmiş", transfer.getTransferCode());
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Long warehouseId = transfer.getSourceWarehouse().getId();
+        
+        // Miktarı girilmemiş kalemler istenen miktarın tamamıyla çıkar
+        List<AssetTransferItem> items = new ArrayList<>(transfer.getTransferItems());
+        items.sort(Comparator.comparing(AssetTransferItem::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        // ürün id → {çıkan miktar, düşülecek ayrılmış miktar}; kilitler ürün ID sırasıyla alınır
+        Map<Long, int[]> quantitiesByProduct = new TreeMap<>();
+        for (AssetTransferItem item : items) {
+            if (item.getTransferredQuantity() == null) {
+                item.setTransferredQuantity(item.getRequestedQuantity());
+            }
+            int[] quantities = quantitiesByProduct.computeIfAbsent(item.getProduct().getId(), id -> new int[2]);
+            quantities[0] += item.getTransferredQuantity();
+            quantities[1] += consumeReservation ? item.getRequestedQuantity() : 0;
+        }
+        quantitiesByProduct.values().removeIf(quantities -> quantities[0] == 0 && quantities[1] == 0);
+        
+        int posted = 0;
+        if (!quantitiesByProduct.isEmpty()) {
+            Map<Long, Long> stockIds = stockLedgerBatchRepository.lockStockIds(warehouseId, quantitiesByProduct.keySet());
+            if (stockIds.size() < quantitiesByProduct.size()) {
+                TreeSet<Long> missing = new TreeSet<>(quantitiesByProduct.keySet());
+                missing.removeAll(stockIds.keySet());
+                throw new ValidationException("Kaynak depoda stok kaydı bulunamadı: depo " + warehouseId
+                        + " için ürün(ler) " + missing);
+            }
+            
+            List<StockLedgerBatchRepository.OutflowRow> outflows = new ArrayList<>();
+            quantitiesByProduct.forEach((productId, quantities) ->
+                    outflows.add(new StockLedgerBatchRepository.OutflowRow(productId, quantities[0], quantities[1])));
+            int updated = stockLedgerBatchRepository.applyOutflows(warehouseId, outflows, now);
+            if (updated < outflows.size()) {
+                // Transaction geri alınır; diğer ürünler için yapılan düşümler de uygulanmaz
+                throw new ValidationException("Yetersiz stok: transfer " + transfer.getTransferCode()
+                        + " kaynak depodaki stoktan fazlasını çıkarıyor");
+            }
+            
+            List<StockLedgerBatchRepository.MovementRow> movements = new ArrayList<>();
+            for (AssetTransferItem item : items) {
+                if (item.getTransferredQuantity() > 0) {
+                    movements.add(new StockLedgerBatchRepository.MovementRow(
+                            stockIds.get(item.getProduct().getId()), item.getTransferredQuantity(), MovementType.OUT,
+                            REFERENCE_TYPE, transfer.getId(), transfer.getTransferCode()));
+                }
+            }
+            stockLedgerBatchRepository.insertMovements(movements, now);
+            posted = movements.size();
+        }
+        
+        transfer.setStockPostedAt(now);
+        log.info("Transfer {} stok çıkışı işlendi: {} ürün", transfer.getTransferCode(), quantitiesByProduct.size());
+        return posted;
+    }
+}
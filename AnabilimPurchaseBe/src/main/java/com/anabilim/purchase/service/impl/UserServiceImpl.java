@@ -7,6 +7,7 @@ import com.anabilim.purchase.entity.User;
 import com.anabilim.purchase.exception.ResourceNotFoundException;
 import com.anabilim.purchase.repository.RoleRepository;
 import com.anabilim.purchase.repository.UserRepository;
+import com.anabilim.purchase.service.ApproverDirectory;
 import com.anabilim.purchase.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +27,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final ApproverDirectory approverDirectory;
 
     @Override
     public List<UserDto> getAllUsers() {
@@ -99,6 +101,7 @@ public class UserServiceImpl implements UserService {
         }
 
         User savedUser = userRepository.save(user);
+        approverDirectory.invalidate();
         return convertToDto(savedUser);
     }
 
@@ -144,6 +147,7 @@ public class UserServiceImpl implements UserService {
         }
 
         User updatedUser = userRepository.save(existingUser);
+        approverDirectory.invalidate();
         return convertToDto(updatedUser);
     }
 
@@ -153,6 +157,7 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("Kullanıcı bulunamadı: " + id));
         user.setIsActive(false);
         userRepository.save(user);
+        approverDirectory.invalidate();
     }
 
     @Override
@@ -164,6 +169,7 @@ public class UserServiceImpl implements UserService {
 
         user.getRoles().add(role);
         User updatedUser = userRepository.save(user);
+        approverDirectory.invalidate();
         return convertToDto(updatedUser);
     }
 
@@ -176,6 +182,7 @@ public class UserServiceImpl implements UserService {
 
         user.getRoles().remove(role);
         User updatedUser = userRepository.save(user);
+        approverDirectory.invalidate();
         return convertToDto(updatedUser);
     }
 
@@ -0,0 +1,8 @@
+-- Onay kutusu sorgusu için indeksler
+-- Onaylayıcının PENDING adımlarını doğrudan bulur
+CREATE INDEX IF NOT EXISTS idx_pr_approvals_inbox
+    ON purchase_request_approvals(approver_id, status, purchase_request_id, step_order);
+
+-- Talep bazında en küçük PENDING step_order alt sorgusu için
+CREATE INDEX IF NOT EXISTS idx_pr_approvals_request_status_step
+    ON purchase_request_approvals(purchase_request_id, status, step_order);
@@ -0,0 +1,9 @@
+-- Satın alma talebi listeleri için keyset (created_at, id) sayfalama indeksleri
+CREATE INDEX IF NOT EXISTS idx_purchase_requests_created_id
+    ON purchase_requests(created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_purchase_requests_status_created_id
+    ON purchase_requests(status, created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_purchase_requests_requester_created_id
+    ON purchase_requests(requester_id, created_at, id);
@@ -0,0 +1,4 @@
+-- Onay SLA zamanlayıcısının açılışta tek sorguyla yüklenmesi için:
+-- bekleyen adımlar talep ve adım sırasıyla taranır
+CREATE INDEX IF NOT EXISTS idx_pr_approvals_status_request_step
+    ON purchase_request_approvals(status, purchase_request_id, step_order);
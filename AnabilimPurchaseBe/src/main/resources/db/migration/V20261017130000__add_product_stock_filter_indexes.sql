@@ -0,0 +1,22 @@
+-- Ürün stok özeti filtreleri (ürün tipi, kategori, düşük stok) ve son hareket tarihi için indeksler
+CREATE INDEX IF NOT EXISTS idx_products_type_active
+    ON products(product_type, is_active);
+
+CREATE INDEX IF NOT EXISTS idx_products_category
+    ON products(category_id);
+
+-- Ürün bazında toplam stok, depo sayısı ve düşük stok kontrolü indeksten okunur
+CREATE INDEX IF NOT EXISTS idx_warehouse_stocks_product_levels
+    ON warehouse_stocks(product_id, current_stock, min_stock);
+
+CREATE INDEX IF NOT EXISTS idx_stock_movements_stock_created
+    ON stock_movements(warehouse_stock_id, created_at);
+
+-- Ad/kod içinde arama (LIKE '%...%') için trigram indeksleri
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm
+    ON products USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_products_code_trgm
+    ON products USING gin (lower(product_code) gin_trgm_ops);
@@ -0,0 +1,9 @@
+-- Stok snapshot'ları: geçmiş tarihli stok, en yakın snapshot'tan sonraki hareketler uygulanarak hesaplanır
+CREATE TABLE IF NOT EXISTS stock_snapshots (
+    id BIGSERIAL PRIMARY KEY,
+    warehouse_stock_id BIGINT NOT NULL REFERENCES warehouse_stocks(id),
+    snapshot_at TIMESTAMP NOT NULL,
+    quantity INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_stock_snapshots_stock_at UNIQUE (warehouse_stock_id, snapshot_at)
+);
@@ -0,0 +1,13 @@
+-- Son hareket tarihi depo stoğunda tutulur; stok ekranları hareket tablosunda MAX() çalıştırmaz
+ALTER TABLE warehouse_stocks ADD COLUMN IF NOT EXISTS last_movement_at TIMESTAMP;
+
+-- Mevcut kayıtlar için tek seferlik doldurma
+UPDATE warehouse_stocks ws
+SET last_movement_at = m.last_created_at
+FROM (
+    SELECT warehouse_stock_id, MAX(created_at) AS last_created_at
+    FROM stock_movements
+    GROUP BY warehouse_stock_id
+) m
+WHERE m.warehouse_stock_id = ws.id
+  AND ws.last_movement_at IS NULL;
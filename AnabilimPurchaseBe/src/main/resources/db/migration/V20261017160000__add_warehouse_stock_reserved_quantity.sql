@@ -0,0 +1,18 @@
+-- Bekleyen transferler için ayrılan stok; kullanılabilir stok = current_stock - reserved_quantity
+ALTER TABLE warehouse_stocks ADD COLUMN IF NOT EXISTS reserved_quantity INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE warehouse_stocks DROP CONSTRAINT IF EXISTS chk_warehouse_stocks_reserved;
+ALTER TABLE warehouse_stocks ADD CONSTRAINT chk_warehouse_stocks_reserved CHECK (reserved_quantity >= 0);
+
+-- Mevcut bekleyen transferlerin ayırmaları tek seferlik hesaplanır
+UPDATE warehouse_stocks ws
+SET reserved_quantity = r.quantity
+FROM (
+    SELECT t.source_warehouse_id AS warehouse_id, i.product_id, SUM(i.requested_quantity) AS quantity
+    FROM asset_transfers t
+    JOIN asset_transfer_items i ON i.asset_transfer_id = t.id
+    WHERE t.status IN ('PENDING', 'APPROVED', 'PREPARING')
+    GROUP BY t.source_warehouse_id, i.product_id
+) r
+WHERE ws.warehouse_id = r.warehouse_id
+  AND ws.product_id = r.product_id;
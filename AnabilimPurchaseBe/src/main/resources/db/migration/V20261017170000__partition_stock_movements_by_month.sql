@@ -0,0 +1,69 @@
+-- stock_movements created_at'e göre aylık bölümlere (partition) ayrılır.
+-- Tarih aralığı içeren sorgular yalnızca ilgili ayların bölümlerini tarar; eski bölümler
+-- StockMovementArchiver tarafından ayrılıp stock_movements_archive tablosuna taşınır.
+-- Not: bölümlü tablolarda birincil anahtar bölümleme kolonunu içermelidir (id, created_at).
+
+ALTER TABLE stock_movements RENAME TO stock_movements_legacy;
+ALTER INDEX IF EXISTS idx_stock_movements_stock_created RENAME TO idx_stock_movements_legacy_stock_created;
+
+CREATE TABLE stock_movements (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    warehouse_stock_id BIGINT NOT NULL REFERENCES warehouse_stocks(id),
+    quantity INTEGER NOT NULL,
+    movement_type VARCHAR(255) NOT NULL,
+    reference_type VARCHAR(255),
+    reference_id BIGINT,
+    notes VARCHAR(255),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX IF NOT EXISTS idx_stock_movements_stock_created
+    ON stock_movements(warehouse_stock_id, created_at);
+
+-- Verilen ayın bölümünü oluşturur (stock_movements_pYYYYMM); uygulama da gelecek aylar için bunu çağırır
+CREATE OR REPLACE FUNCTION create_stock_movement_partition(month_start DATE) RETURNS VOID AS $$
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF stock_movements FOR VALUES FROM (%L) TO (%L)',
+                   'stock_movements_p' || to_char(month_start, 'YYYYMM'),
+                   date_trunc('month', month_start)::date,
+                   (date_trunc('month', month_start) + INTERVAL '1 month')::date);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Mevcut en eski hareketin ayından itibaren üç ay ilerisine kadar bölümler
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM stock_movements_legacy), now()))::date;
+BEGIN
+    WHILE month_start <= (date_trunc('month', now()) + INTERVAL '3 months')::date LOOP
+        PERFORM create_stock_movement_partition(month_start);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Bölümü henüz oluşturulmamış bir aya düşen satırlar için yedek bölüm
+CREATE TABLE IF NOT EXISTS stock_movements_default PARTITION OF stock_movements DEFAULT;
+
+INSERT INTO stock_movements (id, warehouse_stock_id, quantity, movement_type, reference_type, reference_id,
+                             notes, created_at, updated_at)
+SELECT id, warehouse_stock_id, quantity, movement_type, reference_type, reference_id, notes, created_at, updated_at
+FROM stock_movements_legacy;
+
+SELECT setval(pg_get_serial_sequence('stock_movements', 'id'),
+              COALESCE((SELECT MAX(id) FROM stock_movements), 0) + 1, false);
+
+DROP TABLE stock_movements_legacy;
+
+-- Soğuk arşiv: stok kaydı ve ay başına tek satır; hareketler JSONB dizisi olarak tutulur
+-- ve büyük değerler TOAST ile sıkıştırılarak saklanır
+CREATE TABLE IF NOT EXISTS stock_movements_archive (
+    warehouse_stock_id BIGINT NOT NULL,
+    period_start DATE NOT NULL,
+    movement_count INTEGER NOT NULL,
+    net_quantity BIGINT NOT NULL,
+    movements JSONB NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (warehouse_stock_id, period_start)
+);
@@ -0,0 +1,12 @@
+-- Belge numarası sequence'ları; uygulama her nextval ile 50 numaralık bir blok ayırır (hi/lo)
+-- INCREMENT BY değeri DocumentNumberServiceImpl.ALLOCATION_SIZE ile aynı olmalı
+CREATE SEQUENCE IF NOT EXISTS asset_transfer_code_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS purchase_order_code_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS supplier_quote_number_seq START WITH 1 INCREMENT BY 50;
+
+-- Eski rastgele transfer kodları (TR-YYYY-NNNNNN) yeni formatla aynı; sequence en büyük numaranın üzerinden başlar.
+-- Eski sipariş (PO-<epoch ms>) ve teklif (QT-YYYYMMDD-NNNN) numaraları yeni formatla çakışmaz.
+SELECT setval('asset_transfer_code_seq',
+              COALESCE((SELECT MAX(CAST(substring(transfer_code FROM '^TR-[0-9]{4}-([0-9]+)$') AS BIGINT))
+                        FROM asset_transfers), 0) + 1,
+              false);
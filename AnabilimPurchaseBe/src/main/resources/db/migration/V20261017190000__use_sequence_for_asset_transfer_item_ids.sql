@@ -0,0 +1,10 @@
+-- Transfer kalemleri IDENTITY yerine 50'şer ayrılan sequence ile numaralanır; Hibernate kalem insert'lerini toplu gönderebilir
+-- INCREMENT BY değeri AssetTransferItem'daki allocationSize ile aynı olmalı
+CREATE SEQUENCE IF NOT EXISTS asset_transfer_item_id_seq START WITH 1 INCREMENT BY 50;
+
+-- Hibernate (pooled) dönen değeri bloğun son id'si kabul eder; ilk blok mevcut en büyük id'nin hemen üzerinden başlar
+SELECT setval('asset_transfer_item_id_seq', COALESCE((SELECT MAX(id) FROM asset_transfer_items), 0) + 50, false);
+
+-- id'ler artık yalnızca uygulama tarafından atanır; BIGSERIAL varsayılanı ve sequence'ı kaldırılır
+ALTER TABLE asset_transfer_items ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS asset_transfer_items_id_seq;
@@ -0,0 +1,8 @@
+-- Transfer kalemlerinin kaynak depodan OUT hareketi olarak işlendiği an; doluysa transfer tekrar işlenmez
+ALTER TABLE asset_transfers ADD COLUMN IF NOT EXISTS stock_posted_at TIMESTAMP;
+
+-- Bu sürümden önce depodan çıkmış transferlerin stok çıkışı elle girildi; otomatik olarak tekrar işlenmemeleri için işaretlenir
+UPDATE asset_transfers
+SET stock_posted_at = COALESCE(actual_transfer_date, updated_at, created_at)
+WHERE stock_posted_at IS NULL
+  AND status IN ('IN_TRANSIT', 'DELIVERED', 'COMPLETED', 'PARTIALLY_COMPLETED');
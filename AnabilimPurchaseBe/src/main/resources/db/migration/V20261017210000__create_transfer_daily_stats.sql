@@ -0,0 +1,44 @@
+-- Transfer istatistikleri için günlük özet tabloları; uygulama transfer durum değişikliklerinde artımlı günceller
+CREATE TABLE IF NOT EXISTS transfer_daily_stats (
+    id BIGSERIAL PRIMARY KEY,
+    stat_date DATE NOT NULL,
+    school_id BIGINT NOT NULL REFERENCES schools(id),
+    status VARCHAR(255) NOT NULL,
+    transfer_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_transfer_daily_stats_key UNIQUE (stat_date, school_id, status)
+);
+
+-- id'ler Hibernate tarafından 50'şer ayrılır (TransferProductDailyStat.allocationSize)
+CREATE SEQUENCE IF NOT EXISTS transfer_product_daily_stat_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS transfer_product_daily_stats (
+    id BIGINT PRIMARY KEY,
+    stat_date DATE NOT NULL,
+    school_id BIGINT NOT NULL REFERENCES schools(id),
+    product_id BIGINT NOT NULL REFERENCES products(id),
+    status VARCHAR(255) NOT NULL,
+    item_count BIGINT NOT NULL DEFAULT 0,
+    requested_quantity BIGINT NOT NULL DEFAULT 0,
+    transferred_quantity BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_transfer_product_daily_stats_key UNIQUE (stat_date, school_id, product_id, status)
+);
+
+-- Tarih aralığı sorguları için
+CREATE INDEX IF NOT EXISTS idx_transfer_daily_stats_date ON transfer_daily_stats (stat_date);
+CREATE INDEX IF NOT EXISTS idx_transfer_product_daily_stats_date ON transfer_product_daily_stats (stat_date);
+
+-- Mevcut transferlerden tek seferlik doldurma
+INSERT INTO transfer_daily_stats (stat_date, school_id, status, transfer_count)
+SELECT CAST(t.created_at AS DATE), t.target_school_id, t.status, COUNT(*)
+FROM asset_transfers t
+GROUP BY CAST(t.created_at AS DATE), t.target_school_id, t.status
+ON CONFLICT (stat_date, school_id, status) DO NOTHING;
+
+INSERT INTO transfer_product_daily_stats (id, stat_date, school_id, product_id, status, item_count,
+                                          requested_quantity, transferred_quantity)
+SELECT nextval('transfer_product_daily_stat_id_seq'), CAST(t.created_at AS DATE), t.target_school_id, i.product_id, t.status, COUNT(*),
+       SUM(i.requested_quantity), SUM(COALESCE(i.transferred_quantity, 0))
+FROM asset_transfers t
+JOIN asset_transfer_items i ON i.asset_transfer_id = t.id
+GROUP BY CAST(t.created_at AS DATE), t.target_school_id, i.product_id, t.status
+ON CONFLICT (stat_date, school_id, product_id, status) DO NOTHING;
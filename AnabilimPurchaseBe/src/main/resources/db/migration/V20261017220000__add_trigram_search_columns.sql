@@ -0,0 +1,28 @@
+-- Transfer ve okul aramaları için trigram indeksli arama sütunları
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Türkçe harf katlama: İ, I ve ı aramada i ile eşleşir ("ışık", "Işık", "isik" aynı sonucu verir).
+-- lower() tek başına 'İ' harfini 'i̇' (noktalı i + birleşik nokta) yapar; önce translate ile sadeleştirilir.
+CREATE OR REPLACE FUNCTION tr_fold(value TEXT) RETURNS TEXT AS $$
+    SELECT lower(translate(value, 'İIı', 'iii'))
+$$ LANGUAGE SQL IMMUTABLE PARALLEL SAFE;
+
+ALTER TABLE schools ADD COLUMN IF NOT EXISTS search_text TEXT
+    GENERATED ALWAYS AS (tr_fold(coalesce(name, '') || ' ' || coalesce(school_code, '') || ' ' ||
+                                 coalesce(city, '') || ' ' || coalesce(district, ''))) STORED;
+
+ALTER TABLE warehouses ADD COLUMN IF NOT EXISTS search_text TEXT
+    GENERATED ALWAYS AS (tr_fold(coalesce(name, '') || ' ' || coalesce(code, ''))) STORED;
+
+ALTER TABLE asset_transfers ADD COLUMN IF NOT EXISTS search_text TEXT
+    GENERATED ALWAYS AS (tr_fold(coalesce(transfer_code, '') || ' ' || coalesce(notes, ''))) STORED;
+
+-- LIKE '%...%' ve kelime benzerliği (<%) sorguları bu indekslerden okunur
+CREATE INDEX IF NOT EXISTS idx_schools_search_trgm
+    ON schools USING gin (search_text gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_warehouses_search_trgm
+    ON warehouses USING gin (search_text gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_asset_transfers_search_trgm
+    ON asset_transfers USING gin (search_text gin_trgm_ops);
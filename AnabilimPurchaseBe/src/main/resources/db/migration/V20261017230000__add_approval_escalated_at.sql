@@ -0,0 +1,2 @@
+-- Onay SLA'sı: üst yönetime iletilen adımlar işaretlenir, zamanlayıcı yeniden yüklendiğinde tekrar iletilmez
+ALTER TABLE purchase_request_approvals ADD COLUMN IF NOT EXISTS escalated_at TIMESTAMP;
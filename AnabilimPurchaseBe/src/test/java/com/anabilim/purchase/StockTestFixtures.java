@@ -0,0 +1,54 @@
+package com.anabilim.purchase;
+
+import com.anabilim.purchase.entity.Category;
+import com.anabilim.purchase.entity.Product;
+import com.anabilim.purchase.entity.Warehouse;
+import com.anabilim.purchase.entity.enums.UnitOfMeasure;
+
+/**
+ * Stok testlerinin ortak varlıkları. Varlıklar kaydedilmeden döner; testler EntityManager ya da repository ile kaydeder.
+ */
+public final class StockTestFixtures {
+
+    public static final String CATEGORY_NAME = "Kırtasiye";
+    public static final String WAREHOUSE_CODE = "WH-1";
+    public static final String WAREHOUSE_NAME = "Merkez Depo";
+    public static final String PRODUCT_CODE = "PRD-1";
+    public static final String PRODUCT_NAME = "Kalem";
+
+    private StockTestFixtures() {
+    }
+
+    public static Category category() {
+        Category category = new Category();
+        category.setName(CATEGORY_NAME);
+        category.setCode("KRT");
+        return category;
+    }
+
+    public static Warehouse warehouse() {
+        return warehouse(WAREHOUSE_CODE, WAREHOUSE_NAME);
+    }
+
+    public static Warehouse warehouse(String code, String name) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName(name);
+        warehouse.setCode(code);
+        return warehouse;
+    }
+
+    public static Product product(Category category) {
+        return product(category, PRODUCT_CODE, PRODUCT_NAME);
+    }
+
+    public static Product product(Category category, String code, String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setCode(code);
+        product.setSerialNumber("SN-" + code);
+        product.setImageUrl("img");
+        product.setCategory(category);
+        product.setUnitOfMeasure(UnitOfMeasure.PIECE);
+        return product;
+    }
+}
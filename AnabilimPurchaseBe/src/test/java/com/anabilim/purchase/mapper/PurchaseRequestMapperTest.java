@@ -0,0 +1,155 @@
+package com.anabilim.purchase.mapper;
+
+import com.anabilim.purchase.dto.request.CreatePurchaseRequestDto;
+import com.anabilim.purchase.dto.request.UpdatePurchaseRequestItemsDto;
+import com.anabilim.purchase.entity.Product;
+import com.anabilim.purchase.entity.PurchaseRequest;
+import com.anabilim.purchase.entity.PurchaseRequestItem;
+import com.anabilim.purchase.entity.Supplier;
+import com.anabilim.purchase.entity.SupplierQuote;
+import com.anabilim.purchase.entity.User;
+import com.anabilim.purchase.exception.ResourceNotFoundException;
+import com.anabilim.purchase.repository.ProductRepository;
+import com.anabilim.purchase.repository.SupplierRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+class PurchaseRequestMapperTest {
+    
+    private ProductRepository productRepository;
+    private SupplierRepository supplierRepository;
+    private PurchaseRequestMapper purchaseRequestMapper;
+    
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        supplierRepository = mock(SupplierRepository.class);
+        purchaseRequestMapper = new PurchaseRequestMapper(new UserMapper(), productRepository, supplierRepository);
+        
+        when(productRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            return ((Collection<Long>) ids).stream().filter(id -> id < 100).map(this::product).toList();
+        });
+        when(supplierRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            return ((Collection<Long>) ids).stream().filter(id -> id < 100).map(this::supplier).toList();
+        });
+    }
+    
+    @Test
+    void toItemEntityList_ShouldLoadProductsAndSuppliersOnce() {
+        // Given
+        List<UpdatePurchaseRequestItemsDto.PurchaseRequestItemDto> itemDtos = List.of(
+                updateItem(1L, Set.of(10L, 11L, 12L)),
+                updateItem(2L, Set.of(10L, 11L, 12L)),
+                updateItem(3L, Set.of(11L)));
+        
+        // When
+        List<PurchaseRequestItem> items = purchaseRequestMapper.toItemEntityList(itemDtos);
+        
+        // Then
+        assertThat(items).hasSize(3);
+        assertThat(items).extracting(item -> item.getProduct().getId()).containsExactly(1L, 2L, 3L);
+        assertThat(items.get(0).getPotentialSuppliers()).extracting(Supplier::getId).containsExactlyInAnyOrder(10L, 11L, 12L);
+        assertThat(items.get(2).getPotentialSuppliers()).extracting(Supplier::getId).containsExactly(11L);
+        verify(productRepository, times(1)).findAllById(anyIterable());
+        verify(supplierRepository, times(1)).findAllById(anyIterable());
+        verify(productRepository, never()).findById(any());
+        verify(supplierRepository, never()).findById(any());
+    }
+    
+    @Test
+    void toEntity_WithMissingProducts_ShouldReportAllMissingIdsAtOnce() {
+        // Given
+        CreatePurchaseRequestDto createDto = new CreatePurchaseRequestDto("Kırtasiye", "Dönem başı kırtasiye talebi", List.of(
+                new CreatePurchaseRequestDto.PurchaseRequestItemDto(1L, 5, Set.of(10L), null, null),
+                new CreatePurchaseRequestDto.PurchaseRequestItemDto(205L, 5, Set.of(10L), null, null),
+                new CreatePurchaseRequestDto.PurchaseRequestItemDto(101L, 5, Set.of(10L), null, null)));
+        
+        // When / Then
+        assertThatThrownBy(() -> purchaseRequestMapper.toEntity(createDto, new User()))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Ürün bulunamadı: 101, 205");
+    }
+    
+    @Test
+    void toItemEntityList_WithMissingSuppliers_ShouldReportAllMissingIdsAtOnce() {
+        // Given
+        List<UpdatePurchaseRequestItemsDto.PurchaseRequestItemDto> itemDtos = List.of(
+                updateItem(1L, Set.of(10L, 150L)),
+                updateItem(2L, Set.of(120L)));
+        
+        // When / Then
+        assertThatThrownBy(() -> purchaseRequestMapper.toItemEntityList(itemDtos))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Tedarikçi bulunamadı: 120, 150");
+    }
+    
+    @Test
+    void updateItems_ShouldApplyOnlyTheDifferenceAndKeepExistingQuotes() {
+        // Given
+        PurchaseRequest request = new PurchaseRequest();
+        PurchaseRequestItem kept = existingItem(request, 1L, 1L, Set.of(10L, 11L));
+        PurchaseRequestItem removed = existingItem(request, 2L, 2L, Set.of(10L));
+        String keptQuoteUid = kept.getSupplierQuotes().stream()
+                .filter(quote -> quote.getSupplier().getId().equals(10L))
+                .findFirst().orElseThrow().getQuoteUid();
+        
+        UpdatePurchaseRequestItemsDto.PurchaseRequestItemDto changed =
+                new UpdatePurchaseRequestItemsDto.PurchaseRequestItemDto(null, 1L, Set.of(10L, 12L), null, 8, null, "Acil");
+        
+        // When
+        purchaseRequestMapper.updateItems(request, List.of(changed, updateItem(3L, Set.of(11L)), updateItem(4L, Set.of(11L))));
+        
+        // Then
+        assertThat(request.getItems()).hasSize(3).contains(kept).doesNotContain(removed);
+        assertThat(kept.getQuantity()).isEqualTo(8);
+        assertThat(kept.getNotes()).isEqualTo("Acil");
+        assertThat(kept.getPotentialSuppliers()).extracting(Supplier::getId).containsExactlyInAnyOrder(10L, 12L);
+        assertThat(kept.getSupplierQuotes()).hasSize(2);
+        assertThat(kept.getSupplierQuotes()).extracting(SupplierQuote::getQuoteUid).contains(keptQuoteUid);
+        assertThat(kept.getSupplierQuotes()).extracting(SupplierQuote::getQuantity).containsOnly(8);
+        assertThat(request.getItems()).extracting(item -> item.getProduct().getId()).containsExactlyInAnyOrder(1L, 3L, 4L);
+    }
+    
+    private PurchaseRequestItem existingItem(PurchaseRequest request, Long id, Long productId, Set<Long> supplierIds) {
+        PurchaseRequestItem item = new PurchaseRequestItem();
+        item.setId(id);
+        item.setPurchaseRequest(request);
+        item.setProduct(product(productId));
+        item.setQuantity(5);
+        supplierIds.forEach(supplierId -> item.addPotentialSupplier(supplier(supplierId)));
+        long quoteId = id * 100;
+        for (SupplierQuote quote : item.getSupplierQuotes()) {
+            quote.setId(quoteId++);
+        }
+        request.getItems().add(item);
+        return item;
+    }
+    
+    private UpdatePurchaseRequestItemsDto.PurchaseRequestItemDto updateItem(Long productId, Set<Long> supplierIds) {
+        return new UpdatePurchaseRequestItemsDto.PurchaseRequestItemDto(null, productId, supplierIds, null, 5, null, null);
+    }
+    
+    private Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        return product;
+    }
+    
+    private Supplier supplier(Long id) {
+        Supplier supplier = new Supplier();
+        supplier.setId(id);
+        return supplier;
+    }
+}
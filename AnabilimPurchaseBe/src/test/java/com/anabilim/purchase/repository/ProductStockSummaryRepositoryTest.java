@@ -0,0 +1,189 @@
+package com.anabilim.purchase.repository;
+
+import com.anabilim.purchase.StockTestFixtures;
+import com.anabilim.purchase.dto.response.ProductStockSummaryDto;
+import com.anabilim.purchase.entity.Category;
+import com.anabilim.purchase.entity.Product;
+import com.anabilim.purchase.entity.StockMovement;
+import com.anabilim.purchase.entity.Warehouse;
+import com.anabilim.purchase.entity.WarehouseStock;
+import com.anabilim.purchase.entity.enums.MovementType;
+import com.anabilim.purchase.entity.enums.ProductType;
+import com.anabilim.purchase.entity.enums.UnitOfMeasure;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductStockSummaryRepositoryTest {
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Category category;
+    private Warehouse mainWarehouse;
+    private Warehouse schoolWarehouse;
+    private int sequence;
+    
+    @BeforeEach
+    void setUp() {
+        category = StockTestFixtures.category();
+        entityManager.persist(category);
+        mainWarehouse = persistWarehouse("Merkez Depo");
+        schoolWarehouse = persistWarehouse("Okul Deposu");
+    }
+    
+    @Test
+    void findStockSummaries_ShouldAggregateStocksPerProduct() {
+        // Given
+        Product stocked = persistProduct(ProductType.CONSUMABLE);
+        WarehouseStock mainStock = persistStock(mainWarehouse, stocked, 40, 10);
+        persistStock(schoolWarehouse, stocked, 5, 10);
+        persistMovement(mainStock, 40);
+        Product empty = persistProduct(ProductType.CONSUMABLE);
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When
+        Page<ProductStockSummaryDto> page = productRepository.findStockSummaries(null,
+                PageRequest.of(0, 10, Sort.by("code")));
+        
+        // Then
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        ProductStockSummaryDto stockedSummary = page.getContent().get(0);
+        assertThat(stockedSummary.getId()).isEqualTo(stocked.getId());
+        assertThat(stockedSummary.getTotalStock()).isEqualTo(45);
+        assertThat(stockedSummary.getWarehouseCount()).isEqualTo(2);
+        assertThat(stockedSummary.isHasLowStock()).isTrue();
+        assertThat(stockedSummary.getLastMovementDate()).isNotNull();
+        assertThat(stockedSummary.getCategory()).isEqualTo("Kırtasiye");
+        assertThat(stockedSummary.getUnit()).isEqualTo(UnitOfMeasure.PIECE.getDisplayName());
+        assertThat(stockedSummary.getProductType()).isEqualTo(ProductType.CONSUMABLE.getDisplayName());
+        ProductStockSummaryDto emptySummary = page.getContent().get(1);
+        assertThat(emptySummary.getId()).isEqualTo(empty.getId());
+        assertThat(emptySummary.getTotalStock()).isZero();
+        assertThat(emptySummary.getWarehouseCount()).isZero();
+        assertThat(emptySummary.isHasLowStock()).isFalse();
+        assertThat(emptySummary.getLastMovementDate()).isNull();
+    }
+    
+    @Test
+    void findStockSummaries_ShouldRunDataAndCountQueryOnly_RegardlessOfPageSize() {
+        // Given
+        for (int i = 0; i < 60; i++) {
+            Product product = persistProduct(ProductType.CONSUMABLE);
+            persistMovement(persistStock(mainWarehouse, product, 20, 5), 20);
+            persistStock(schoolWarehouse, product, 3, 5);
+        }
+        
+        // When
+        long smallPageStatements = countStatements(PageRequest.of(0, 5));
+        long largePageStatements = countStatements(PageRequest.of(0, 50));
+        
+        // Then
+        assertThat(smallPageStatements).isEqualTo(2);
+        assertThat(largePageStatements).isEqualTo(2);
+    }
+    
+    @Test
+    void findStockSummaries_ShouldCombineFiltersAndCountFilteredRows() {
+        // Given
+        Category furniture = new Category();
+        furniture.setName("Mobilya");
+        furniture.setCode("MBL");
+        entityManager.persist(furniture);
+        for (int i = 0; i < 6; i++) {
+            Product consumable = persistProduct(ProductType.CONSUMABLE);
+            persistStock(mainWarehouse, consumable, i % 2 == 0 ? 2 : 50, 10);
+        }
+        Product fixture = persistProduct(ProductType.FIXED_ASSET);
+        persistStock(mainWarehouse, fixture, 1, 10);
+        Product otherCategory = persistProduct(ProductType.CONSUMABLE);
+        otherCategory.setCategory(furniture);
+        persistStock(mainWarehouse, otherCategory, 1, 10);
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When
+        Page<ProductStockSummaryDto> page = productRepository.findStockSummaries(Specification.allOf(
+                ProductSpecifications.hasProductType(ProductType.CONSUMABLE),
+                ProductSpecifications.isActive(),
+                ProductSpecifications.nameOrCodeContains("prd-"),
+                ProductSpecifications.inCategory(category.getId()),
+                ProductSpecifications.hasLowStockInAnyWarehouse()), PageRequest.of(0, 2));
+        
+        // Then
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getTotalPages()).isEqualTo(2);
+        assertThat(page.getContent()).allSatisfy(summary -> {
+            assertThat(summary.isHasLowStock()).isTrue();
+            assertThat(summary.getCategory()).isEqualTo("Kırtasiye");
+            assertThat(summary.getProductType()).isEqualTo(ProductType.CONSUMABLE.getDisplayName());
+        });
+        assertThat(productRepository.findStockSummaries(ProductSpecifications.nameOrCodeContains("%"),
+                PageRequest.of(0, 10)).getTotalElements()).isZero();
+    }
+    
+    private long countStatements(PageRequest pageRequest) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Page<ProductStockSummaryDto> page = productRepository.findStockSummaries(
+                ProductSpecifications.isActive(), pageRequest);
+        assertThat(page.getContent()).hasSize(pageRequest.getPageSize());
+        assertThat(page.getTotalElements()).isEqualTo(60);
+        return statistics.getPrepareStatementCount();
+    }
+    
+    private Warehouse persistWarehouse(String name) {
+        Warehouse warehouse = StockTestFixtures.warehouse("WH-" + sequence++, name);
+        entityManager.persist(warehouse);
+        return warehouse;
+    }
+    
+    private Product persistProduct(ProductType productType) {
+        Product product = StockTestFixtures.product(category, String.format("PRD-%04d", sequence), "Ürün " + sequence++);
+        product.setProductType(productType);
+        entityManager.persist(product);
+        return product;
+    }
+    
+    private WarehouseStock persistStock(Warehouse warehouse, Product product, int currentStock, int minStock) {
+        WarehouseStock stock = new WarehouseStock();
+        stock.setWarehouse(warehouse);
+        stock.setProduct(product);
+        stock.setCurrentStock(currentStock);
+        stock.setMinStock(minStock);
+        entityManager.persist(stock);
+        return stock;
+    }
+    
+    private void persistMovement(WarehouseStock stock, int quantity) {
+        StockMovement movement = new StockMovement();
+        movement.setWarehouseStock(stock);
+        movement.setQuantity(quantity);
+        movement.setMovementType(MovementType.IN);
+        entityManager.persist(movement);
+        stock.setLastMovementAt(LocalDateTime.now());
+    }
+}
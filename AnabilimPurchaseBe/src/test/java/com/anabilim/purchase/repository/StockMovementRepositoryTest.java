@@ -0,0 +1,111 @@
+package com.anabilim.purchase.repository;
+
+import com.anabilim.purchase.StockTestFixtures;
+import com.anabilim.purchase.dto.response.StockMovementSummaryDto;
+import com.anabilim.purchase.entity.Category;
+import com.anabilim.purchase.entity.Product;
+import com.anabilim.purchase.entity.StockMovement;
+import com.anabilim.purchase.entity.Warehouse;
+import com.anabilim.purchase.entity.WarehouseStock;
+import com.anabilim.purchase.entity.enums.MovementType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class StockMovementRepositoryTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.now().minusDays(1);
+    private static final LocalDateTime TO = LocalDateTime.now().plusDays(1);
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Product product;
+    private WarehouseStock stock;
+
+    @BeforeEach
+    void setUp() {
+        Category category = StockTestFixtures.category();
+        entityManager.persist(category);
+
+        Warehouse warehouse = StockTestFixtures.warehouse();
+        entityManager.persist(warehouse);
+
+        product = StockTestFixtures.product(category);
+        entityManager.persist(product);
+
+        stock = new WarehouseStock();
+        stock.setWarehouse(warehouse);
+        stock.setProduct(product);
+        entityManager.persist(stock);
+
+        for (int i = 0; i < 60; i++) {
+            StockMovement movement = new StockMovement();
+            movement.setWarehouseStock(stock);
+            movement.setQuantity(i + 1);
+            movement.setMovementType(i % 3 == 0 ? MovementType.OUT : MovementType.IN);
+            movement.setReferenceType("PURCHASE_ORDER");
+            movement.setReferenceId((long) (i % 2));
+            entityManager.persist(movement);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findSummariesByStockId_ShouldRunDataAndCountQueryOnly() {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        Page<StockMovementSummaryDto> page = stockMovementRepository.findSummariesByStockId(stock.getId(),
+                FROM, TO, PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "createdAt")));
+        Page<StockMovementSummaryDto> referenced = stockMovementRepository.findSummariesByStockIdAndReference(
+                stock.getId(), "PURCHASE_ORDER", 1L, FROM, TO, PageRequest.of(0, 10));
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(page.getContent()).hasSize(50);
+        assertThat(page.getTotalElements()).isEqualTo(60);
+        assertThat(page.getContent()).allSatisfy(movement -> {
+            assertThat(movement.getWarehouseCode()).isEqualTo("WH-1");
+            assertThat(movement.getWarehouseName()).isEqualTo("Merkez Depo");
+            assertThat(movement.getProductCode()).isEqualTo("PRD-1");
+            assertThat(movement.getWarehouseStockId()).isEqualTo(stock.getId());
+        });
+        assertThat(referenced.getTotalElements()).isEqualTo(30);
+    }
+
+    @Test
+    void findRecentSummariesByProductId_ShouldReturnNewestFirst() {
+        // When
+        List<StockMovementSummaryDto> recent = stockMovementRepository.findRecentSummariesByProductId(
+                product.getId(), FROM, PageRequest.of(0, 20));
+
+        // Then
+        assertThat(recent).hasSize(20);
+        assertThat(recent.get(0).getQuantity()).isEqualTo(60);
+        assertThat(recent).extracting(StockMovementSummaryDto::getProductId).containsOnly(product.getId());
+    }
+}
@@ -0,0 +1,112 @@
+package com.anabilim.purchase.repository;
+
+import com.anabilim.purchase.StockTestFixtures;
+import com.anabilim.purchase.entity.Category;
+import com.anabilim.purchase.entity.Product;
+import com.anabilim.purchase.entity.School;
+import com.anabilim.purchase.entity.enums.TransferStatus;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upsert'ler PostgreSQL'e özgü (ON CONFLICT) olduğundan H2 yerine gerçek bir veritabanında çalışır.
+ * POSTGRES_TEST_URL (ve gerekirse POSTGRES_TEST_USERNAME/POSTGRES_TEST_PASSWORD) ayarlı değilse atlanır;
+ * her test sonunda geri alınır.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "POSTGRES_TEST_URL", matches = ".+")
+@Import(TransferStatBatchRepository.class)
+class TransferStatBatchRepositoryTest {
+
+    private static final LocalDate STAT_DATE = LocalDate.of(2001, 1, 1);
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("POSTGRES_TEST_URL"));
+        registry.add("spring.datasource.username", () -> env("POSTGRES_TEST_USERNAME", "postgres"));
+        registry.add("spring.datasource.password", () -> env("POSTGRES_TEST_PASSWORD", ""));
+    }
+
+    @Autowired
+    private TransferStatBatchRepository transferStatBatchRepository;
+
+    @Autowired
+    private TransferDailyStatRepository transferDailyStatRepository;
+
+    @Autowired
+    private TransferProductDailyStatRepository transferProductDailyStatRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private School school;
+    private Product pencil;
+
+    @BeforeEach
+    void setUp() {
+        Category category = StockTestFixtures.category();
+        entityManager.persist(category);
+
+        school = new School();
+        school.setName("Atatürk İlkokulu");
+        school.setCode("SCH-1");
+        entityManager.persist(school);
+
+        pencil = StockTestFixtures.product(category);
+        entityManager.persist(pencil);
+        entityManager.flush();
+    }
+
+    @Test
+    void addTransferCounts_ShouldInsertThenIncrementExistingRows() {
+        // When
+        transferStatBatchRepository.addTransferCounts(STAT_DATE, school.getId(), List.of(
+                new TransferStatBatchRepository.DailyDelta(TransferStatus.PENDING, 2),
+                new TransferStatBatchRepository.DailyDelta(TransferStatus.IN_TRANSIT, 1)));
+        transferStatBatchRepository.addTransferCounts(STAT_DATE, school.getId(), List.of(
+                new TransferStatBatchRepository.DailyDelta(TransferStatus.PENDING, -1),
+                new TransferStatBatchRepository.DailyDelta(TransferStatus.IN_TRANSIT, 1)));
+
+        // Then
+        Map<Object, Object> countsByStatus = transferDailyStatRepository.sumTransfersByStatus(STAT_DATE, STAT_DATE)
+                .stream()
+                .collect(Collectors.toMap(row -> row[0], row -> row[1]));
+        assertThat(countsByStatus).containsOnly(
+                Map.entry(TransferStatus.PENDING, 1L), Map.entry(TransferStatus.IN_TRANSIT, 2L));
+    }
+
+    @Test
+    void addProductTotals_ShouldInsertThenIncrementExistingRows() {
+        // When
+        transferStatBatchRepository.addProductTotals(STAT_DATE, school.getId(), List.of(
+                new TransferStatBatchRepository.ProductDelta(TransferStatus.IN_TRANSIT, pencil.getId(), 1, 10, 10)));
+        transferStatBatchRepository.addProductTotals(STAT_DATE, school.getId(), List.of(
+                new TransferStatBatchRepository.ProductDelta(TransferStatus.IN_TRANSIT, pencil.getId(), 1, 5, 3)));
+
+        // Then
+        assertThat(transferProductDailyStatRepository.sumItemsByProduct(STAT_DATE, STAT_DATE))
+                .singleElement()
+                .satisfies(row -> assertThat(row).containsExactly(pencil.getName(), 2L, 15L, 13L));
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+}
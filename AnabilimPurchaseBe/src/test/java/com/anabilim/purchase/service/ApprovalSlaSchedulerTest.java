@@ -0,0 +1,53 @@
+package com.anabilim.purchase.service;
+
+import com.anabilim.purchase.entity.PurchaseRequest;
+import com.anabilim.purchase.entity.PurchaseRequestApproval;
+import com.anabilim.purchase.entity.User;
+import com.anabilim.purchase.repository.ApprovalWorkflowRepository;
+import com.anabilim.purchase.repository.PurchaseRequestApprovalRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ApprovalSlaSchedulerTest {
+    
+    @Test
+    void rebuild_ShouldKeepStepActivatedWhileTimersLoad() {
+        // Given: yükleme sorgusu sürerken başka bir işlemin commit'i bir adımı etkinleştirir
+        PurchaseRequestApprovalRepository approvalRepository = mock(PurchaseRequestApprovalRepository.class);
+        ApprovalSlaScheduler scheduler = new ApprovalSlaScheduler(approvalRepository,
+                mock(ApprovalWorkflowRepository.class), mock(ApplicationEventPublisher.class),
+                new SimpleMeterRegistry(), true, 48, 4, 60_000L, 1024);
+        when(approvalRepository.findCurrentPendingStepTimers()).thenAnswer(invocation -> {
+            scheduler.stepActivated(step(), LocalDateTime.now());
+            return List.of();
+        });
+        
+        // When
+        scheduler.rebuild();
+        
+        // Then
+        assertThat(scheduler.getTimerCount()).isEqualTo(1);
+    }
+    
+    private static PurchaseRequestApproval step() {
+        PurchaseRequest request = new PurchaseRequest();
+        request.setId(1L);
+        User approver = new User();
+        approver.setId(2L);
+        PurchaseRequestApproval approval = new PurchaseRequestApproval();
+        approval.setId(3L);
+        approval.setPurchaseRequest(request);
+        approval.setApprover(approver);
+        approval.setRoleName("OKUL_MUDURU");
+        approval.setStepOrder(1);
+        return approval;
+    }
+}
@@ -0,0 +1,81 @@
+package com.anabilim.purchase.service;
+
+import com.anabilim.purchase.dto.ApprovalWorkflowDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApprovalWorkflowIndexTest {
+    
+    @Test
+    void match_ShouldTreatBoundsAsInclusiveAndNullsAsOpen() {
+        // Given
+        ApprovalWorkflowDto small = workflow(1L, "IT_EQUIPMENT", null, "1000");
+        ApprovalWorkflowDto medium = workflow(2L, "IT_EQUIPMENT", "1000", "10000");
+        ApprovalWorkflowDto large = workflow(3L, "IT_EQUIPMENT", "10000.00", null);
+        ApprovalWorkflowDto furniture = workflow(4L, "FURNITURE", null, null);
+        ApprovalWorkflowIndex index = ApprovalWorkflowIndex.compile(List.of(large, medium, small, furniture));
+        
+        // When / Then
+        assertThat(index.match(new BigDecimal("999.99"), "IT_EQUIPMENT")).containsExactly(small);
+        assertThat(index.match(new BigDecimal("1000"), "IT_EQUIPMENT")).containsExactly(small, medium);
+        assertThat(index.match(new BigDecimal("5000"), "IT_EQUIPMENT")).containsExactly(medium);
+        assertThat(index.match(new BigDecimal("10000"), "IT_EQUIPMENT")).containsExactly(medium, large);
+        assertThat(index.match(new BigDecimal("50000"), "IT_EQUIPMENT")).containsExactly(large);
+        assertThat(index.match(null, "IT_EQUIPMENT")).containsExactly(small, medium, large);
+        assertThat(index.match(new BigDecimal("50000"), null)).containsExactly(large, furniture);
+        assertThat(index.match(new BigDecimal("50000"), "OFFICE_SUPPLIES")).isEmpty();
+        assertThat(ApprovalWorkflowIndex.empty().match(BigDecimal.ONE, null)).isEmpty();
+    }
+    
+    @Test
+    void match_ShouldAgreeWithRangePredicate() {
+        // Given
+        Random random = new Random(42);
+        List<String> categories = Arrays.asList("IT_EQUIPMENT", "FURNITURE", "OFFICE_SUPPLIES", null);
+        List<ApprovalWorkflowDto> workflows = new ArrayList<>();
+        for (long id = 1; id <= 60; id++) {
+            Integer min = random.nextInt(4) == 0 ? null : random.nextInt(50) * 100;
+            Integer max = random.nextInt(4) == 0 ? null : (min != null ? min : 0) + random.nextInt(50) * 100;
+            workflows.add(workflow(id, categories.get(random.nextInt(categories.size())),
+                    min != null ? min.toString() : null, max != null ? max.toString() : null));
+        }
+        ApprovalWorkflowIndex index = ApprovalWorkflowIndex.compile(workflows);
+        
+        // When / Then
+        for (int amount = -100; amount <= 11000; amount += 50) {
+            BigDecimal value = BigDecimal.valueOf(amount);
+            for (String category : categories) {
+                List<ApprovalWorkflowDto> expected = workflows.stream()
+                        .filter(workflow -> matches(workflow, value, category))
+                        .toList();
+                assertThat(index.match(value, category)).containsExactlyElementsOf(expected);
+            }
+        }
+    }
+    
+    // ApprovalWorkflowRepository.findMatchingWorkflows koşulunun birebir karşılığı
+    private boolean matches(ApprovalWorkflowDto workflow, BigDecimal amount, String category) {
+        boolean amountMatches = amount == null
+                || ((workflow.getMinAmount() == null || workflow.getMinAmount().compareTo(amount) <= 0)
+                && (workflow.getMaxAmount() == null || workflow.getMaxAmount().compareTo(amount) >= 0));
+        boolean categoryMatches = category == null || category.equals(workflow.getCategory());
+        return amountMatches && categoryMatches;
+    }
+    
+    private ApprovalWorkflowDto workflow(Long id, String category, String minAmount, String maxAmount) {
+        ApprovalWorkflowDto workflow = new ApprovalWorkflowDto();
+        workflow.setId(id);
+        workflow.setName("Akış " + id);
+        workflow.setCategory(category);
+        workflow.setMinAmount(minAmount != null ? new BigDecimal(minAmount) : null);
+        workflow.setMaxAmount(maxAmount != null ? new BigDecimal(maxAmount) : null);
+        return workflow;
+    }
+}
@@ -0,0 +1,185 @@
+package com.anabilim.purchase.service;
+
+import com.anabilim.purchase.entity.Role;
+import com.anabilim.purchase.entity.User;
+import com.anabilim.purchase.repository.RoleRepository;
+import com.anabilim.purchase.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ApproverDirectory.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ApproverDirectoryTest {
+    
+    @Autowired
+    private ApproverDirectory approverDirectory;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private RoleRepository roleRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private Role principalRole;
+    private Role ceoRole;
+    private User principal;
+    private User ceo;
+    
+    @BeforeEach
+    void setUp() {
+        principalRole = roleRepository.save(role("OKUL_MUDURU"));
+        ceoRole = roleRepository.save(role("CEO"));
+        principal = saveUser("principal@example.com", Set.of(principalRole));
+        ceo = saveUser("ceo@example.com", Set.of(ceoRole));
+        approverDirectory.invalidate();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        approverDirectory.invalidate();
+    }
+    
+    @Test
+    void findApprover_ShouldServeRepeatedLookupsWithoutQueries() {
+        // Given
+        approverDirectory.findApprover("OKUL_MUDURU");
+        double hitsBefore = counter("approver.directory.lookups", "hit");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        // When
+        for (int i = 0; i < 10; i++) {
+            assertThat(approverDirectory.findApprover("OKUL_MUDURU"))
+                    .hasValueSatisfying(user -> assertThat(user.getId()).isEqualTo(principal.getId()));
+            assertThat(approverDirectory.findApprover("CEO"))
+                    .hasValueSatisfying(user -> assertThat(user.getId()).isEqualTo(ceo.getId()));
+        }
+        boolean unknownFound = approverDirectory.findApprover("GENEL_MUDUR").isPresent();
+        
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(unknownFound).isFalse();
+        assertThat(counter("approver.directory.lookups", "hit") - hitsBefore).isEqualTo(20);
+        assertThat(counter("approver.directory.lookups", "miss")).isGreaterThanOrEqualTo(1);
+    }
+    
+    @Test
+    void invalidate_ShouldReloadAfterRoleAssignmentCommits() {
+        // Given
+        assertThat(approverDirectory.findApprover("GENEL_MUDUR")).isEmpty();
+        Role generalManagerRole = roleRepository.save(role("GENEL_MUDUR"));
+        double reloadsBefore = meterRegistry.get("approver.directory.reloads").counter().count();
+        
+        // When
+        User generalManager = new TransactionTemplate(transactionManager).execute(status -> {
+            User saved = saveUser("gm@example.com", Set.of(generalManagerRole));
+            approverDirectory.invalidate();
+            // Commit edilmeden önce dizin eski haliyle kalır
+            assertThat(approverDirectory.findApprover("GENEL_MUDUR")).isEmpty();
+            return saved;
+        });
+        
+        // Then
+        assertThat(approverDirectory.findApprover("GENEL_MUDUR"))
+                .hasValueSatisfying(user -> assertThat(user.getId()).isEqualTo(generalManager.getId()));
+        assertThat(meterRegistry.get("approver.directory.reloads").counter().count()).isEqualTo(reloadsBefore + 1);
+    }
+    
+    @Test
+    void findApprover_ShouldReturnUserStateFromDatabase_WithoutReload() {
+        // Given
+        approverDirectory.findApprover("CEO");
+        double reloadsBefore = meterRegistry.get("approver.directory.reloads").counter().count();
+        
+        // When
+        ceo.setDisplayName("Yeni Ad");
+        userRepository.save(ceo);
+        String displayName = new TransactionTemplate(transactionManager).execute(status ->
+                approverDirectory.findApprover("CEO").orElseThrow().getDisplayName());
+        
+        // Then
+        assertThat(displayName).isEqualTo("Yeni Ad");
+        assertThat(meterRegistry.get("approver.directory.reloads").counter().count()).isEqualTo(reloadsBefore);
+    }
+    
+    @Test
+    void reload_ShouldNotPublishSnapshot_WhenInvalidatedDuringLookup() {
+        // Given: sorgu sürerken bir rol değişikliği commit ediliyor
+        UserRepository repository = mock(UserRepository.class);
+        ApproverDirectory directory = new ApproverDirectory(repository, new SimpleMeterRegistry());
+        AtomicInteger lookups = new AtomicInteger();
+        when(repository.findActiveUsersWithRoles()).thenAnswer(invocation -> {
+            if (lookups.incrementAndGet() == 1) {
+                directory.invalidate();
+            }
+            return List.of(principal);
+        });
+        when(repository.getReferenceById(principal.getId())).thenReturn(principal);
+        
+        // When
+        directory.findApprover("OKUL_MUDURU");
+        directory.findApprover("OKUL_MUDURU");
+        directory.findApprover("OKUL_MUDURU");
+        
+        // Then
+        assertThat(lookups).hasValue(2);
+    }
+    
+    private double counter(String name, String result) {
+        return meterRegistry.get(name).tag("result", result).counter().count();
+    }
+    
+    private Role role(String name) {
+        Role role = new Role();
+        role.setName(name);
+        role.setDisplayName(name);
+        return role;
+    }
+    
+    private User saveUser(String email, Set<Role> roles) {
+        User user = new User();
+        user.setMicrosoft365Id(email);
+        user.setEmail(email);
+        user.setFirstName("Ad");
+        user.setLastName("Soyad");
+        user.setDisplayName("Ad Soyad");
+        user.setDepartment("Yönetim");
+        user.setPosition("Müdür");
+        user.setRoles(new HashSet<>(roles));
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,70 @@
+package com.anabilim.purchase.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimerWheelTest {
+    
+    private static final long TICK = 1_000L;
+    
+    @Test
+    void advance_ShouldFireTimersInDeadlineOrderAndNeverEarly() {
+        // Given
+        TimerWheel<Long, String> wheel = new TimerWheel<>(TICK, 8, 0L);
+        wheel.schedule(1L, "a", 2_500L);
+        wheel.schedule(2L, "b", 1_000L);
+        wheel.schedule(3L, "c", 20_000L);
+        
+        // When / Then
+        assertThat(wheel.advance(999L)).isEmpty();
+        assertThat(wheel.advance(1_000L)).containsExactly("b");
+        assertThat(wheel.advance(2_999L)).isEmpty();
+        assertThat(wheel.advance(3_000L)).containsExactly("a");
+        // 20. saniye tekerleğin iki turundan sonra aynı yuvaya düşer; erken tetiklenmemeli
+        assertThat(wheel.advance(12_000L)).isEmpty();
+        assertThat(wheel.advance(20_000L)).containsExactly("c");
+        assertThat(wheel.size()).isZero();
+    }
+    
+    @Test
+    void scheduleAndCancel_ShouldReplaceTimerWithSameKey() {
+        // Given
+        TimerWheel<Long, String> wheel = new TimerWheel<>(TICK, 8, 0L);
+        wheel.schedule(1L, "reminder", 2_000L);
+        wheel.schedule(1L, "escalation", 5_000L);
+        wheel.schedule(2L, "cancelled", 3_000L);
+        
+        // When
+        boolean cancelled = wheel.cancel(2L);
+        
+        // Then
+        assertThat(cancelled).isTrue();
+        assertThat(wheel.cancel(2L)).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(4_000L)).isEmpty();
+        assertThat(wheel.advance(5_000L)).containsExactly("escalation");
+    }
+    
+    @Test
+    void advance_AfterLongPause_ShouldFireAllOverdueTimersOnce() {
+        // Given
+        TimerWheel<Long, Long> wheel = new TimerWheel<>(TICK, 16, 0L);
+        for (long id = 1; id <= 100_000; id++) {
+            wheel.schedule(id, id, id * 10L);
+        }
+        wheel.schedule(0L, -1L, -5_000L);
+        
+        // When
+        List<Long> firstTick = wheel.advance(TICK);
+        List<Long> overdue = wheel.advance(500_000L);
+        
+        // Then
+        assertThat(firstTick).hasSize(101).contains(-1L);
+        assertThat(overdue).hasSize(49_900).doesNotHaveDuplicates();
+        assertThat(wheel.size()).isEqualTo(50_000);
+        assertThat(wheel.advance(1_000_000L)).hasSize(50_000);
+    }
+}
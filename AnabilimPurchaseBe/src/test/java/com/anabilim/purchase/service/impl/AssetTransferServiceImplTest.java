@@ -0,0 +1,345 @@
+package com.anabilim.purchase.service.impl;
+
+import com.anabilim.purchase.StockTestFixtures;
+import com.anabilim.purchase.dto.request.CreateAssetTransferDto;
+import com.anabilim.purchase.dto.request.CreateStockMovementDto;
+import com.anabilim.purchase.dto.response.AssetTransferDto;
+import com.anabilim.purchase.entity.Category;
+import com.anabilim.purchase.entity.Product;
+import com.anabilim.purchase.entity.School;
+import com.anabilim.purchase.entity.StockMovement;
+import com.anabilim.purchase.entity.Warehouse;
+import com.anabilim.purchase.entity.WarehouseStock;
+import com.anabilim.purchase.entity.enums.MovementType;
+import com.anabilim.purchase.entity.enums.TransferStatus;
+import com.anabilim.purchase.exception.ValidationException;
+import com.anabilim.purchase.mapper.AssetTransferMapper;
+import com.anabilim.purchase.repository.StockLedgerBatchRepository;
+import com.anabilim.purchase.repository.TransferStatBatchRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({AssetTransferServiceImpl.class, AssetTransferMapper.class, StockReservationServiceImpl.class,
+        StockLedgerServiceImpl.class, StockLedgerBatchRepository.class, DocumentNumberServiceImpl.class,
+        TransferStockPostingServiceImpl.class, TransferStatisticsServiceImpl.class})
+class AssetTransferServiceImplTest {
+
+    // Özet upsert'leri PostgreSQL'e özgü; TransferStatBatchRepositoryTest'te gerçek veritabanında sınanır
+    @MockitoBean
+    private TransferStatBatchRepository transferStatBatchRepository;
+
+    @Autowired
+    private AssetTransferServiceImpl assetTransferService;
+
+    @Autowired
+    private StockLedgerServiceImpl stockLedgerService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Warehouse warehouse;
+    private School school;
+    private Product pencil;
+    private Product notebook;
+    private WarehouseStock pencilStock;
+    private WarehouseStock notebookStock;
+
+    @BeforeEach
+    void setUp() {
+        Category category = StockTestFixtures.category();
+        entityManager.persist(category);
+
+        warehouse = StockTestFixtures.warehouse();
+        entityManager.persist(warehouse);
+
+        school = new School();
+        school.setName("Atatürk İlkokulu");
+        school.setCode("SCH-1");
+        entityManager.persist(school);
+
+        pencil = persistProduct(category, "PRD-1");
+        notebook = persistProduct(category, "PRD-2");
+        pencilStock = persistStock(pencil, 100);
+        notebookStock = persistStock(notebook, 20);
+        entityManager.flush();
+    }
+
+    @Test
+    void createTransfer_ShouldReserveStock_AndRejectOverPromising() {
+        // When
+        assetTransferService.createTransfer(transferOf(item(pencil, 60), item(notebook, 5), item(pencil, 10)));
+
+        // Then
+        assertThat(reserved(pencilStock)).isEqualTo(70);
+        assertThat(reserved(notebookStock)).isEqualTo(5);
+        assertThat(available(pencilStock)).isEqualTo(30);
+        assertThatThrownBy(() -> assetTransferService.createTransfer(transferOf(item(pencil, 31))))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining(String.valueOf(pencil.getId()));
+        assertThat(reserved(pencilStock)).isEqualTo(70);
+    }
+
+    @Test
+    void createTransfer_ShouldNotIssueMoreStatements_ForMoreItems() {
+        // Given
+        Category category = entityManager.find(Category.class, pencil.getCategory().getId());
+        List<CreateAssetTransferDto.TransferItemDto> manyItems = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Product product = persistProduct(category, "PRD-B" + i);
+            persistStock(product, 10);
+            manyItems.add(item(product, 1));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // When
+        statistics.clear();
+        assetTransferService.createTransfer(transferOf(item(pencil, 1), item(notebook, 1)));
+        entityManager.flush();
+        long fewItemsStatements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+
+        statistics.clear();
+        AssetTransferDto created = assetTransferService.createTransfer(
+                transferOf(manyItems.toArray(CreateAssetTransferDto.TransferItemDto[]::new)));
+        entityManager.flush();
+        long manyItemsStatements = statistics.getPrepareStatementCount();
+
+        // Then
+        // İlk çağrı sequence bloğunu da ayırır; kalem sayısı arttıkça sorgu sayısı artmamalı
+        assertThat(manyItemsStatements).isLessThanOrEqualTo(fewItemsStatements);
+        assertThat(created.getItems()).hasSize(30).allSatisfy(item -> assertThat(item.getId()).isNotNull());
+    }
+
+    @Test
+    void createTransfer_ShouldReportAllMissingProductsTogether() {
+        // When / Then
+        assertThatThrownBy(() -> assetTransferService.createTransfer(transferOf(
+                item(pencil, 1), itemOf(9001L), itemOf(9002L))))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("9001, 9002");
+    }
+
+    @Test
+    void statusTransitions_ShouldReleaseOrConsumeReservation() {
+        // Given
+        AssetTransferDto cancelled = assetTransferService.createTransfer(transferOf(item(pencil, 40)));
+        AssetTransferDto shipped = assetTransferService.createTransfer(transferOf(item(pencil, 25), item(notebook, 20)));
+
+        // When
+        assetTransferService.cancelTransfer(cancelled.getId(), "Okul talebi geri çekti");
+        assetTransferService.updateTransferStatus(shipped.getId(), TransferStatus.PREPARING);
+
+        // Then
+        assertThat(reserved(pencilStock)).isEqualTo(25);
+        assertThat(reserved(notebookStock)).isEqualTo(20);
+        // Ayrılmış stok elle yapılan çıkışlarla tüketilemez
+        assertThatThrownBy(() -> stockLedgerService.recordMovement(notebookStock.getId(),
+                new CreateStockMovementDto(1, MovementType.OUT, null, null, null)))
+                .isInstanceOf(ValidationException.class);
+
+        // When
+        assetTransferService.updateTransferStatus(shipped.getId(), TransferStatus.IN_TRANSIT);
+
+        // Then
+        assertThat(reserved(pencilStock)).isZero();
+        assertThat(reserved(notebookStock)).isZero();
+    }
+
+    @Test
+    void shipping_ShouldPostOutMovementsOnce_AndConsumeReservation() {
+        // Given
+        AssetTransferDto transfer = assetTransferService.createTransfer(
+                transferOf(item(pencil, 30), item(notebook, 5), item(pencil, 10)));
+
+        // When
+        assetTransferService.updateTransferStatus(transfer.getId(), TransferStatus.IN_TRANSIT);
+        assetTransferService.updateTransferStatus(transfer.getId(), TransferStatus.COMPLETED);
+
+        // Then
+        assertThat(current(pencilStock)).isEqualTo(60);
+        assertThat(current(notebookStock)).isEqualTo(15);
+        assertThat(reserved(pencilStock)).isZero();
+        assertThat(reserved(notebookStock)).isZero();
+        List<StockMovement> movements = entityManager.createQuery(
+                        "SELECT m FROM StockMovement m WHERE m.referenceType = 'ASSET_TRANSFER' AND m.referenceId = :id",
+                        StockMovement.class)
+                .setParameter("id", transfer.getId())
+                .getResultList();
+        assertThat(movements).hasSize(3)
+                .allSatisfy(movement -> assertThat(movement.getMovementType()).isEqualTo(MovementType.OUT));
+        AssetTransferDto completed = assetTransferService.getTransferById(transfer.getId());
+        assertThat(completed.getTotalTransferredQuantity()).isEqualTo(45);
+        assertThat(completed.getStockPostedAt()).isNotNull();
+    }
+
+    @Test
+    void postedTransfer_ShouldNotReserveOrReleaseAgain() {
+        // Given
+        AssetTransferDto transfer = assetTransferService.createTransfer(transferOf(item(pencil, 30)));
+        assetTransferService.updateTransferStatus(transfer.getId(), TransferStatus.IN_TRANSIT);
+
+        // When
+        assetTransferService.updateTransferStatus(transfer.getId(), TransferStatus.APPROVED);
+
+        // Then
+        assertThat(reserved(pencilStock)).isZero();
+
+        // When
+        assetTransferService.deleteTransfer(transfer.getId());
+
+        // Then
+        assertThat(current(pencilStock)).isEqualTo(70);
+        assertThat(reserved(pencilStock)).isZero();
+    }
+
+    @Test
+    void shipping_ShouldPostNothing_WhenAnyItemExceedsStock() {
+        // Given
+        AssetTransferDto transfer = assetTransferService.createTransfer(transferOf(item(pencil, 10), item(notebook, 5)));
+        // Ayırmadan sonra stok dışarıdan azalmış (ör. sayım düzeltmesi)
+        entityManager.createNativeQuery("UPDATE warehouse_stocks SET current_stock = 3 WHERE id = :id")
+                .setParameter("id", notebookStock.getId())
+                .executeUpdate();
+
+        // When / Then
+        assertThatThrownBy(() -> assetTransferService.updateTransferStatus(transfer.getId(), TransferStatus.IN_TRANSIT))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining(transfer.getTransferCode());
+    }
+
+    @Test
+    void updateTransferItem_ShouldRejectNegativeMissingOrExcessQuantity() {
+        // Given
+        AssetTransferDto transfer = assetTransferService.createTransfer(transferOf(item(pencil, 10)));
+        Long itemId = transfer.getItems().get(0).getId();
+
+        // When / Then
+        assertThatThrownBy(() -> assetTransferService.updateTransferItem(transfer.getId(), itemId, -5))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> assetTransferService.updateTransferItem(transfer.getId(), itemId, null))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> assetTransferService.updateTransferItem(transfer.getId(), itemId, 11))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThat(assetTransferService.updateTransferItem(transfer.getId(), itemId, 0).getItems().get(0)
+                .getTransferredQuantity()).isZero();
+    }
+
+    @Test
+    void statistics_ShouldWriteNetDeltasPerStatusAndProduct() {
+        // Given
+        AssetTransferDto shipped = assetTransferService.createTransfer(transferOf(item(pencil, 10), item(notebook, 2)));
+        AssetTransferDto cancelled = assetTransferService.createTransfer(transferOf(item(pencil, 5)));
+
+        // When
+        assetTransferService.updateTransferStatus(shipped.getId(), TransferStatus.IN_TRANSIT);
+        assetTransferService.cancelTransfer(cancelled.getId(), "Okul talebi geri çekti");
+
+        // Then
+        Map<TransferStatus, Long> counts = new EnumMap<>(TransferStatus.class);
+        dailyDeltas().forEach(delta -> counts.merge(delta.status(), delta.transferCount(), Long::sum));
+        counts.values().removeIf(count -> count == 0);
+        assertThat(counts).containsOnly(Map.entry(TransferStatus.IN_TRANSIT, 1L), Map.entry(TransferStatus.CANCELLED, 1L));
+
+        // Ürün başına {kalem sayısı, talep edilen, transfer edilen}
+        Map<TransferStatus, List<Long>> pencilTotals = new EnumMap<>(TransferStatus.class);
+        productDeltas().stream()
+                .filter(delta -> delta.productId().equals(pencil.getId()))
+                .forEach(delta -> pencilTotals.merge(delta.status(),
+                        List.of(delta.itemCount(), delta.requestedQuantity(), delta.transferredQuantity()),
+                        (left, right) -> List.of(left.get(0) + right.get(0), left.get(1) + right.get(1),
+                                left.get(2) + right.get(2))));
+        pencilTotals.values().removeIf(totals -> totals.equals(List.of(0L, 0L, 0L)));
+        assertThat(pencilTotals).containsOnly(
+                Map.entry(TransferStatus.IN_TRANSIT, List.of(1L, 10L, 10L)),
+                Map.entry(TransferStatus.CANCELLED, List.of(1L, 5L, 0L)));
+    }
+
+    private CreateAssetTransferDto transferOf(CreateAssetTransferDto.TransferItemDto... items) {
+        return new CreateAssetTransferDto(warehouse.getId(), school.getId(), null, "Dönem başı teslimatı", List.of(items));
+    }
+
+    private static CreateAssetTransferDto.TransferItemDto item(Product product, int quantity) {
+        return new CreateAssetTransferDto.TransferItemDto(product.getId(), quantity, null, null, null);
+    }
+
+    private static CreateAssetTransferDto.TransferItemDto itemOf(Long productId) {
+        return new CreateAssetTransferDto.TransferItemDto(productId, 1, null, null, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TransferStatBatchRepository.DailyDelta> dailyDeltas() {
+        ArgumentCaptor<List<TransferStatBatchRepository.DailyDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transferStatBatchRepository, atLeastOnce())
+                .addTransferCounts(eq(LocalDate.now()), eq(school.getId()), captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TransferStatBatchRepository.ProductDelta> productDeltas() {
+        ArgumentCaptor<List<TransferStatBatchRepository.ProductDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transferStatBatchRepository, atLeastOnce())
+                .addProductTotals(eq(LocalDate.now()), eq(school.getId()), captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    private int reserved(WarehouseStock stock) {
+        entityManager.flush();
+        entityManager.clear();
+        return entityManager.find(WarehouseStock.class, stock.getId()).getReservedQuantity();
+    }
+
+    private int current(WarehouseStock stock) {
+        entityManager.flush();
+        entityManager.clear();
+        return entityManager.find(WarehouseStock.class, stock.getId()).getCurrentStock();
+    }
+
+    private int available(WarehouseStock stock) {
+        entityManager.flush();
+        entityManager.clear();
+        return entityManager.find(WarehouseStock.class, stock.getId()).getAvailableQuantity();
+    }
+
+    private Product persistProduct(Category category, String code) {
+        Product product = StockTestFixtures.product(category, code, "Ürün " + code);
+        entityManager.persist(product);
+        return product;
+    }
+
+    private WarehouseStock persistStock(Product product, int currentStock) {
+        WarehouseStock stock = new WarehouseStock();
+        stock.setWarehouse(warehouse);
+        stock.setProduct(product);
+        stock.setCurrentStock(currentStock);
+        entityManager.persist(stock);
+        return stock;
+    }
+}
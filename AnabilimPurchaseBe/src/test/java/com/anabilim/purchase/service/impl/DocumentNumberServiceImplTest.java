@@ -0,0 +1,123 @@
+package com.anabilim.purchase.service.impl;
+
+import com.anabilim.purchase.StockTestFixtures;
+import com.anabilim.purchase.entity.AssetTransfer;
+import com.anabilim.purchase.entity.School;
+import com.anabilim.purchase.entity.Warehouse;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(DocumentNumberServiceImpl.class)
+class DocumentNumberServiceImplTest {
+
+    @Autowired
+    private DocumentNumberServiceImpl documentNumberService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void nextTransferCode_ShouldAllocateBlocks_AndHitSequenceOncePerBlock() {
+        // When
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < DocumentNumberServiceImpl.ALLOCATION_SIZE + 1; i++) {
+            codes.add(documentNumberService.nextTransferCode());
+        }
+
+        // Then
+        assertThat(codes).doesNotHaveDuplicates()
+                .allSatisfy(code -> assertThat(code).matches("TR-" + Year.now().getValue() + "-\\d{6,}"));
+        long first = number(codes.get(0));
+        long last = number(codes.get(codes.size() - 1));
+        assertThat(last - first).isEqualTo(DocumentNumberServiceImpl.ALLOCATION_SIZE);
+        // İki blok ayrıldı; sıradaki blok ikinci bloğun bitişinden başlar
+        Long nextBlock = jdbcTemplate.queryForObject("SELECT nextval('asset_transfer_code_seq')", Long.class);
+        assertThat(nextBlock).isEqualTo(last + DocumentNumberServiceImpl.ALLOCATION_SIZE);
+    }
+
+    @Test
+    void nextQuoteNumber_ShouldBeUnique_UnderConcurrentCallers() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> futures = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(documentNumberService::nextQuoteNumber));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        List<String> numbers = new ArrayList<>();
+        for (Future<String> future : futures) {
+            numbers.add(future.get());
+        }
+
+        // Then
+        assertThat(numbers).hasSize(200).doesNotHaveDuplicates().allMatch(number -> number.startsWith("QT-"));
+        assertThat(documentNumberService.nextOrderCode()).startsWith("PO-" + Year.now().getValue() + "-");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void ensureSequences_ShouldStartTransferSequenceAboveLegacyCodes_WhenMigrationMissing() {
+        // Given: migration uygulanmamış, eski rastgele kodlu bir transfer var
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            Warehouse warehouse = StockTestFixtures.warehouse();
+            entityManager.persist(warehouse);
+            School school = new School();
+            school.setName("Atatürk İlkokulu");
+            school.setCode("SCH-1");
+            entityManager.persist(school);
+            AssetTransfer legacy = new AssetTransfer();
+            legacy.setTransferCode("TR-2024-873412");
+            legacy.setSourceWarehouse(warehouse);
+            legacy.setTargetSchool(school);
+            entityManager.persist(legacy);
+        });
+        jdbcTemplate.execute("DROP SEQUENCE asset_transfer_code_seq");
+
+        try {
+            // When
+            documentNumberService.ensureSequences();
+            Long start = jdbcTemplate.queryForObject("SELECT nextval('asset_transfer_code_seq')", Long.class);
+
+            // Then
+            assertThat(start).isEqualTo(873413);
+        } finally {
+            jdbcTemplate.execute("DELETE FROM asset_transfers");
+            jdbcTemplate.execute("DELETE FROM schools");
+            jdbcTemplate.execute("DELETE FROM warehouses");
+        }
+    }
+
+    private static long number(String code) {
+        return Long.parseLong(code.substring(code.lastIndexOf('-') + 1));
+    }
+}
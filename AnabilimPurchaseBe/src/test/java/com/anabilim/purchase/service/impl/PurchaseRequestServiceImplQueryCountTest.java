@@ -0,0 +1,464 @@
+package com.anabilim.purchase.service.impl;
+
+import com.anabilim.purchase.StockTestFixtures;
+import com.anabilim.purchase.dto.request.ApprovePurchaseRequestDto;
+import com.anabilim.purchase.dto.request.BulkApprovePurchaseRequestDto;
+import com.anabilim.purchase.dto.request.UpdatePurchaseRequestItemsDto;
+import com.anabilim.purchase.dto.response.BulkApprovalResultDto;
+import com.anabilim.purchase.dto.response.CursorPageDto;
+import com.anabilim.purchase.dto.response.PurchaseRequestDto;
+import com.anabilim.purchase.dto.response.PurchaseRequestItemDto;
+import com.anabilim.purchase.dto.response.PurchaseRequestSummaryDto;
+import com.anabilim.purchase.entity.*;
+import com.anabilim.purchase.entity.enums.ApprovalStatus;
+import com.anabilim.purchase.entity.enums.RequestStatus;
+import com.anabilim.purchase.exception.ValidationException;
+import com.anabilim.purchase.mapper.PurchaseRequestMapper;
+import com.anabilim.purchase.mapper.UserMapper;
+import com.anabilim.purchase.repository.PurchaseRequestApprovalBatchRepository;
+import com.anabilim.purchase.service.ApprovalSlaScheduler;
+import com.anabilim.purchase.service.ApproverDirectory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({PurchaseRequestServiceImpl.class, PurchaseRequestMapper.class, UserMapper.class,
+        ApproverDirectory.class, ApprovalSlaScheduler.class, SimpleMeterRegistry.class, DocumentNumberServiceImpl.class,
+        PurchaseRequestApprovalBatchRepository.class})
+class PurchaseRequestServiceImplQueryCountTest {
+    
+    @Autowired
+    private PurchaseRequestServiceImpl purchaseRequestService;
+    
+    @Autowired
+    private ApprovalSlaScheduler approvalSlaScheduler;
+    
+    @Autowired
+    private PurchaseRequestApprovalBatchRepository approvalBatchRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private User requester;
+    private User approver;
+    private Category category;
+    private int sequence;
+    
+    @BeforeEach
+    void setUp() {
+        User manager = persistUser("manager@example.com", null);
+        requester = persistUser("requester@example.com", manager);
+        approver = persistUser("approver@example.com", manager);
+        
+        category = StockTestFixtures.category();
+        entityManager.persist(category);
+    }
+    
+    @Test
+    void listQueries_ShouldRunConstantNumberOfStatements_RegardlessOfRowCount() {
+        // Given
+        createRequests(3);
+        long smallListStatements = countStatements(() -> purchaseRequestService.getAllPurchaseRequests());
+        long smallStatusStatements = countStatements(() ->
+                purchaseRequestService.getPurchaseRequestsByStatus(RequestStatus.IN_APPROVAL));
+        long smallRequesterStatements = countStatements(() ->
+                purchaseRequestService.getPurchaseRequestsByRequester(requester.getEmail()));
+        
+        // When
+        createRequests(30);
+        long largeListStatements = countStatements(() -> purchaseRequestService.getAllPurchaseRequests());
+        long largeStatusStatements = countStatements(() ->
+                purchaseRequestService.getPurchaseRequestsByStatus(RequestStatus.IN_APPROVAL));
+        long largeRequesterStatements = countStatements(() ->
+                purchaseRequestService.getPurchaseRequestsByRequester(requester.getEmail()));
+        
+        // Then
+        assertThat(largeListStatements).isEqualTo(smallListStatements).isLessThanOrEqualTo(4);
+        assertThat(largeStatusStatements).isEqualTo(smallStatusStatements).isLessThanOrEqualTo(4);
+        assertThat(largeRequesterStatements).isEqualTo(smallRequesterStatements).isLessThanOrEqualTo(5);
+    }
+    
+    @Test
+    void listQueries_ShouldMapFullGraph() {
+        // Given
+        createRequests(2);
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When
+        List<PurchaseRequestDto> dtos = purchaseRequestService.getAllPurchaseRequests();
+        
+        // Then
+        assertThat(dtos).hasSize(2);
+        assertThat(dtos).allSatisfy(dto -> {
+            assertThat(dto.getRequester().getManager().getEmail()).isEqualTo("manager@example.com");
+            assertThat(dto.getApprovals()).hasSize(1);
+            assertThat(dto.getItems()).hasSize(2);
+            assertThat(dto.getItems()).allSatisfy(item -> {
+                assertThat(item.getProduct().getCategory()).isEqualTo("Kırtasiye");
+                assertThat(item.getPotentialSuppliers()).hasSize(1);
+                assertThat(item.getSupplierQuotes()).hasSize(1);
+            });
+        });
+    }
+    
+    @Test
+    void summaryPages_ShouldWalkKeysetWithoutGapsOrDuplicates() {
+        // Given
+        createRequests(5);
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When
+        List<PurchaseRequestSummaryDto> visited = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDto<PurchaseRequestSummaryDto> page =
+                    purchaseRequestService.getPurchaseRequestSummariesByRequester(requester.getEmail(), cursor, 2);
+            assertThat(page.getSize()).isLessThanOrEqualTo(2);
+            visited.addAll(page.getContent());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+        
+        // Then
+        assertThat(pages).isEqualTo(3);
+        assertThat(visited).extracting(PurchaseRequestSummaryDto::getId).doesNotHaveDuplicates().hasSize(5);
+        assertThat(visited).isSortedAccordingTo(Comparator
+                .comparing(PurchaseRequestSummaryDto::getCreatedAt)
+                .thenComparing(PurchaseRequestSummaryDto::getId)
+                .reversed());
+        assertThat(visited).allSatisfy(summary -> assertThat(summary.getRequesterId()).isEqualTo(requester.getId()));
+        assertThat(purchaseRequestService.getPurchaseRequestSummariesByStatus(RequestStatus.IN_APPROVAL, null, 1000)
+                .getContent()).hasSize(5);
+        assertThat(purchaseRequestService.getPurchaseRequestSummaries(null, null).isHasNext()).isFalse();
+    }
+    
+    @Test
+    void bulkApprove_ShouldRunConstantNumberOfStatements_RegardlessOfRequestCount() {
+        // Given
+        List<Long> smallBatch = createRequests(3);
+        List<Long> largeBatch = createRequests(60);
+        
+        // When
+        long smallStatements = countBulkApprovalStatements(smallBatch);
+        long largeStatements = countBulkApprovalStatements(largeBatch);
+        
+        // Then
+        assertThat(largeStatements).isEqualTo(smallStatements).isLessThanOrEqualTo(4);
+        assertThat(entityManager.find(PurchaseRequest.class, largeBatch.get(0)).getStatus())
+                .isEqualTo(RequestStatus.APPROVED);
+    }
+    
+    @Test
+    void bulkApprove_ShouldReportResultPerRequest() {
+        // Given
+        List<Long> ids = createRequests(2);
+        addPendingStep(ids.get(1), requester, 2);
+        entityManager.flush();
+        entityManager.clear();
+        List<Long> requestIds = List.of(ids.get(0), ids.get(1), -1L);
+        
+        // When
+        BulkApprovalResultDto firstRound = purchaseRequestService.bulkApprovePurchaseRequests(approver.getEmail(),
+                new BulkApprovePurchaseRequestDto(requestIds, true, "Uygundur", null));
+        BulkApprovalResultDto secondRound = purchaseRequestService.bulkApprovePurchaseRequests(approver.getEmail(),
+                new BulkApprovePurchaseRequestDto(requestIds, true, "Uygundur", null));
+        
+        // Then
+        assertThat(firstRound.getSucceeded()).isEqualTo(2);
+        assertThat(firstRound.getResults()).extracting(BulkApprovalResultDto.ItemResult::getStatus)
+                .containsExactly(RequestStatus.APPROVED, RequestStatus.IN_APPROVAL, null);
+        assertThat(firstRound.getResults().get(2).getMessage()).contains("bulunamadı");
+        assertThat(secondRound.getSucceeded()).isZero();
+        assertThat(secondRound.getResults()).extracting(BulkApprovalResultDto.ItemResult::getMessage)
+                .containsExactly("Onaylanacak adım bulunamadı.",
+                        "Bu adımı onaylama sırası sizde değil.",
+                        "Satın alma talebi bulunamadı: -1");
+    }
+    
+    @Test
+    void bulkReject_ShouldRejectCurrentStepsAndReportOthersPerRequest() {
+        // Given
+        List<Long> ids = createRequests(2);
+        addPendingStep(ids.get(1), requester, 0);
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When
+        BulkApprovalResultDto result = purchaseRequestService.bulkApprovePurchaseRequests(approver.getEmail(),
+                new BulkApprovePurchaseRequestDto(ids, false, null, "Bütçe yetersiz"));
+        
+        // Then
+        assertThat(result.getResults()).extracting(BulkApprovalResultDto.ItemResult::getStatus)
+                .containsExactly(RequestStatus.REJECTED, RequestStatus.IN_APPROVAL);
+        assertThat(result.getResults().get(1).getMessage()).isEqualTo("Bu adımı reddetme sırası sizde değil.");
+        PurchaseRequest rejected = entityManager.find(PurchaseRequest.class, ids.get(0));
+        assertThat(rejected.getStatus()).isEqualTo(RequestStatus.REJECTED);
+        assertThat(rejected.getRejectionReason()).isEqualTo("Bütçe yetersiz");
+        assertThat(entityManager.find(PurchaseRequest.class, ids.get(1)).getStatus()).isEqualTo(RequestStatus.IN_APPROVAL);
+    }
+    
+    @Test
+    void bulkStepUpdates_ShouldLeaveStepPending_WhenRequestLeftApproval() {
+        // Given: talep okunduktan sonra eşzamanlı bir işlem tarafından iptal edilmiş
+        List<Long> ids = createRequests(2);
+        entityManager.flush();
+        List<Long> stepIds = ids.stream().map(this::currentStepId).toList();
+        entityManager.createNativeQuery("UPDATE purchase_requests SET status = 'CANCELLED' WHERE id = :id")
+                .setParameter("id", ids.get(1))
+                .executeUpdate();
+    
+        // When
+        Set<Long> unchanged = approvalBatchRepository.completePendingSteps(stepIds, approver.getId(),
+                ApprovalStatus.APPROVED, "Uygundur", LocalDateTime.now());
+        approvalBatchRepository.reopenSteps(List.of(stepIds.get(0)), ApprovalStatus.APPROVED, LocalDateTime.now());
+    
+        // Then
+        assertThat(unchanged).containsExactly(stepIds.get(1));
+        assertThat(stepIds).allSatisfy(stepId -> {
+            PurchaseRequestApproval step = entityManager.find(PurchaseRequestApproval.class, stepId);
+            assertThat(step.getStatus()).isEqualTo(ApprovalStatus.PENDING);
+            assertThat(step.getActionTakenAt()).isNull();
+        });
+    }
+    
+    @Test
+    void approveAndReject_ShouldApplyConditionalTransitions() {
+        // Given
+        List<Long> ids = createRequests(2);
+        addPendingStep(ids.get(0), requester, 2);
+        entityManager.flush();
+        entityManager.clear();
+        ApprovePurchaseRequestDto approveDto = new ApprovePurchaseRequestDto(true, "Uygundur", null);
+        
+        // When
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        PurchaseRequestDto firstStep = purchaseRequestService.approvePurchaseRequest(ids.get(0), approver.getEmail(), approveDto);
+        long firstStepStatements = statistics.getPrepareStatementCount();
+        PurchaseRequestDto finalStep = purchaseRequestService.approvePurchaseRequest(ids.get(0), requester.getEmail(), approveDto);
+        PurchaseRequestDto rejected = purchaseRequestService.rejectPurchaseRequest(ids.get(1), approver.getEmail(),
+                new ApprovePurchaseRequestDto(false, null, "Bütçe yetersiz"));
+        
+        // Then
+        assertThat(firstStepStatements).isLessThanOrEqualTo(7);
+        assertThat(firstStep.getStatus()).isEqualTo(RequestStatus.IN_APPROVAL);
+        assertThat(firstStep.getApprovals()).extracting(approval -> approval.getStatus())
+                .containsExactlyInAnyOrder(ApprovalStatus.APPROVED, ApprovalStatus.PENDING);
+        assertThat(finalStep.getStatus()).isEqualTo(RequestStatus.APPROVED);
+        assertThat(finalStep.getCompletedAt()).isNotNull();
+        assertThat(rejected.getStatus()).isEqualTo(RequestStatus.REJECTED);
+        assertThat(rejected.getRejectionReason()).isEqualTo("Bütçe yetersiz");
+        assertThatThrownBy(() -> purchaseRequestService.approvePurchaseRequest(ids.get(0), approver.getEmail(), approveDto))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("Bu talebi onaylama yetkiniz bulunmamaktadır.");
+    }
+    
+    @Test
+    void approve_WhenNotApproversTurn_ShouldFail() {
+        // Given
+        List<Long> ids = createRequests(1);
+        addPendingStep(ids.get(0), requester, 2);
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When / Then
+        assertThatThrownBy(() -> purchaseRequestService.approvePurchaseRequest(ids.get(0), requester.getEmail(),
+                new ApprovePurchaseRequestDto(true, null, null)))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("Bu adımı onaylama sırası sizde değil.");
+    }
+    
+    @Test
+    void updateItems_ShouldKeepUnchangedItemsAndQuotes() {
+        // Given
+        Long requestId = createRequests(1).get(0);
+        entityManager.flush();
+        entityManager.clear();
+        PurchaseRequestDto before = purchaseRequestService.getPurchaseRequestById(requestId);
+        PurchaseRequestItemDto keptItem = before.getItems().get(0);
+        Long keptSupplierId = keptItem.getPotentialSuppliers().iterator().next().getId();
+        String keptQuoteUid = keptItem.getSupplierQuotes().iterator().next().getQuoteUid();
+        Long newProductId = persistProduct().getId();
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When
+        purchaseRequestService.updatePurchaseRequestItems(requestId, new UpdatePurchaseRequestItemsDto(List.of(
+                new UpdatePurchaseRequestItemsDto.PurchaseRequestItemDto(keptItem.getId(), keptItem.getProduct().getId(),
+                        Set.of(keptSupplierId), null, 25, null, null),
+                new UpdatePurchaseRequestItemsDto.PurchaseRequestItemDto(null, newProductId,
+                        Set.of(keptSupplierId), null, 3, null, null))));
+        entityManager.flush();
+        entityManager.clear();
+        PurchaseRequestDto after = purchaseRequestService.getPurchaseRequestById(requestId);
+        
+        // Then
+        assertThat(after.getItems()).hasSize(2);
+        PurchaseRequestItemDto updated = after.getItems().stream()
+                .filter(item -> item.getId().equals(keptItem.getId()))
+                .findFirst().orElseThrow();
+        assertThat(updated.getQuantity()).isEqualTo(25);
+        assertThat(updated.getSupplierQuotes()).extracting(quote -> quote.getQuoteUid()).containsExactly(keptQuoteUid);
+        assertThat(after.getStatus()).isEqualTo(RequestStatus.IN_PROGRESS);
+    }
+    
+    @Test
+    void slaScheduler_ShouldLoadOnlyCurrentStepsInConstantNumberOfStatements() {
+        // Given
+        List<Long> ids = createRequests(40);
+        addPendingStep(ids.get(0), requester, 2);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        // When
+        approvalSlaScheduler.rebuild();
+        
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(approvalSlaScheduler.getTimerCount()).isEqualTo(40);
+    }
+    
+    @Test
+    void slaScheduler_ShouldNotRescheduleEscalatedSteps() {
+        // Given
+        List<Long> ids = createRequests(3);
+        entityManager.flush();
+        entityManager.createQuery("UPDATE PurchaseRequestApproval a SET a.escalatedAt = CURRENT_TIMESTAMP " +
+                        "WHERE a.purchaseRequest.id = :id")
+                .setParameter("id", ids.get(0))
+                .executeUpdate();
+        entityManager.clear();
+        
+        // When
+        approvalSlaScheduler.rebuild();
+        
+        // Then
+        assertThat(approvalSlaScheduler.getTimerCount()).isEqualTo(2);
+    }
+    
+    private void addPendingStep(Long requestId, User stepApprover, int stepOrder) {
+        PurchaseRequestApproval step = new PurchaseRequestApproval();
+        step.setPurchaseRequest(entityManager.find(PurchaseRequest.class, requestId));
+        step.setApprover(stepApprover);
+        step.setRoleName("SATIN_ALMA");
+        step.setRequiredRole("SATIN_ALMA");
+        step.setStepOrder(stepOrder);
+        step.setStatus(ApprovalStatus.PENDING);
+        entityManager.persist(step);
+    }
+    
+    private Long currentStepId(Long requestId) {
+        return entityManager.createQuery(
+                        "SELECT a.id FROM PurchaseRequestApproval a WHERE a.purchaseRequest.id = :requestId", Long.class)
+                .setParameter("requestId", requestId)
+                .getSingleResult();
+    }
+    
+    private long countBulkApprovalStatements(List<Long> requestIds) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BulkApprovalResultDto result = purchaseRequestService.bulkApprovePurchaseRequests(approver.getEmail(),
+                new BulkApprovePurchaseRequestDto(requestIds, true, "Uygundur", null));
+        entityManager.flush();
+        assertThat(result.getSucceeded()).isEqualTo(requestIds.size());
+        return statistics.getPrepareStatementCount();
+    }
+    
+    private long countStatements(Supplier<List<PurchaseRequestDto>> action) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.get();
+        return statistics.getPrepareStatementCount();
+    }
+    
+    private List<Long> createRequests(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            PurchaseRequest request = new PurchaseRequest();
+            request.setTitle("Talep " + i);
+            request.setDescription("Açıklama " + i);
+            request.setRequester(requester);
+            request.setStatus(RequestStatus.IN_APPROVAL);
+            entityManager.persist(request);
+            
+            PurchaseRequestApproval approval = new PurchaseRequestApproval();
+            approval.setPurchaseRequest(request);
+            approval.setApprover(approver);
+            approval.setRoleName("OKUL_MUDURU");
+            approval.setRequiredRole("OKUL_MUDURU");
+            approval.setStepOrder(1);
+            approval.setStatus(ApprovalStatus.PENDING);
+            entityManager.persist(approval);
+            
+            for (int j = 0; j < 2; j++) {
+                com.anabilim.purchase.entity.Supplier supplier = persistSupplier();
+                PurchaseRequestItem item = new PurchaseRequestItem();
+                item.setPurchaseRequest(request);
+                item.setProduct(persistProduct());
+                item.setQuantity(10);
+                item.addPotentialSupplier(supplier);
+                entityManager.persist(item);
+            }
+            ids.add(request.getId());
+        }
+        return ids;
+    }
+    
+    private User persistUser(String email, User manager) {
+        User user = new User();
+        user.setMicrosoft365Id(email);
+        user.setEmail(email);
+        user.setFirstName("Ad");
+        user.setLastName("Soyad");
+        user.setDisplayName("Ad Soyad");
+        user.setDepartment("Satın Alma");
+        user.setPosition("Uzman");
+        user.setManager(manager);
+        entityManager.persist(user);
+        return user;
+    }
+    
+    private Product persistProduct() {
+        Product product = StockTestFixtures.product(category, "PRD-" + sequence, "Ürün " + sequence++);
+        entityManager.persist(product);
+        return product;
+    }
+    
+    private com.anabilim.purchase.entity.Supplier persistSupplier() {
+        com.anabilim.purchase.entity.Supplier supplier = new com.anabilim.purchase.entity.Supplier();
+        supplier.setName("Tedarikçi " + sequence);
+        supplier.setTaxNumber("TAX-" + sequence++);
+        entityManager.persist(supplier);
+        return supplier;
+    }
+}
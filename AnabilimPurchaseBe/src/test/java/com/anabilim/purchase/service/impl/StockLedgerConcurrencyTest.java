@@ -0,0 +1,180 @@
+package com.anabilim.purchase.service.impl;
+
+import com.anabilim.purchase.StockTestFixtures;
+import com.anabilim.purchase.dto.request.CreateStockMovementByWarehouseDto;
+import com.anabilim.purchase.dto.request.CreateStockMovementDto;
+import com.anabilim.purchase.entity.Category;
+import com.anabilim.purchase.entity.Product;
+import com.anabilim.purchase.entity.Warehouse;
+import com.anabilim.purchase.entity.WarehouseStock;
+import com.anabilim.purchase.entity.enums.MovementType;
+import com.anabilim.purchase.exception.ValidationException;
+import com.anabilim.purchase.repository.CategoryRepository;
+import com.anabilim.purchase.repository.ProductRepository;
+import com.anabilim.purchase.repository.StockMovementRepository;
+import com.anabilim.purchase.repository.WarehouseRepository;
+import com.anabilim.purchase.repository.WarehouseStockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Aynı stok kaydına eşzamanlı hareketler: her hareket kendi transaction'ında commit edilir
+ */
+@DataJpaTest
+@Import(StockLedgerServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockLedgerConcurrencyTest {
+    
+    private static final int THREADS = 16;
+    
+    @Autowired
+    private StockLedgerServiceImpl stockLedgerService;
+    
+    @Autowired
+    private WarehouseStockRepository warehouseStockRepository;
+    
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+    
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    private Warehouse warehouse;
+    private Product product;
+    
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.save(StockTestFixtures.category());
+        warehouse = warehouseRepository.save(StockTestFixtures.warehouse());
+        product = productRepository.save(StockTestFixtures.product(category));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        stockMovementRepository.deleteAllInBatch();
+        warehouseStockRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        warehouseRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+    }
+    
+    @Test
+    void concurrentMovements_OnSameStock_ShouldNotLoseUpdates() throws Exception {
+        // Given
+        Long stockId = persistStock(1_000);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            CreateStockMovementDto dto = i % 2 == 0
+                    ? new CreateStockMovementDto(2, MovementType.IN, null, null, null)
+                    : new CreateStockMovementDto(1, MovementType.OUT, null, null, null);
+            tasks.add(() -> {
+                stockLedgerService.recordMovement(stockId, dto);
+                return null;
+            });
+        }
+        
+        // When
+        int failures = runConcurrently(tasks);
+        
+        // Then
+        assertThat(failures).isZero();
+        assertThat(warehouseStockRepository.findById(stockId).orElseThrow().getCurrentStock()).isEqualTo(1_500);
+        assertThat(stockMovementRepository.count()).isEqualTo(1_000);
+    }
+    
+    @Test
+    void concurrentOutMovements_ShouldNeverDriveStockNegative() throws Exception {
+        // Given
+        Long stockId = persistStock(100);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            tasks.add(() -> {
+                stockLedgerService.recordMovement(stockId, new CreateStockMovementDto(1, MovementType.OUT, null, null, null));
+                return null;
+            });
+        }
+        
+        // When
+        int failures = runConcurrently(tasks);
+        
+        // Then
+        assertThat(failures).isEqualTo(200);
+        assertThat(warehouseStockRepository.findById(stockId).orElseThrow().getCurrentStock()).isZero();
+        assertThat(stockMovementRepository.count()).isEqualTo(100);
+    }
+    
+    @Test
+    void concurrentFirstMovements_ShouldCreateSingleStockRow() throws Exception {
+        // Given
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(() -> {
+                stockLedgerService.recordMovement(new CreateStockMovementByWarehouseDto(
+                        warehouse.getId(), product.getId(), 1, MovementType.IN, null, null, null));
+                return null;
+            });
+        }
+        
+        // When
+        int failures = runConcurrently(tasks);
+        
+        // Then
+        assertThat(failures).isZero();
+        assertThat(warehouseStockRepository.findAll()).singleElement()
+                .satisfies(stock -> assertThat(stock.getCurrentStock()).isEqualTo(50));
+    }
+    
+    private int runConcurrently(List<Callable<Void>> tasks) throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger insufficientStock = new AtomicInteger();
+        try {
+            List<Future<Void>> futures = executor.invokeAll(tasks);
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof ValidationException)) {
+                        throw e;
+                    }
+                    insufficientStock.incrementAndGet();
+                }
+            }
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        }
+        return insufficientStock.get();
+    }
+    
+    private Long persistStock(int currentStock) {
+        WarehouseStock stock = new WarehouseStock();
+        stock.setWarehouse(warehouse);
+        stock.setProduct(product);
+        stock.setCurrentStock(currentStock);
+        return warehouseStockRepository.save(stock).getId();
+    }
+}
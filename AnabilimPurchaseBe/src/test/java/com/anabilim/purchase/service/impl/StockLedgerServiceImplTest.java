@@ -0,0 +1,117 @@
+package com.anabilim.purchase.service.impl;
+
+import com.anabilim.purchase.StockTestFixtures;
+import com.anabilim.purchase.dto.request.CreateStockMovementByWarehouseDto;
+import com.anabilim.purchase.dto.request.CreateStockMovementDto;
+import com.anabilim.purchase.entity.Category;
+import com.anabilim.purchase.entity.Product;
+import com.anabilim.purchase.entity.StockMovement;
+import com.anabilim.purchase.entity.Warehouse;
+import com.anabilim.purchase.entity.WarehouseStock;
+import com.anabilim.purchase.entity.enums.MovementType;
+import com.anabilim.purchase.exception.ResourceNotFoundException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(StockLedgerServiceImpl.class)
+class StockLedgerServiceImplTest {
+    
+    @Autowired
+    private StockLedgerServiceImpl stockLedgerService;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Warehouse warehouse;
+    private Product product;
+    
+    @BeforeEach
+    void setUp() {
+        Category category = StockTestFixtures.category();
+        entityManager.persist(category);
+        
+        warehouse = StockTestFixtures.warehouse();
+        entityManager.persist(warehouse);
+        
+        product = StockTestFixtures.product(category);
+        entityManager.persist(product);
+    }
+    
+    @Test
+    void recordMovement_ShouldNotLoadHistory_AndRunSameStatementsAsHistoryGrows() {
+        // Given
+        WarehouseStock stock = persistStock(100);
+        long emptyHistoryStatements = countStatements(stock.getId(), MovementType.OUT, 10);
+        for (int i = 0; i < 200; i++) {
+            StockMovement old = new StockMovement();
+            old.setWarehouseStock(stock);
+            old.setQuantity(1);
+            old.setMovementType(MovementType.IN);
+            entityManager.persist(old);
+        }
+        
+        // When
+        long longHistoryStatements = countStatements(stock.getId(), MovementType.IN, 25);
+        
+        // Then
+        assertThat(longHistoryStatements).isEqualTo(emptyHistoryStatements).isEqualTo(2);
+        WarehouseStock updated = entityManager.find(WarehouseStock.class, stock.getId());
+        assertThat(updated.getCurrentStock()).isEqualTo(115);
+        assertThat(updated.getLastMovementAt()).isNotNull();
+    }
+    
+    @Test
+    void recordMovementByWarehouse_ShouldCreateMissingStockRow() {
+        // Given
+        CreateStockMovementByWarehouseDto dto = new CreateStockMovementByWarehouseDto(
+                warehouse.getId(), product.getId(), 30, MovementType.IN, "PURCHASE_ORDER", 7L, null);
+        
+        // When
+        StockMovement first = stockLedgerService.recordMovement(dto);
+        StockMovement second = stockLedgerService.recordMovement(dto);
+        
+        // Then
+        assertThat(second.getWarehouseStock().getId()).isEqualTo(first.getWarehouseStock().getId());
+        assertThat(second.getWarehouseStock().getCurrentStock()).isEqualTo(60);
+        assertThatThrownBy(() -> stockLedgerService.recordMovement(new CreateStockMovementByWarehouseDto(
+                -1L, product.getId(), 1, MovementType.IN, null, null, null)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Depo bulunamadı: -1");
+        assertThatThrownBy(() -> stockLedgerService.recordMovement(-1L,
+                new CreateStockMovementDto(1, MovementType.IN, null, null, null)))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+    
+    private long countStatements(Long stockId, MovementType movementType, int quantity) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        stockLedgerService.recordMovement(stockId, new CreateStockMovementDto(quantity, movementType, null, null, null));
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+    
+    private WarehouseStock persistStock(int currentStock) {
+        WarehouseStock stock = new WarehouseStock();
+        stock.setWarehouse(warehouse);
+        stock.setProduct(product);
+        stock.setCurrentStock(currentStock);
+        entityManager.persist(stock);
+        return stock;
+    }
+}
@@ -0,0 +1,159 @@
+package com.anabilim.purchase.service.impl;
+
+import com.anabilim.purchase.StockTestFixtures;
+import com.anabilim.purchase.dto.response.BulkStockMovementResultDto;
+import com.anabilim.purchase.entity.Category;
+import com.anabilim.purchase.entity.Product;
+import com.anabilim.purchase.entity.StockMovement;
+import com.anabilim.purchase.entity.Warehouse;
+import com.anabilim.purchase.entity.WarehouseStock;
+import com.anabilim.purchase.repository.StockLedgerBatchRepository;
+import com.anabilim.purchase.service.StockMovementImportService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({StockMovementImportServiceImpl.class, StockLedgerBatchRepository.class, JacksonAutoConfiguration.class})
+class StockMovementImportServiceImplTest {
+
+    @Autowired
+    private StockMovementImportServiceImpl importService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Warehouse warehouse;
+    private Product pencil;
+    private Product notebook;
+
+    @BeforeEach
+    void setUp() {
+        Category category = StockTestFixtures.category();
+        entityManager.persist(category);
+
+        warehouse = StockTestFixtures.warehouse();
+        entityManager.persist(warehouse);
+
+        pencil = persistProduct(category, "PRD-1", "Kalem");
+        notebook = persistProduct(category, "PRD-2", "Defter");
+
+        WarehouseStock stock = new WarehouseStock();
+        stock.setWarehouse(warehouse);
+        stock.setProduct(pencil);
+        stock.setCurrentStock(10);
+        entityManager.persist(stock);
+        entityManager.flush();
+    }
+
+    @Test
+    void importCsv_ShouldApplyValidLines_AndReportInvalidOnes() throws Exception {
+        // Given
+        String csv = """
+                warehouseCode,productCode,quantity,movementType,reference
+                WH-1,PRD-1,5,IN,"Dönem başı, teslimat"
+                WH-1,PRD-1,3,out,
+                WH-1,PRD-2,20,IN,Sayım
+                WH-9,PRD-1,1,IN,
+                WH-1,PRD-1,0,IN,
+                WH-1,PRD-1,2,TRANSFER,
+                """;
+
+        // When
+        BulkStockMovementResultDto result = importService.importMovements(stream(csv), StockMovementImportService.Format.CSV);
+
+        // Then
+        assertThat(result.getTotal()).isEqualTo(6);
+        assertThat(result.getSucceeded()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(BulkStockMovementResultDto.LineError::getLine)
+                .containsExactly(5, 6, 7);
+        assertThat(result.getErrors().get(0).getMessage()).contains("WH-9");
+
+        assertThat(currentStock(pencil)).isEqualTo(12);
+        // Olmayan stok kaydı içe aktarım sırasında oluşturulur
+        assertThat(currentStock(notebook)).isEqualTo(20);
+        List<StockMovement> movements = entityManager
+                .createQuery("SELECT m FROM StockMovement m ORDER BY m.id", StockMovement.class)
+                .getResultList();
+        assertThat(movements).hasSize(3);
+        assertThat(movements.get(0).getReferenceType()).isEqualTo("BULK_IMPORT");
+        assertThat(movements.get(0).getNotes()).isEqualTo("Dönem başı, teslimat");
+    }
+
+    @Test
+    void importJson_ShouldRejectAllLinesOfStock_WhenNetDeltaGoesNegative() throws Exception {
+        // Given
+        String json = """
+                [
+                  {"warehouseCode": "WH-1", "productCode": "PRD-1", "quantity": 4, "movementType": "IN"},
+                  {"warehouseCode": "WH-1", "productCode": "PRD-1", "quantity": 30, "movementType": "OUT"},
+                  {"warehouseCode": "WH-1", "productCode": "PRD-2", "quantity": 7, "movementType": "IN", "reference": "Yıl sonu sayımı"},
+                  {"warehouseCode": "WH-1", "productCode": "PRD-X", "quantity": 1, "movementType": "IN"}
+                ]
+                """;
+
+        // When
+        BulkStockMovementResultDto result = importService.importMovements(stream(json), StockMovementImportService.Format.JSON);
+
+        // Then
+        assertThat(result.getTotal()).isEqualTo(4);
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(BulkStockMovementResultDto.LineError::getLine)
+                .containsExactly(1, 2, 4);
+        assertThat(result.getErrors().get(0).getMessage()).startsWith("Yetersiz stok");
+        assertThat(currentStock(pencil)).isEqualTo(10);
+        assertThat(currentStock(notebook)).isEqualTo(7);
+    }
+
+    @Test
+    void importJson_ShouldReportReferenceLongerThanNotesColumn_AsLineError() throws Exception {
+        // Given
+        String json = """
+                [
+                  {"warehouseCode": "WH-1", "productCode": "PRD-1", "quantity": 1, "movementType": "IN", "reference": "%s"},
+                  {"warehouseCode": "WH-1", "productCode": "PRD-1", "quantity": 2, "movementType": "IN", "reference": "%s"}
+                ]
+                """.formatted("a".repeat(255), "a".repeat(256));
+
+        // When
+        BulkStockMovementResultDto result = importService.importMovements(stream(json), StockMovementImportService.Format.JSON);
+
+        // Then
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(BulkStockMovementResultDto.LineError::getLine)
+                .containsExactly(2);
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("Referans en fazla 255 karakter olabilir");
+        assertThat(currentStock(pencil)).isEqualTo(11);
+    }
+
+    private Product persistProduct(Category category, String code, String name) {
+        Product product = StockTestFixtures.product(category, code, name);
+        entityManager.persist(product);
+        return product;
+    }
+
+    private int currentStock(Product product) {
+        entityManager.clear();
+        return entityManager.createQuery(
+                        "SELECT ws.currentStock FROM WarehouseStock ws WHERE ws.warehouse.id = :warehouseId AND ws.product.id = :productId",
+                        Integer.class)
+                .setParameter("warehouseId", warehouse.getId())
+                .setParameter("productId", product.getId())
+                .getSingleResult();
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,157 @@
+package com.anabilim.purchase.service.impl;
+
+import com.anabilim.purchase.StockTestFixtures;
+import com.anabilim.purchase.dto.response.StockAsOfDto;
+import com.anabilim.purchase.entity.Category;
+import com.anabilim.purchase.entity.Product;
+import com.anabilim.purchase.entity.StockMovement;
+import com.anabilim.purchase.entity.Warehouse;
+import com.anabilim.purchase.entity.WarehouseStock;
+import com.anabilim.purchase.entity.enums.MovementType;
+import com.anabilim.purchase.exception.ValidationException;
+import com.anabilim.purchase.repository.StockMovementArchiveRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({StockSnapshotServiceImpl.class, StockMovementArchiveRepository.class})
+class StockSnapshotServiceImplTest {
+    
+    private static final LocalDateTime FEBRUARY = LocalDateTime.of(2026, 2, 1, 0, 0);
+    
+    @Autowired
+    private StockSnapshotServiceImpl stockSnapshotService;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private WarehouseStock stock;
+    
+    @BeforeEach
+    void setUp() {
+        // Arşiv tablosu migration ile oluşur; H2'de DDL açık transaction'ı commit ettiği için veri eklenmeden önce
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS stock_movements_archive " +
+                "(warehouse_stock_id BIGINT NOT NULL, period_start DATE NOT NULL, PRIMARY KEY (warehouse_stock_id, period_start))");
+        
+        Category category = StockTestFixtures.category();
+        entityManager.persist(category);
+        
+        Warehouse warehouse = StockTestFixtures.warehouse();
+        entityManager.persist(warehouse);
+        
+        Product product = StockTestFixtures.product(category);
+        entityManager.persist(product);
+        
+        stock = new WarehouseStock();
+        stock.setWarehouse(warehouse);
+        stock.setProduct(product);
+        stock.setCurrentStock(75);
+        entityManager.persist(stock);
+        
+        persistMovement(MovementType.IN, 100, LocalDateTime.of(2026, 1, 10, 9, 0));
+        persistMovement(MovementType.OUT, 30, LocalDateTime.of(2026, 2, 10, 9, 0));
+        persistMovement(MovementType.IN, 5, LocalDateTime.of(2026, 3, 10, 9, 0));
+        entityManager.createNativeQuery("UPDATE warehouse_stocks SET created_at = :createdAt WHERE id = :id")
+                .setParameter("createdAt", LocalDateTime.of(2026, 1, 1, 0, 0))
+                .setParameter("id", stock.getId())
+                .executeUpdate();
+    }
+    
+    @Test
+    void createSnapshots_ShouldRewindCurrentStock_AndBeRepeatable() {
+        // When
+        int created = stockSnapshotService.createSnapshots(FEBRUARY);
+        int repeated = stockSnapshotService.createSnapshots(FEBRUARY);
+        
+        // Then
+        assertThat(created).isEqualTo(1);
+        assertThat(repeated).isZero();
+        Integer quantity = entityManager.createQuery(
+                        "SELECT s.quantity FROM StockSnapshot s WHERE s.warehouseStock.id = :id", Integer.class)
+                .setParameter("id", stock.getId())
+                .getSingleResult();
+        assertThat(quantity).isEqualTo(100);
+    }
+    
+    @Test
+    void createSnapshots_ShouldReject_FutureMoment() {
+        // When / Then
+        assertThatThrownBy(() -> stockSnapshotService.createSnapshots(LocalDateTime.now().plusDays(1)))
+                .isInstanceOf(ValidationException.class);
+    }
+    
+    @Test
+    void getStockAsOf_ShouldReplayOnlyMovementsSinceNearestSnapshot() {
+        // Given
+        stockSnapshotService.createSnapshots(FEBRUARY);
+        
+        // When
+        StockAsOfDto midFebruary = stockSnapshotService.getStockAsOf(stock.getId(), LocalDateTime.of(2026, 2, 15, 0, 0));
+        StockAsOfDto midMarch = stockSnapshotService.getStockAsOf(stock.getId(), LocalDateTime.of(2026, 3, 15, 0, 0));
+        StockAsOfDto beforeFirstSnapshot = stockSnapshotService.getStockAsOf(stock.getId(), LocalDateTime.of(2026, 1, 5, 0, 0));
+        
+        // Then
+        assertThat(midFebruary.getQuantity()).isEqualTo(70);
+        assertThat(midFebruary.getBasedOn()).isEqualTo(FEBRUARY);
+        assertThat(midFebruary.getReplayedMovements()).isEqualTo(1);
+        assertThat(midMarch.getQuantity()).isEqualTo(75);
+        assertThat(midMarch.getReplayedMovements()).isEqualTo(2);
+        assertThat(beforeFirstSnapshot.getQuantity()).isZero();
+        assertThat(beforeFirstSnapshot.getReplayedMovements()).isEqualTo(1);
+    }
+    
+    @Test
+    void getStockAsOf_ShouldRewindFromCurrentStock_WhenNoSnapshotExists() {
+        // When
+        StockAsOfDto result = stockSnapshotService.getStockAsOf(stock.getId(), LocalDateTime.of(2026, 2, 15, 0, 0));
+        
+        // Then
+        assertThat(result.getQuantity()).isEqualTo(70);
+        assertThat(result.isFromSnapshot()).isFalse();
+        assertThat(result.getReplayedMovements()).isEqualTo(1);
+    }
+    
+    @Test
+    void getStockAsOf_ShouldReject_WhenReplayCrossesArchivedMonth() {
+        // Given
+        LocalDateTime march = LocalDateTime.of(2026, 3, 1, 0, 0);
+        stockSnapshotService.createSnapshots(march);
+        jdbcTemplate.update("INSERT INTO stock_movements_archive (warehouse_stock_id, period_start) VALUES (?, ?)",
+                stock.getId(), LocalDate.of(2026, 2, 1));
+        
+        // When / Then
+        assertThatThrownBy(() -> stockSnapshotService.getStockAsOf(stock.getId(), LocalDateTime.of(2026, 2, 15, 0, 0)))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("arşivlenmiş");
+        assertThat(stockSnapshotService.getStockAsOf(stock.getId(), march).getQuantity()).isEqualTo(70);
+        assertThat(stockSnapshotService.getStockAsOf(stock.getId(), LocalDateTime.of(2026, 3, 15, 0, 0)).getQuantity())
+                .isEqualTo(75);
+    }
+    
+    private void persistMovement(MovementType type, int quantity, LocalDateTime createdAt) {
+        StockMovement movement = new StockMovement();
+        movement.setWarehouseStock(stock);
+        movement.setQuantity(quantity);
+        movement.setMovementType(type);
+        entityManager.persist(movement);
+        entityManager.flush();
+        entityManager.createNativeQuery("UPDATE stock_movements SET created_at = :createdAt WHERE id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", movement.getId())
+                .executeUpdate();
+    }
+}
@@ -265,10 +265,10 @@ export const StockDetail = () => {
                       <td className="px-6 py-4 whitespace-nowrap">
                         <div>
                           <div className="text-sm font-medium text-gray-900">
-                            {movement.warehouseStock.warehouse.name}
+                            {movement.warehouseName}
                           </div>
                           <div className="text-sm text-gray-500">
-                            {movement.warehouseStock.warehouse.code}
+                            {movement.warehouseCode}
                           </div>
                         </div>
                       </td>
@@ -81,6 +81,8 @@ export interface WarehouseStockInfo {
     address: string;
   };
   currentStock: number;
+  reservedQuantity: number;
+  availableQuantity: number;
   minStock: number;
   maxStock: number;
   isLowStock: boolean;
@@ -89,23 +91,12 @@ export interface WarehouseStockInfo {
 
 export interface StockMovementDetail {
   id: number;
-  warehouseStock: {
-    id: number;
-    warehouse: {
-      id: number;
-      name: string;
-      code: string;
-    };
-    product: {
-      id: number;
-      name: string;
-      code: string;
-      unit: string;
-    };
-    currentStock: number;
-    minStock: number;
-    maxStock: number;
-  };
+  warehouseStockId: number;
+  warehouseId: number;
+  warehouseCode: string;
+  warehouseName: string;
+  productId: number;
+  productCode: string;
   quantity: number;
   movementType: 'IN' | 'OUT' | 'TRANSFER' | 'ADJUSTMENT';
   referenceType: 'PURCHASE_ORDER' | 'SALES_ORDER' | 'TRANSFER' | 'ADJUSTMENT' | 'MANUAL';